@@ -9,12 +9,17 @@ import java.io.*;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.impl.SimpleLogger;
@@ -24,9 +29,16 @@ import org.toradocu.extractor.DocumentedType;
 import org.toradocu.extractor.JavadocExtractor;
 import org.toradocu.extractor.ParameterNotFoundException;
 import org.toradocu.generator.OracleGenerator;
+import org.toradocu.output.util.ClassSummary;
 import org.toradocu.output.util.JsonOutput;
+import org.toradocu.translator.CommentTemplates;
 import org.toradocu.translator.CommentTranslator;
-import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.translator.ParseBudget;
+import org.toradocu.translator.Parser;
+import org.toradocu.translator.StanfordParser;
+import org.toradocu.translator.TagClassifier;
+import org.toradocu.util.CompilationCache;
+import org.toradocu.util.ConditionTypeChecker;
 import org.toradocu.util.GsonInstance;
 import org.toradocu.util.Stats;
 import randoop.condition.specification.Guard;
@@ -82,16 +94,41 @@ public class Toradocu {
     System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "edu.stanford", "error");
     log = LoggerFactory.getLogger(Toradocu.class);
 
+    if (configuration.getServerPort() != null) {
+      try {
+        new ToradocuServer(configuration.getServerPort()).start();
+      } catch (Exception e) {
+        log.error("Unable to start Toradocu server.", e);
+        System.exit(1);
+      }
+    } else if (configuration.isBatchMode()) {
+      runBatch();
+    } else {
+      if (configuration.getTargetClass() == null) {
+        jCommander.usage();
+        System.out.println(
+            "One of the options --target-class, --target-classes, --target-package, or"
+                + " --target-class-file must be specified.");
+        System.exit(1);
+      }
+      run(configuration.getTargetClass());
+    }
+  }
+
+  /**
+   * Analyzes the given target class: extracts its Javadoc comments, translates them into
+   * specifications, and outputs them according to the configuration. Exits the JVM if the Javadoc
+   * extraction fails.
+   *
+   * @param targetClass fully-qualified name of the class to analyze
+   */
+  private static void run(String targetClass) {
     // === Javadoc Extractor ===
 
     List<DocumentedExecutable> members = null;
-    final String targetClass = configuration.getTargetClass();
     if (configuration.getConditionTranslatorInput() == null) {
-      final JavadocExtractor javadocExtractor = new JavadocExtractor();
       try {
-        final DocumentedType documentedType =
-            javadocExtractor.extract(targetClass, configuration.sourceDir.toString());
-        members = documentedType.getDocumentedExecutables();
+        members = extractMembers(targetClass);
       } catch (ParameterNotFoundException e) {
         log.error(e.getMessage() + "\n" + Arrays.toString(e.getStackTrace()));
         System.exit(1);
@@ -134,40 +171,19 @@ public class Toradocu {
 
     // === Condition Translator ===
 
-    // Enable or disable semantic matching
-    SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
-
     if (configuration.isConditionTranslationEnabled()) {
-      Map<DocumentedExecutable, OperationSpecification> specifications;
-
-      // Use @tComment or the standard condition translator to translate comments.
-      if (configuration.useTComment()) {
-        specifications = tcomment.TcommentKt.translate(members);
-      } else {
-        specifications = CommentTranslator.createSpecifications(members);
-      }
+      Map<DocumentedExecutable, OperationSpecification> specifications = translate(members);
 
       // Output the result on a file or on the standard output, if silent mode is disabled.
       List<JsonOutput> jsonOutputs = new ArrayList<>();
       if (!configuration.isSilent() || !specifications.isEmpty()) {
         if (configuration.getConditionTranslatorOutput() != null) {
-          try (BufferedWriter writer =
-              Files.newBufferedWriter(
-                  configuration.getConditionTranslatorOutput().toPath(), StandardCharsets.UTF_8)) {
-
-            for (DocumentedExecutable executable : specifications.keySet()) {
-              jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
-            }
-            String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
-            writer.write(jsonOutput);
-          } catch (Exception e) {
-            log.error(
-                "Unable to write the output on file "
-                    + configuration.getConditionTranslatorOutput().getAbsolutePath(),
-                e);
+          for (DocumentedExecutable executable : specifications.keySet()) {
+            jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
           }
+          writeJson(configuration.getConditionTranslatorOutput(), jsonOutputs);
         } else {
-          for (DocumentedExecutable member : members) {
+          for (DocumentedExecutable member : specifications.keySet()) {
             jsonOutputs.add(new JsonOutput(member, specifications.get(member)));
           }
           String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
@@ -199,32 +215,252 @@ public class Toradocu {
       }
 
       // Export generated specifications as Randoop specifications if requested.
-      generateRandoopSpecs(specifications);
+      generateRandoopSpecs(specifications, configuration.randoopSpecsFile());
 
       // === Oracle Generator ===
       // Note that aspect generation is enabled only when translation is enabled.
-      if (configuration.isOracleGenerationEnabled()) {
-        try {
-          OracleGenerator.createAspects(specifications);
-        } catch (IOException e) {
-          e.printStackTrace();
-          log.error("Error during aspects creation.", e);
+      generateAspects(specifications, configuration.getAspectsOutputDir());
+      logTranslationStatistics();
+    }
+  }
+
+  /**
+   * Analyzes all the classes selected with the batch mode options in the same JVM, so that the
+   * models used during the translation are loaded only once. For each class, the generated
+   * specifications are saved in the batch output directory together with Randoop specifications and
+   * aspects, if requested. A failure in the analysis of a class is reported in the run summary and
+   * does not stop the analysis of the remaining classes.
+   */
+  private static void runBatch() {
+    final List<String> targetClasses;
+    try {
+      targetClasses = collectTargetClasses();
+    } catch (IOException e) {
+      log.error("Unable to collect the classes to analyze.", e);
+      System.exit(1);
+      return;
+    }
+    if (configuration.getConditionTranslatorInput() != null
+        || configuration.getJavadocExtractorOutput() != null
+        || configuration.getConditionTranslatorOutput() != null
+        || configuration.getExpectedOutput() != null) {
+      log.warn(
+          "Options --condition-translator-input, --javadoc-extractor-output,"
+              + " --condition-translator-output, and --expected-output are ignored in batch mode.");
+    }
+
+    final File outputDir = new File(configuration.getBatchOutputDir());
+    try {
+      Files.createDirectories(outputDir.toPath());
+    } catch (IOException e) {
+      log.error("Unable to create the output directory " + outputDir.getAbsolutePath(), e);
+      System.exit(1);
+    }
+
+    final List<ClassSummary> summaries = new ArrayList<>(targetClasses.size());
+    for (String targetClass : targetClasses) {
+      log.info("Analyzing class " + targetClass);
+      final long start = System.currentTimeMillis();
+      final long untranslatedTags = ParseBudget.getUntranslatedTags();
+      ClassSummary summary;
+      try {
+        final List<DocumentedExecutable> members = extractMembers(targetClass);
+        Map<DocumentedExecutable, OperationSpecification> specifications = new LinkedHashMap<>();
+        if (configuration.isConditionTranslationEnabled()) {
+          specifications = translate(members);
+          List<JsonOutput> jsonOutputs = new ArrayList<>();
+          for (DocumentedExecutable executable : specifications.keySet()) {
+            jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
+          }
+          if (!configuration.isSilent() || !specifications.isEmpty()) {
+            writeJson(new File(outputDir, targetClass + ".json"), jsonOutputs);
+          }
+        }
+        // The summary is created before Randoop specifications because their export removes
+        // empty specifications from the map.
+        summary =
+            ClassSummary.success(
+                targetClass,
+                specifications,
+                ParseBudget.getUntranslatedTags() - untranslatedTags,
+                System.currentTimeMillis() - start);
+        if (configuration.isConditionTranslationEnabled()) {
+          if (configuration.randoopSpecsFile() != null) {
+            generateRandoopSpecs(
+                specifications, new File(outputDir, targetClass + "_randoop-specs.json"));
+          }
+          generateAspects(
+              specifications, configuration.getAspectsOutputDir() + File.separator + targetClass);
         }
-      } else {
-        log.info("Oracle generator disabled: aspect generation skipped.");
+      } catch (Exception e) {
+        log.error("Error during the analysis of class " + targetClass, e);
+        summary =
+            ClassSummary.failure(
+                targetClass,
+                e.getClass().getName() + ": " + e.getMessage(),
+                System.currentTimeMillis() - start);
       }
+      log.info(summary.toString());
+      summaries.add(summary);
+    }
+
+    writeJson(new File(outputDir, "summary.json"), summaries);
+    final long failures = summaries.stream().filter(s -> !s.succeeded).count();
+    log.info(
+        "Batch analysis completed: "
+            + (summaries.size() - failures)
+            + " classes analyzed, "
+            + failures
+            + " failed. Summary saved in "
+            + new File(outputDir, "summary.json").getPath());
+    if (configuration.isConditionTranslationEnabled()) {
+      logTranslationStatistics();
+    }
+  }
+
+  /**
+   * Collects the fully-qualified names of the classes selected with the options {@code
+   * --target-class}, {@code --target-classes}, {@code --target-class-file}, and {@code
+   * --target-package}. Classes of the target package are collected from the source directory.
+   *
+   * @return the classes to analyze, without duplicates and in the order they are specified
+   * @throws IOException if the target class file or the source directory cannot be read
+   */
+  private static List<String> collectTargetClasses() throws IOException {
+    final Set<String> targetClasses = new LinkedHashSet<>();
+    if (configuration.getTargetClass() != null) {
+      targetClasses.add(configuration.getTargetClass());
+    }
+    for (String targetClass : configuration.getTargetClasses()) {
+      targetClasses.add(targetClass.trim());
+    }
+    final File targetClassFile = configuration.getTargetClassFile();
+    if (targetClassFile != null) {
+      for (String line : Files.readAllLines(targetClassFile.toPath(), StandardCharsets.UTF_8)) {
+        line = line.trim();
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          targetClasses.add(line);
+        }
+      }
+    }
+    final String targetPackage = configuration.getTargetPackage();
+    if (targetPackage != null) {
+      final Path sourceDir = configuration.sourceDir;
+      final Path packageDir = sourceDir.resolve(targetPackage.replace('.', File.separatorChar));
+      if (!Files.isDirectory(packageDir)) {
+        throw new FileNotFoundException("Package directory not found: " + packageDir);
+      }
+      try (Stream<Path> files = Files.walk(packageDir)) {
+        files
+            .filter(f -> f.toString().endsWith(".java"))
+            .filter(f -> !f.getFileName().toString().equals("package-info.java"))
+            .map(sourceDir::relativize)
+            .map(f -> f.toString().replace(File.separatorChar, '.'))
+            .map(f -> f.substring(0, f.length() - ".java".length()))
+            .sorted()
+            .forEach(targetClasses::add);
+      }
+    }
+    return new ArrayList<>(targetClasses);
+  }
+
+  /**
+   * Extracts the documented constructors and methods of the given class.
+   *
+   * @param targetClass fully-qualified name of the class whose members are extracted
+   * @return the documented constructors and methods of the class
+   * @throws ParameterNotFoundException if a Javadoc comment refers to a nonexistent parameter
+   * @throws ClassNotFoundException if the class or a type in its Javadoc comments cannot be loaded
+   * @throws FileNotFoundException if the source file of the class cannot be found
+   */
+  private static List<DocumentedExecutable> extractMembers(String targetClass)
+      throws ParameterNotFoundException, ClassNotFoundException, FileNotFoundException {
+    final JavadocExtractor javadocExtractor = new JavadocExtractor();
+    final DocumentedType documentedType =
+        javadocExtractor.extract(targetClass, configuration.sourceDir.toString());
+    return documentedType.getDocumentedExecutables();
+  }
+
+  /**
+   * Logs how many parses have been answered by the parse, sentence graph, and semantic graph
+   * caches, how many parses exceeded the parse budget, how many tags have been skipped as
+   * untranslatable or translated by templates, and how many compliance checks have been answered by
+   * the condition type checker and by the compilation cache.
+   */
+  private static void logTranslationStatistics() {
+    if (!configuration.useTComment()) {
+      final File cacheDir = configuration.getCompileCacheDir();
+      log.info(CompilationCache.of(cacheDir == null ? null : cacheDir.toPath()).getStatistics());
+      log.info(ConditionTypeChecker.getStatistics());
+      log.info(StanfordParser.getParserStatistics());
+      log.info(StanfordParser.getSentenceGraphCacheStatistics());
+      log.info(Parser.getGraphsCacheStatistics());
+      log.info(ParseBudget.getStatistics());
+      log.info(TagClassifier.getStatistics());
+      log.info(CommentTemplates.getStatistics());
+    }
+  }
+
+  /**
+   * Translates the comments of the given members into specifications, using either @tComment or the
+   * standard condition translator depending on the configuration.
+   *
+   * @param members the members whose comments are translated
+   * @return the specifications generated for each member
+   */
+  private static Map<DocumentedExecutable, OperationSpecification> translate(
+      List<DocumentedExecutable> members) {
+    if (configuration.useTComment()) {
+      return tcomment.TcommentKt.translate(members);
+    } else {
+      return CommentTranslator.createSpecifications(members);
+    }
+  }
+
+  /**
+   * Creates the aspects checking the given specifications, if oracle generation is enabled.
+   *
+   * @param specifications the specifications the aspects have to check
+   * @param aspectsOutputDir the directory where aspects are saved
+   */
+  private static void generateAspects(
+      Map<DocumentedExecutable, OperationSpecification> specifications, String aspectsOutputDir) {
+    if (configuration.isOracleGenerationEnabled()) {
+      try {
+        OracleGenerator.createAspects(specifications, aspectsOutputDir);
+      } catch (IOException e) {
+        e.printStackTrace();
+        log.error("Error during aspects creation.", e);
+      }
+    } else {
+      log.info("Oracle generator disabled: aspect generation skipped.");
+    }
+  }
+
+  /**
+   * Writes the JSON representation of the given object to the given file.
+   *
+   * @param file the output file
+   * @param content the object to serialize
+   */
+  private static void writeJson(File file, Object content) {
+    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write(GsonInstance.gson().toJson(content));
+    } catch (Exception e) {
+      log.error("Unable to write the output on file " + file.getAbsolutePath(), e);
     }
   }
 
   /**
-   * Export the specifications in {@code specsMap} to {@code conf.Configuration#randoopSpecsFile()}
-   * as Randoop specifications.
+   * Export the specifications in {@code specsMap} to {@code randoopSpecsFile} as Randoop
+   * specifications.
    *
    * @param specsMap the documented methods containing the specifications to export
+   * @param randoopSpecsFile the file where to export the specifications, or null if the export is
+   *     not requested
    */
   private static void generateRandoopSpecs(
-      Map<DocumentedExecutable, OperationSpecification> specsMap) {
-    File randoopSpecsFile = configuration.randoopSpecsFile();
+      Map<DocumentedExecutable, OperationSpecification> specsMap, File randoopSpecsFile) {
     if (!configuration.isSilent() && randoopSpecsFile != null) {
       generateRandoopSpecsFile(randoopSpecsFile);
       Collection<OperationSpecification> randoopSpecs = new ArrayList<>();
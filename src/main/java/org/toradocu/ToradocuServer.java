@@ -0,0 +1,228 @@
+package org.toradocu;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedType;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.translator.CommentTranslator;
+import org.toradocu.translator.StanfordParser;
+import org.toradocu.translator.TranslationContext;
+import org.toradocu.translator.semantic.GloveModelWrapper;
+import org.toradocu.util.CompilerPool;
+import org.toradocu.util.GsonInstance;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Server mode of Toradocu. The server loads the models used by the condition translator once, and
+ * then serves translation requests over HTTP on the loopback interface, so that clients do not pay
+ * the start-up cost of Toradocu for every class they analyze.
+ *
+ * <p>The server handles the following requests:
+ *
+ * <ul>
+ *   <li>{@code /translate?class=<name>[&source-dir=<path>]}: extracts and translates the Javadoc
+ *       comments of the given class and answers with the same JSON produced by the option {@code
+ *       --condition-translator-output}. If {@code source-dir} is not specified, the source
+ *       directory given with the option {@code --source-dir} is used. Parameters can be passed
+ *       either in the query string or as a form-encoded request body.
+ *   <li>{@code /status}: answers with status {@code ok} if the server is up.
+ *   <li>{@code /shutdown}: stops the server.
+ * </ul>
+ *
+ * Binaries of the analyzed classes are looked up in the directories given with the option {@code
+ * --class-dir}. Requests are served one at a time: each one has its own {@code TranslationContext},
+ * but a translation still updates state shared by the whole JVM (e.g., the size of the parse caches
+ * and the class loader of the analyzed classes). The comments of a class are translated
+ * concurrently with the threads given with the option {@code --threads}.
+ */
+public class ToradocuServer {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(ToradocuServer.class);
+
+  /** The underlying HTTP server. */
+  private final HttpServer server;
+  /** Executor serving the requests. */
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  /**
+   * Creates a new server listening on the loopback interface at the given port. The server does not
+   * accept requests until {@code start} is invoked.
+   *
+   * @param port the port the server listens on, 0 to pick any free port
+   * @throws IOException if the server cannot be bound to the given port
+   */
+  public ToradocuServer(int port) throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext("/translate", this::handleTranslate);
+    server.createContext("/status", exchange -> respond(exchange, 200, "{\"status\":\"ok\"}"));
+    server.createContext(
+        "/shutdown",
+        exchange -> {
+          respond(exchange, 200, "{\"status\":\"stopping\"}");
+          new Thread(this::stop).start();
+        });
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Loads the models used by the condition translator and starts accepting requests.
+   *
+   * @throws ClassNotFoundException if the Stanford parser cannot be loaded
+   * @throws URISyntaxException if the GloVe model cannot be loaded
+   */
+  public void start() throws ClassNotFoundException, URISyntaxException {
+    log.info("Loading models...");
+    // Force the initialization of the Stanford parser, that loads the parser model.
+    Class.forName(StanfordParser.class.getName());
+    if (Configuration.INSTANCE.isSemanticMatcherEnabled()) {
+      GloveModelWrapper.getInstance();
+    }
+    server.start();
+    log.info("Toradocu server listening on " + getAddress());
+  }
+
+  /** Stops the server. */
+  public void stop() {
+    server.stop(0);
+    executor.shutdown();
+    log.info("Toradocu server stopped");
+  }
+
+  /**
+   * Returns the address the server is listening on.
+   *
+   * @return the address the server is listening on
+   */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  /**
+   * Handles a translation request.
+   *
+   * @param exchange the HTTP exchange of the request
+   * @throws IOException if the response cannot be sent
+   */
+  private void handleTranslate(HttpExchange exchange) throws IOException {
+    final long start = System.currentTimeMillis();
+    final Map<String, String> parameters = new HashMap<>();
+    parseParameters(exchange.getRequestURI().getRawQuery(), parameters);
+    parseParameters(readBody(exchange.getRequestBody()), parameters);
+
+    final String targetClass = parameters.get("class");
+    if (targetClass == null || targetClass.isEmpty()) {
+      respondError(exchange, 400, "Missing parameter: class");
+      return;
+    }
+
+    final Configuration configuration = Configuration.INSTANCE;
+    final String sourceDirParameter = parameters.get("source-dir");
+    final Path sourceDir =
+        sourceDirParameter == null ? configuration.sourceDir : Paths.get(sourceDirParameter);
+    try {
+      final TranslationContext context =
+          TranslationContext.fromConfiguration(configuration, sourceDir);
+      // Classes may have been recompiled since the previous request: refreshing the class path
+      // discards the file managers and the loaded classes that are stale.
+      CompilerPool.of(context.getClassDirs()).refresh();
+      final DocumentedType documentedType =
+          new JavadocExtractor(context.getClassDirs()).extract(targetClass, sourceDir.toString());
+      final List<DocumentedExecutable> members = documentedType.getDocumentedExecutables();
+      final Map<DocumentedExecutable, OperationSpecification> specifications =
+          configuration.isConditionTranslationEnabled()
+              ? CommentTranslator.createSpecifications(members, context)
+              : Collections.emptyMap();
+
+      final List<JsonOutput> jsonOutputs = new ArrayList<>();
+      for (DocumentedExecutable executable : specifications.keySet()) {
+        jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
+      }
+      respond(exchange, 200, GsonInstance.gson().toJson(jsonOutputs));
+      log.info(
+          "Translated class "
+              + targetClass
+              + " in "
+              + (System.currentTimeMillis() - start)
+              + " ms");
+    } catch (ClassNotFoundException e) {
+      respondError(exchange, 404, "Class not found: " + e.getMessage());
+    } catch (Exception e) {
+      log.error("Error during the translation of class " + targetClass, e);
+      respondError(exchange, 500, e.getClass().getName() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Parses a form-encoded string of parameters (e.g., {@code a=1&b=2}) and adds them to {@code
+   * parameters}.
+   *
+   * @param encoded the form-encoded parameters, may be null
+   * @param parameters map where parsed parameters are added
+   * @throws UnsupportedEncodingException if UTF-8 is not supported
+   */
+  private static void parseParameters(String encoded, Map<String, String> parameters)
+      throws UnsupportedEncodingException {
+    if (encoded == null || encoded.isEmpty()) {
+      return;
+    }
+    for (String pair : encoded.split("&")) {
+      final int separator = pair.indexOf('=');
+      if (separator > 0) {
+        parameters.put(
+            URLDecoder.decode(pair.substring(0, separator), "UTF-8"),
+            URLDecoder.decode(pair.substring(separator + 1), "UTF-8"));
+      }
+    }
+  }
+
+  private static String readBody(InputStream body) throws IOException {
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = body.read(buffer)) != -1) {
+      content.write(buffer, 0, read);
+    }
+    return new String(content.toByteArray(), StandardCharsets.UTF_8).trim();
+  }
+
+  private static void respondError(HttpExchange exchange, int status, String message)
+      throws IOException {
+    Map<String, String> error = Collections.singletonMap("error", message);
+    respond(exchange, status, GsonInstance.gson().toJson(error));
+  }
+
+  private static void respond(HttpExchange exchange, int status, String content)
+      throws IOException {
+    final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(bytes);
+    }
+  }
+}
@@ -6,6 +6,7 @@ import com.beust.jcommander.converters.PathConverter;
 import java.io.File;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /** Holds the configuration options (particularly command-line options) for Toradocu. */
@@ -13,19 +14,58 @@ import java.util.List;
 public enum Configuration {
   INSTANCE;
 
+  /** The parsers of the comment sentences. */
+  public enum ParserKind {
+    /** The PCFG parser, which is the most accurate. */
+    PCFG,
+    /** The neural dependency parser, which is faster but less accurate. */
+    NNDEP
+  }
+
   /** Keyword that identifies receiver object in generated specifications. */
   public static final String RECEIVER = "receiverObjectID";
   /** Keyword that identifies method result in generated specifications. */
   public static final String RETURN_VALUE = "methodResultID";
+  /** Default maximum number of semantic graphs kept in memory by each cache of parsed text. */
+  public static final int DEFAULT_PARSE_GRAPH_CACHE_SIZE = 10000;
 
   // General options
 
   @Parameter(
       names = "--target-class",
-      description = "Fully-qualified name of the class that Toradocu should analyze",
-      required = true)
+      description = "Fully-qualified name of the class that Toradocu should analyze")
   private String targetClass;
 
+  // Batch mode options
+
+  @Parameter(
+      names = "--target-classes",
+      description =
+          "Comma-separated list of fully-qualified names of classes that Toradocu should analyze"
+              + " in a single run (batch mode)")
+  private List<String> targetClasses = new ArrayList<>();
+
+  @Parameter(
+      names = "--target-package",
+      description =
+          "Package whose classes (including the ones in its subpackages) Toradocu should analyze"
+              + " in a single run (batch mode). Classes are collected from --source-dir")
+  private String targetPackage;
+
+  @Parameter(
+      names = "--target-class-file",
+      description =
+          "File listing the fully-qualified names of classes that Toradocu should analyze in a"
+              + " single run (batch mode), one per line. Lines starting with # are ignored",
+      converter = FileConverter.class)
+  private File targetClassFile;
+
+  @Parameter(
+      names = "--batch-output-dir",
+      description =
+          "Directory where Toradocu stores per-class outputs and the run summary in batch mode")
+  private String batchOutputDir = "toradocu-output";
+
   @Parameter(
       names = "--source-dir",
       description = "Path of the directory containing source files of the target class",
@@ -68,6 +108,13 @@ public enum Configuration {
       description = "Toradocu stops when there is an error in the being-analyzed Javadoc")
   public boolean stopOnError = false;
 
+  @Parameter(
+      names = "--server-port",
+      description =
+          "Run Toradocu as a server that answers translation requests over HTTP on the given"
+              + " loopback port")
+  private Integer serverPort;
+
   // Javadoc extractor options
 
   @Parameter(
@@ -114,6 +161,11 @@ public enum Configuration {
       hidden = true)
   private int wordRemovalCost = 1;
 
+  @Parameter(
+      names = "--threads",
+      description = "Number of threads used to translate the comments of different methods")
+  private int threads = 1;
+
   @Parameter(
       names = "--expected-output",
       description =
@@ -150,6 +202,76 @@ public enum Configuration {
       arity = 1)
   private boolean disableSemantics = false;
 
+  @Parameter(
+      names = "--comment-templates",
+      description =
+          "Translate the most frequent phrasings of @param and @throws comments (e.g. \"x is"
+              + " null\") without parsing them",
+      arity = 1)
+  private boolean commentTemplates = false;
+
+  @Parameter(
+      names = "--tag-classifier",
+      description =
+          "Skip, without parsing them, the tags whose comment has no word a condition can come from"
+              + " (code words, parameter names, numbers, comparisons, or condition keywords)",
+      arity = 1)
+  private boolean tagClassifier = false;
+
+  @Parameter(
+      names = "--semantic-trace",
+      description =
+          "File path where to append (in CSV format) the distances computed by the semantic matcher",
+      converter = FileConverter.class)
+  private File semanticTraceFile;
+
+  @Parameter(
+      names = "--compile-cache-dir",
+      description =
+          "Directory where the verdicts of the compliance checks are persisted and reused across runs",
+      converter = FileConverter.class)
+  private File compileCacheDir;
+
+  @Parameter(
+      names = "--parse-cache-dir",
+      description =
+          "Directory where the parse trees of the comment sentences are persisted and reused across runs",
+      converter = FileConverter.class)
+  private File parseCacheDir;
+
+  @Parameter(
+      names = "--parser",
+      description =
+          "Parser of the comment sentences: PCFG (more accurate) or NNDEP (neural dependency"
+              + " parser, faster)")
+  private ParserKind parser = ParserKind.PCFG;
+
+  @Parameter(
+      names = "--parse-max-tokens",
+      description =
+          "Maximum number of tokens of a sentence to parse: longer sentences are not parsed"
+              + " (0 for no limit)")
+  private int parseMaxTokens = 120;
+
+  @Parameter(
+      names = "--parse-timeout",
+      description = "Maximum time in milliseconds spent parsing a single sentence (0 for no limit)")
+  private long parseTimeout = 20000;
+
+  @Parameter(
+      names = "--tag-parse-deadline",
+      description =
+          "Maximum time in milliseconds spent parsing the sentences of a single tag comment: a tag"
+              + " whose parses exceed any of the limits is left untranslated (0 for no limit)")
+  private long tagParseDeadline = 60000;
+
+  @Parameter(
+      names = "--parse-graph-cache-size",
+      description =
+          "Maximum number of semantic graphs kept in memory by each of the caches of parsed"
+              + " comments and sentences")
+  private int parseGraphCacheSize = DEFAULT_PARSE_GRAPH_CACHE_SIZE;
+
   // Aspect creation options
 
   @Parameter(
@@ -215,6 +337,68 @@ public enum Configuration {
     return targetClass;
   }
 
+  /**
+   * Returns the fully-qualified names of the classes explicitly listed with the option {@code
+   * --target-classes}.
+   *
+   * @return the fully-qualified names of the classes explicitly listed with the option {@code
+   *     --target-classes}
+   */
+  public List<String> getTargetClasses() {
+    return targetClasses;
+  }
+
+  /**
+   * Returns the package whose classes Toradocu should analyze or null if no package is specified.
+   *
+   * @return the package whose classes Toradocu should analyze or null if no package is specified
+   */
+  public String getTargetPackage() {
+    return targetPackage;
+  }
+
+  /**
+   * Returns the file listing the classes Toradocu should analyze or null if this file is not
+   * specified.
+   *
+   * @return the file listing the classes Toradocu should analyze or null if this file is not
+   *     specified
+   */
+  public File getTargetClassFile() {
+    return targetClassFile;
+  }
+
+  /**
+   * Returns true if Toradocu has to analyze several classes in a single run, i.e., if any of the
+   * options {@code --target-classes}, {@code --target-package}, or {@code --target-class-file} is
+   * specified.
+   *
+   * @return true if Toradocu has to analyze several classes in a single run
+   */
+  public boolean isBatchMode() {
+    return !targetClasses.isEmpty() || targetPackage != null || targetClassFile != null;
+  }
+
+  /**
+   * Returns the path to the directory in which per-class outputs and the run summary are saved in
+   * batch mode.
+   *
+   * @return the path to the directory in which per-class outputs and the run summary are saved in
+   *     batch mode
+   */
+  public String getBatchOutputDir() {
+    return batchOutputDir;
+  }
+
+  /**
+   * Returns the port the Toradocu server listens on or null if Toradocu does not run as a server.
+   *
+   * @return the port the Toradocu server listens on or null if Toradocu does not run as a server
+   */
+  public Integer getServerPort() {
+    return serverPort;
+  }
+
   /**
    * Returns true if fine-grained logging should be enabled.
    *
@@ -318,6 +502,15 @@ public enum Configuration {
     return wordRemovalCost;
   }
 
+  /**
+   * Returns the number of threads used to translate the comments of different methods.
+   *
+   * @return the number of threads used to translate the comments of different methods
+   */
+  public int getThreads() {
+    return threads;
+  }
+
   /**
    * Returns the expected output file to compare Toradocu's output against, or null if no such file
    * is specified.
@@ -357,6 +550,26 @@ public enum Configuration {
     return randoopSpecs;
   }
 
+  /**
+   * Returns whether the most frequent phrasings of @param and @throws comments are translated
+   * without parsing them.
+   *
+   * @return true if the comment templates are used, false otherwise
+   */
+  public boolean isCommentTemplatesEnabled() {
+    return commentTemplates;
+  }
+
+  /**
+   * Returns whether the tags whose comment has no word a condition can come from are skipped
+   * without being parsed.
+   *
+   * @return true if the untranslatable tags are skipped, false otherwise
+   */
+  public boolean isTagClassifierEnabled() {
+    return tagClassifier;
+  }
+
   /**
    * Returns whether Toradocu uses semantic matching when translating conditions. If false, classic
    * syntactic matching is used.
@@ -367,6 +580,89 @@ public enum Configuration {
     return !disableSemantics;
   }
 
+  /**
+   * Returns the file where the distances computed by the semantic matcher are appended, or null if
+   * the distances are not traced.
+   *
+   * @return the file where the distances computed by the semantic matcher are appended, or null if
+   *     the distances are not traced
+   */
+  public File getSemanticTraceFile() {
+    return semanticTraceFile;
+  }
+
+  /**
+   * Returns the directory where the verdicts of the compliance checks are persisted across runs, or
+   * null if the verdicts are kept only in memory.
+   *
+   * @return the directory where the verdicts of the compliance checks are persisted, or null if the
+   *     verdicts are kept only in memory
+   */
+  public File getCompileCacheDir() {
+    return compileCacheDir;
+  }
+
+  /**
+   * Returns the directory where the parse trees of the comment sentences are persisted across runs,
+   * or null if the parse trees are kept only in memory.
+   *
+   * @return the directory where the parse trees are persisted, or null if the parse trees are kept
+   *     only in memory
+   */
+  public File getParseCacheDir() {
+    return parseCacheDir;
+  }
+
+  /**
+   * Returns the parser of the comment sentences.
+   *
+   * @return the parser of the comment sentences
+   */
+  public ParserKind getParser() {
+    return parser;
+  }
+
+  /**
+   * Returns the maximum number of tokens of a sentence to parse, 0 if there is no limit.
+   *
+   * @return the maximum number of tokens of a sentence to parse, 0 if there is no limit
+   */
+  public int getParseMaxTokens() {
+    return parseMaxTokens;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds spent parsing a single sentence, 0 if there is no
+   * limit.
+   *
+   * @return the maximum time in milliseconds spent parsing a single sentence, 0 if there is no
+   *     limit
+   */
+  public long getParseTimeout() {
+    return parseTimeout;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds spent parsing the sentences of a single tag comment, 0
+   * if there is no limit.
+   *
+   * @return the maximum time in milliseconds spent parsing the sentences of a single tag comment, 0
+   *     if there is no limit
+   */
+  public long getTagParseDeadline() {
+    return tagParseDeadline;
+  }
+
+  /**
+   * Returns the maximum number of semantic graphs kept in memory by each of the caches of parsed
+   * comments and sentences.
+   *
+   * @return the maximum number of semantic graphs kept in memory by each cache
+   */
+  public int getParseGraphCacheSize() {
+    return parseGraphCacheSize;
+  }
+
   /**
    * Returns whether Toradocu generates or not output when it has not been able to translate any
    * comment.
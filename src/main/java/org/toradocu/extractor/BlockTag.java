@@ -38,7 +38,7 @@ public abstract class BlockTag {
   private final Kind kind;
 
   /** The comment of this tag. */
-  private Comment comment;
+  private final Comment comment;
 
   /**
    * Constructs a {@code BlockTag} of the specific kind, with the given comment.
@@ -72,14 +72,12 @@ public abstract class BlockTag {
   }
 
   /**
-   * Sets the comment for this tag.
+   * Returns a tag equal to this tag, but with the given comment. This tag is not modified.
    *
-   * @param comment the comment for this tag, must not be null
+   * @param comment the comment of the returned tag, must not be null
+   * @return a tag of the same kind as this tag, with {@code comment}
    */
-  public void setComment(Comment comment) {
-    Checks.nonNullParameter(comment, "comment");
-    this.comment = comment;
-  }
+  public abstract BlockTag withComment(Comment comment);
 
   /**
    * Returns true if this {@code BlockTag} and the specified object are equal.
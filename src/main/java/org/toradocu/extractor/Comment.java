@@ -11,6 +11,9 @@ import java.util.regex.Pattern;
  */
 public final class Comment {
 
+  /** Runs of whitespace, which are collapsed into a single space in the comment text. */
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
   /**
    * Comment text. Does not include the tag (e.g., @return) and any additional information like the
    * commented parameter name in case of @param tags and the exception name in case of @throws tags.
@@ -36,7 +39,7 @@ public final class Comment {
    * @param text text of the comment.
    */
   public Comment(String text) {
-    this.text = text.replaceAll("\\s+", " ");
+    this.text = WHITESPACE.matcher(text).replaceAll(" ");
     this.wordsMarkedAsCode = new HashMap<>();
 
     final String codePattern1 = "<code>([A-Za-z0-9_]+)</code>";
@@ -75,6 +78,51 @@ public final class Comment {
     this.wordsMarkedAsCode.putAll(wordsMarkedAsCode);
   }
 
+  /**
+   * Returns a comment with the given text and the words marked as code of this comment, as {@code
+   * new Comment(text, getWordsMarkedAsCode())} does. Inline tags, HTML tags, and HTML character
+   * entities are looked for only if {@code text} may contain them, so that a text already cleaned
+   * (e.g., the text of this comment after a preprocessing phase) is not scanned again.
+   *
+   * @param text text of the comment
+   * @return a comment with {@code text} and the words marked as code of this comment, which is this
+   *     comment if {@code text} is already its clean text
+   */
+  public Comment withText(String text) {
+    if (text.indexOf('<') != -1 || text.indexOf('{') != -1 || text.indexOf('&') != -1) {
+      return new Comment(text, wordsMarkedAsCode);
+    }
+    final String cleanText = WHITESPACE.matcher(text).replaceAll(" ").trim();
+    if (cleanText.equals(this.text)) {
+      return this;
+    }
+    return ofCleanText(cleanText, new HashMap<>(wordsMarkedAsCode));
+  }
+
+  /**
+   * Returns a new Comment with the given clean {@code text} and words marked as code. Unlike the
+   * constructors, this method does not clean the text.
+   *
+   * @param text text of the comment, without inline tags, HTML tags, HTML character entities, and
+   *     repeated or surrounding whitespace
+   * @param wordsMarkedAsCode words marked as code in {@code text}
+   * @return a new Comment with {@code text} and {@code wordsMarkedAsCode}
+   */
+  private static Comment ofCleanText(String text, Map<String, List<Integer>> wordsMarkedAsCode) {
+    final Comment comment = new Comment(wordsMarkedAsCode);
+    comment.text = text;
+    return comment;
+  }
+
+  /**
+   * Builds a new Comment with no text yet and the given words marked as code.
+   *
+   * @param wordsMarkedAsCode words marked as code in the text of the comment
+   */
+  private Comment(Map<String, List<Integer>> wordsMarkedAsCode) {
+    this.wordsMarkedAsCode = wordsMarkedAsCode;
+  }
+
   /**
    * Returns the comment text as {@code String}. Notice that the text does not contain inline tags
    * because they are removed in the constructor of {@code Comment}.
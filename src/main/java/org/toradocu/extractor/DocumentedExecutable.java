@@ -22,7 +22,7 @@ public final class DocumentedExecutable {
   private final List<DocumentedParameter> parameters;
 
   /** Javadoc @param, @return, and @throws tags of this executable member. */
-  private BlockTags tags;
+  private final BlockTags tags;
 
   /** Represents the @param, @return, and @throws tags of an executable member. */
   public static class BlockTags {
@@ -90,7 +90,7 @@ public final class DocumentedExecutable {
 
       BlockTags that = (BlockTags) obj;
       return this.paramTags.equals(that.paramTags)
-          && this.returnTag.equals(that.returnTag)
+          && Objects.equals(this.returnTag, that.returnTag)
           && this.throwsTags.equals(that.throwsTags);
     }
 
@@ -180,6 +180,23 @@ public final class DocumentedExecutable {
     return tags.throwsTags();
   }
 
+  /**
+   * Returns a {@code DocumentedExecutable} equal to this one, but with the given tags (e.g., the
+   * preprocessed tags of this executable member). This executable member is not modified.
+   *
+   * @param paramTags Javadoc @param tags of the returned executable member
+   * @param returnTag Javadoc @return tag of the returned executable member, null if there is none
+   * @param throwsTags {@literal @throws} and {@literal @exception} tags of the returned executable
+   *     member
+   * @return a {@code DocumentedExecutable} wrapping the same executable as this one, with the given
+   *     tags
+   */
+  public DocumentedExecutable withTags(
+      List<ParamTag> paramTags, ReturnTag returnTag, List<ThrowsTag> throwsTags) {
+    return new DocumentedExecutable(
+        executable, parameters, new BlockTags(paramTags, returnTag, throwsTags));
+  }
+
   /**
    * Returns the Javadoc comments introduced by a block tag (e.g., @param, @return, ...) of this
    * executable member.
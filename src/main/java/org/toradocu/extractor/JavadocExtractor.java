@@ -24,6 +24,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -50,6 +51,23 @@ public final class JavadocExtractor {
   /** Logger of this class. */
   private static final Logger log = LoggerFactory.getLogger(JavadocExtractor.class);
 
+  /** The class directories the analyzed classes (and the types they refer to) are loaded from. */
+  private final List<URL> classDirs;
+
+  /** Creates an extractor loading classes from the class directories of the configuration. */
+  public JavadocExtractor() {
+    this(Configuration.INSTANCE.classDirs);
+  }
+
+  /**
+   * Creates an extractor loading classes from the given class directories.
+   *
+   * @param classDirs the class directories the analyzed classes are loaded from
+   */
+  public JavadocExtractor(List<URL> classDirs) {
+    this.classDirs = classDirs;
+  }
+
   /**
    * Returns a list of {@code DocumentedExecutable}s extracted from the class with name {@code
    * className}. Parses the Java source code of the specified class ({@code className}), and stores
@@ -70,7 +88,7 @@ public final class JavadocExtractor {
     log.trace("Extracting Javadoc information of {} (in source folder {})", className, sourcePath);
 
     // Obtain executable members (constructors and methods) by means of reflection.
-    final Class<?> clazz = Reflection.getClass(className);
+    final Class<?> clazz = Reflection.getClass(className, classDirs);
     final List<Executable> reflectionExecutables = getExecutables(clazz);
 
     // Obtain executable members (constructors and methods) in the source code.
@@ -752,21 +770,21 @@ public final class JavadocExtractor {
       throws ClassNotFoundException {
 
     try {
-      return Reflection.getClass(exceptionTypeName);
+      return Reflection.getClass(exceptionTypeName, classDirs);
     } catch (ClassNotFoundException e) {
       // Intentionally empty: Apply other heuristics to load the exception type.
     }
 
     // Try to load the exception class from java.lang package.
     try {
-      return Reflection.getClass("java.lang." + exceptionTypeName);
+      return Reflection.getClass("java.lang." + exceptionTypeName, classDirs);
     } catch (ClassNotFoundException e) {
       // Intentionally empty: Apply other heuristics to load the exception type.
     }
 
     // Try to load a nested class.
     try {
-      return Reflection.getClass(className + "$" + exceptionTypeName);
+      return Reflection.getClass(className + "$" + exceptionTypeName, classDirs);
     } catch (ClassNotFoundException e) {
       // Intentionally empty: Apply other heuristics to load the exception type.
     }
@@ -778,7 +796,7 @@ public final class JavadocExtractor {
         if (classInPackage.contains("$")) {
           classInPackage = classInPackage.replace(".class", "");
         }
-        return Reflection.getClass(classInPackage);
+        return Reflection.getClass(classInPackage, classDirs);
       }
     }
 
@@ -789,9 +807,9 @@ public final class JavadocExtractor {
       String importedTypeName = importStatement.getNameAsString();
       try {
         if (importedTypeName.endsWith(exceptionTypeName)) {
-          return Reflection.getClass(importedTypeName);
+          return Reflection.getClass(importedTypeName, classDirs);
         } else if (importStatement.isAsterisk()) {
-          return Reflection.getClass(importedTypeName + "." + exceptionTypeName);
+          return Reflection.getClass(importedTypeName + "." + exceptionTypeName, classDirs);
         }
       } catch (ClassNotFoundException e) {
         // Intentionally empty: Apply other heuristics to load the exception type.
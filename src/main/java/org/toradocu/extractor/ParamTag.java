@@ -38,6 +38,11 @@ public final class ParamTag extends BlockTag {
     return parameter;
   }
 
+  @Override
+  public ParamTag withComment(Comment comment) {
+    return new ParamTag(parameter, comment);
+  }
+
   /**
    * Returns true if this {@code ParamTag} and the specified object are equal.
    *
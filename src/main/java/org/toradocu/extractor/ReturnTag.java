@@ -16,6 +16,11 @@ public final class ReturnTag extends BlockTag {
     super(Kind.RETURN, comment);
   }
 
+  @Override
+  public ReturnTag withComment(Comment comment) {
+    return new ReturnTag(comment);
+  }
+
   /**
    * Returns true if this {@code ReturnTag} and the specified object are equal.
    *
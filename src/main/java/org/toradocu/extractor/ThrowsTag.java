@@ -36,6 +36,11 @@ public final class ThrowsTag extends BlockTag {
     return exception;
   }
 
+  @Override
+  public ThrowsTag withComment(Comment comment) {
+    return new ThrowsTag(exception, comment);
+  }
+
   /**
    * Returns true if this {@code ThrowsTag} and the specified object are equal.
    *
@@ -41,10 +41,24 @@ public class OracleGenerator {
    */
   public static void createAspects(Map<DocumentedExecutable, OperationSpecification> specifications)
       throws IOException {
+    createAspects(specifications, configuration.getAspectsOutputDir());
+  }
+
+  /**
+   * Creates aspects that check the given {@code specs} in the directory {@code aspectsOutputDir}.
+   * This method creates one aspect for each method with specifications.
+   *
+   * @param specifications the specifications that created aspects will check at runtime. Must not
+   *     be null.
+   * @param aspectsOutputDir the directory where aspects are saved. Must not be null.
+   */
+  public static void createAspects(
+      Map<DocumentedExecutable, OperationSpecification> specifications, String aspectsOutputDir)
+      throws IOException {
     Checks.nonNullParameter(specifications, "specifications");
+    Checks.nonNullParameter(aspectsOutputDir, "aspectsOutputDir");
 
     // Create output directory where aspects are saved.
-    final String aspectsOutputDir = configuration.getAspectsOutputDir();
     final boolean outputDirCreationSucceeded = createOutputDir(aspectsOutputDir);
     if (!outputDirCreationSucceeded || specifications.isEmpty()) {
       return;
@@ -67,7 +81,7 @@ public class OracleGenerator {
       OperationSpecification specification = specifications.get(method);
       if (!specification.isEmpty()) {
         String aspectName = "Aspect_" + aspectNumber++;
-        createAspect(method, specification, aspectName);
+        createAspect(method, specification, aspectName, aspectsOutputDir);
         createdAspectNames.add(aspectName);
       }
     }
@@ -122,9 +136,13 @@ public class OracleGenerator {
    * @param method method for which an aspect will be created, must not be null
    * @param specification the specs the created aspect has to check, must not be null
    * @param aspectName name of the file where the newly created aspect is saved, must not be null
+   * @param aspectsOutputDir directory where the newly created aspect is saved, must not be null
    */
   private static void createAspect(
-      DocumentedExecutable method, OperationSpecification specification, String aspectName) {
+      DocumentedExecutable method,
+      OperationSpecification specification,
+      String aspectName,
+      String aspectsOutputDir) {
     Checks.nonNullParameter(method, "method");
     Checks.nonNullParameter(specification, "specification");
     Checks.nonNullParameter(aspectName, "aspectName");
@@ -140,8 +158,7 @@ public class OracleGenerator {
 
     new MethodChangerVisitor().visit(cu, Pair.of(method, specification));
 
-    final String aspectPath =
-        configuration.getAspectsOutputDir() + File.separator + aspectName + ".java";
+    final String aspectPath = aspectsOutputDir + File.separator + aspectName + ".java";
     try (FileOutputStream output = new FileOutputStream(new File(aspectPath))) {
       output.write(cu.toString().getBytes());
     } catch (IOException e) {
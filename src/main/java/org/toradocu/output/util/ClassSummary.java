@@ -0,0 +1,127 @@
+package org.toradocu.output.util;
+
+import java.util.Map;
+import org.toradocu.extractor.DocumentedExecutable;
+import randoop.condition.specification.OperationSpecification;
+import randoop.condition.specification.Specification;
+
+/** Summary of the analysis of a single class in a batch run of Toradocu. */
+public class ClassSummary {
+
+  /** Fully-qualified name of the analyzed class. */
+  public final String targetClass;
+  /** Whether the analysis of the class completed without errors. */
+  public final boolean succeeded;
+  /** Number of documented constructors and methods of the class. */
+  public final int executables;
+  /** Number of generated (non-empty) pre specifications. */
+  public final int preSpecifications;
+  /** Number of generated (non-empty) post specifications. */
+  public final int postSpecifications;
+  /** Number of generated (non-empty) throws specifications. */
+  public final int throwsSpecifications;
+  /** Number of tags left untranslated because their parses exceeded the parse budget. */
+  public final long untranslatedTags;
+  /** Time spent to analyze the class, in milliseconds. */
+  public final long timeMillis;
+  /** Error message if the analysis failed, null otherwise. */
+  public final String error;
+
+  private ClassSummary(
+      String targetClass,
+      boolean succeeded,
+      int executables,
+      int preSpecifications,
+      int postSpecifications,
+      int throwsSpecifications,
+      long untranslatedTags,
+      long timeMillis,
+      String error) {
+    this.targetClass = targetClass;
+    this.succeeded = succeeded;
+    this.executables = executables;
+    this.preSpecifications = preSpecifications;
+    this.postSpecifications = postSpecifications;
+    this.throwsSpecifications = throwsSpecifications;
+    this.untranslatedTags = untranslatedTags;
+    this.timeMillis = timeMillis;
+    this.error = error;
+  }
+
+  /**
+   * Creates the summary of a class whose analysis completed without errors.
+   *
+   * @param targetClass fully-qualified name of the analyzed class
+   * @param specifications the specifications generated for the class
+   * @param untranslatedTags number of tags left untranslated because their parses exceeded the
+   *     parse budget
+   * @param timeMillis time spent to analyze the class, in milliseconds
+   * @return the summary of the analysis of the class
+   */
+  public static ClassSummary success(
+      String targetClass,
+      Map<DocumentedExecutable, OperationSpecification> specifications,
+      long untranslatedTags,
+      long timeMillis) {
+    int pre = 0, post = 0, exc = 0;
+    for (OperationSpecification spec : specifications.values()) {
+      pre += countNonEmpty(spec.getPreSpecifications());
+      post += countNonEmpty(spec.getPostSpecifications());
+      exc += countNonEmpty(spec.getThrowsSpecifications());
+    }
+    return new ClassSummary(
+        targetClass,
+        true,
+        specifications.size(),
+        pre,
+        post,
+        exc,
+        untranslatedTags,
+        timeMillis,
+        null);
+  }
+
+  /**
+   * Creates the summary of a class whose analysis failed.
+   *
+   * @param targetClass fully-qualified name of the class
+   * @param error description of the error that stopped the analysis
+   * @param timeMillis time spent before the analysis failed, in milliseconds
+   * @return the summary of the analysis of the class
+   */
+  public static ClassSummary failure(String targetClass, String error, long timeMillis) {
+    return new ClassSummary(targetClass, false, 0, 0, 0, 0, 0, timeMillis, error);
+  }
+
+  private static int countNonEmpty(Iterable<? extends Specification> specs) {
+    int count = 0;
+    for (Specification spec : specs) {
+      if (!spec.getGuard().getConditionText().isEmpty()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public String toString() {
+    return targetClass
+        + (succeeded
+            ? ": "
+                + executables
+                + " executables, "
+                + preSpecifications
+                + " pre, "
+                + postSpecifications
+                + " post, "
+                + throwsSpecifications
+                + " throws specifications"
+                + (untranslatedTags > 0
+                    ? " (" + untranslatedTags + " tags over the parse budget)"
+                    : "")
+            : ": FAILED (" + error + ")")
+        + " in "
+        + timeMillis
+        + " ms";
+  }
+}
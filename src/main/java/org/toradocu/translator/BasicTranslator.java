@@ -12,20 +12,61 @@ public class BasicTranslator {
 
   /**
    * Given a {@code BlockTag}, ask to {@code Parser} the list of {@code PropositionSeries}
-   * associated to the tag comment, in order to compute a translation for each one.
+   * associated to the tag comment, in order to compute a translation for each one. If enabled by
+   * the context, comments matching one of the {@code CommentTemplates} are translated without
+   * parsing them.
    *
    * @param tag the {@code BlockTag} for which produce a translation
    * @param excMember the {@code DocumentedExecutable} the tag belongs to
+   * @param context the context of the translation
    * @return a String representing the translation
    */
-  public static String translate(BlockTag tag, DocumentedExecutable excMember) {
+  public static String translate(
+      BlockTag tag, DocumentedExecutable excMember, TranslationContext context) {
+    return translate(tag, excMember, templateCondition(tag, excMember, context), context);
+  }
+
+  /**
+   * Returns the condition produced by the {@code CommentTemplates} for the comment of the given
+   * tag, if the templates are enabled by the context.
+   *
+   * @param tag the @param or @throws tag whose comment has to be translated
+   * @param excMember the {@code DocumentedExecutable} the tag belongs to
+   * @param context the context of the translation
+   * @return the condition of the template matching the comment, or null if the comment has to be
+   *     parsed
+   */
+  static String templateCondition(
+      BlockTag tag, DocumentedExecutable excMember, TranslationContext context) {
+    return context.isCommentTemplatesEnabled() ? CommentTemplates.translate(tag, excMember) : null;
+  }
+
+  /**
+   * Translates the given tag, parsing its comment unless it has been translated by the {@code
+   * CommentTemplates} already.
+   *
+   * @param tag the {@code BlockTag} for which produce a translation
+   * @param excMember the {@code DocumentedExecutable} the tag belongs to
+   * @param templateCondition the condition produced by the templates for the comment of {@code
+   *     tag}, null if the comment has to be parsed
+   * @param context the context of the translation
+   * @return a String representing the translation
+   */
+  static String translate(
+      BlockTag tag,
+      DocumentedExecutable excMember,
+      String templateCondition,
+      TranslationContext context) {
+    if (templateCondition != null) {
+      return templateCondition;
+    }
     // Identify propositions in the comment. Each sentence in the comment is parsed into a
     // PropositionSeries.
     List<PropositionSeries> propositions = Parser.parse(tag.getComment(), excMember);
     Set<String> conditions = new LinkedHashSet<>();
 
     for (PropositionSeries props : propositions) {
-      translate(props, excMember, tag.getComment().getText());
+      translate(props, excMember, tag.getComment().getText(), context);
       conditions.add(props.getTranslation()); // TODO Add only when translation is non-empty?
     }
     return mergeConditions(conditions);
@@ -79,10 +120,14 @@ public class BasicTranslator {
    * @param method the method the containing the Javadoc comment from which the {@code
    *     propositionSeries} was extracted
    * @param comment the comment text
+   * @param context the context of the translation
    */
   public static void translate(
-      PropositionSeries propositionSeries, DocumentedExecutable method, String comment) {
-    Matcher matcher = new Matcher();
+      PropositionSeries propositionSeries,
+      DocumentedExecutable method,
+      String comment,
+      TranslationContext context) {
+    Matcher matcher = new Matcher(context);
     for (Proposition p : propositionSeries.getPropositions()) {
       Set<CodeElement<?>> subjectMatches;
       subjectMatches = matcher.subjectMatch(p.getSubject().getSubject(), method);
@@ -91,7 +136,8 @@ public class BasicTranslator {
         return;
       }
       final Set<CodeElement<?>> matchingCodeElements = new LinkedHashSet<>();
-      String loop = findMatchingCodeElements(p, subjectMatches, method, matchingCodeElements);
+      String loop =
+          findMatchingCodeElements(p, subjectMatches, method, matchingCodeElements, matcher);
       if (loop.equals(LOOP_RETURN)) {
         return;
       }
@@ -188,6 +234,7 @@ public class BasicTranslator {
    * @param subjectMatches CodeElements matches for subject
    * @param method the DocumentedExecutable under analysis
    * @param matchingCodeElements the set of matching CodeElements to update
+   * @param matcher the matcher used to match the subject of the proposition
    * @return a String defining whether the loop in the method translatePropositions has to continue
    *     to the next iteration (LOOP_CONTINUE), to stop (LOOP_RETURN) or go on executing the rest of
    *     the body (LOOP_OK)
@@ -196,8 +243,8 @@ public class BasicTranslator {
       Proposition p,
       Set<CodeElement<?>> subjectMatches,
       DocumentedExecutable method,
-      Set<CodeElement<?>> matchingCodeElements) {
-    Matcher matcher = new Matcher();
+      Set<CodeElement<?>> matchingCodeElements,
+      Matcher matcher) {
     final String container = p.getSubject().getContainer();
     if (container.isEmpty()) {
       // Subject match
@@ -2,7 +2,6 @@ package org.toradocu.translator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -98,19 +97,30 @@ public abstract class CodeElement<T> implements Comparable<CodeElement<?>> {
 
   /**
    * Returns the edit distance between this code element and the given string. The returned distance
-   * is the minimum distance calculated for all the identifiers of this code element.
-   * Integer.MAX_VALUE is returned if this code element has no identifiers.
+   * is the minimum distance calculated for all the identifiers of this code element. Distances
+   * greater than {@code bound} are not computed exactly: if no identifier is within the bound, a
+   * value greater than {@code bound} is returned. Integer.MAX_VALUE is returned if this code
+   * element has no identifiers.
    *
    * @param s the string to get the edit distance from
+   * @param wordRemovalCost the cost of a single word deletion in {@code s}
+   * @param bound the maximum distance of interest
    * @return the minimum edit distance between the given string and the identifiers of this code
-   *     element, or Integer.MAX_VALUE if this code element has no identifiers
+   *     element if it is at most {@code bound}, a greater value otherwise, or Integer.MAX_VALUE if
+   *     this code element has no identifiers
    */
-  int getEditDistanceFrom(String s) {
-    return identifiers
-        .stream()
-        .map(identifier -> Distance.editDistance(identifier, s))
-        .min(Comparator.naturalOrder())
-        .orElse(Integer.MAX_VALUE);
+  int getEditDistanceFrom(String s, int wordRemovalCost, int bound) {
+    int minDistance = Integer.MAX_VALUE;
+    if (bound < 0) { // No distance can be within the bound.
+      return minDistance;
+    }
+    for (String identifier : identifiers) {
+      // Once an identifier is within the bound, the others are only interesting if closer.
+      final int distance =
+          Distance.editDistance(identifier, s, wordRemovalCost, Math.min(bound, minDistance));
+      minDistance = Math.min(minDistance, distance);
+    }
+    return minDistance;
   }
 
   /**
@@ -0,0 +1,242 @@
+package org.toradocu.translator;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ParamTag;
+
+/**
+ * Translates the most frequent phrasings of @param and @throws comments (e.g. "x is null" or "the
+ * index is negative") directly into conditions, without parsing the comments. A template matches
+ * the last sentence of a (preprocessed) comment, and the previous sentences must have no word a
+ * condition can come from (e.g. "the map to decorate. map is not null."). The subject of the
+ * template must be bound to exactly one parameter: no other parameter, public field, or @param
+ * comment of another parameter can be referred to by the same name. The conditions produced by the
+ * templates are the ones the full translation produces for the same comments.
+ */
+public final class CommentTemplates {
+
+  /** Prose sentences preceding the last sentence of a comment. */
+  private static final String PROSE = "^(?<prose>.*\\. )?";
+  /** The subject of a template, possibly preceded by "the". */
+  private static final String SUBJECT = "(?:the )?(?<subject>[A-Za-z_][A-Za-z0-9_]*)";
+  /** The end of a comment. */
+  private static final String END = "\\.?$";
+
+  /** The templates, in the order in which they are tried. */
+  private enum Template {
+    /** e.g. "x is null". */
+    NULL(SUBJECT + " is null", (arg, m) -> arg + "==null"),
+    /** e.g. "x is not null". */
+    NOT_NULL(SUBJECT + " (?:is not|must not be) null", (arg, m) -> "(" + arg + "==null) == false"),
+    /** e.g. "x is negative" or "x must be negative". */
+    NEGATIVE(SUBJECT + " (?:is|must be) negative", (arg, m) -> arg + "<0"),
+    /** e.g. "x is positive" or "x must be positive". */
+    POSITIVE(SUBJECT + " (?:is|must be) positive", (arg, m) -> arg + ">0"),
+    /** e.g. "x is not positive". */
+    NOT_POSITIVE(SUBJECT + " is not positive", (arg, m) -> "(" + arg + ">0) == false"),
+    /** e.g. "x < 0". */
+    COMPARISON(
+        SUBJECT + " ?(?<operator><=|>=|<|>) ?(?<number>[0-9]+)",
+        (arg, m) -> arg + m.group("operator") + m.group("number"));
+
+    private final Pattern pattern;
+    /** Produces the condition from the Java expression of the subject and the match. */
+    private final Translation translation;
+
+    Template(String regex, Translation translation) {
+      this.pattern = Pattern.compile(PROSE + regex + END);
+      this.translation = translation;
+    }
+  }
+
+  /** Produces the condition of a template from the Java expression of its subject. */
+  @FunctionalInterface
+  private interface Translation {
+    String apply(String subject, Matcher match);
+  }
+
+  /** e.g. "x or y is null", which has two subjects. */
+  private static final Pattern EITHER_NULL =
+      Pattern.compile(
+          PROSE
+              + "(?:the )?(?<first>[A-Za-z_][A-Za-z0-9_]*)"
+              + " or (?:the )?(?<second>[A-Za-z_][A-Za-z0-9_]*) (?:is|are) null"
+              + END);
+
+  /** Names of the public fields of every class, which the subject of a template must not name. */
+  private static final ClassValue<Set<String>> publicFields =
+      new ClassValue<Set<String>>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+          final Set<String> names = new HashSet<>();
+          for (Field field : type.getFields()) {
+            names.add(field.getName());
+          }
+          return names;
+        }
+      };
+
+  /** Number of comments translated by the templates. */
+  private static final AtomicLong matchedComments = new AtomicLong();
+  /** Number of comments the templates have been tried on. */
+  private static final AtomicLong triedComments = new AtomicLong();
+
+  private CommentTemplates() {}
+
+  /**
+   * Returns a description of how many comments have been translated by the templates.
+   *
+   * @return a description of how many comments have been translated by the templates
+   */
+  public static String getStatistics() {
+    final long tried = triedComments.get();
+    final long matched = matchedComments.get();
+    return String.format(
+        "Comment templates: %d comments out of %d translated without parsing (%.1f%%)",
+        matched, tried, tried == 0 ? 0.0 : 100.0 * matched / tried);
+  }
+
+  /**
+   * Translates the comment of the given tag with a template. The translation is meant to be done
+   * once per tag: when it succeeds the comment does not need to be parsed, and the condition is
+   * handed to the translator of the tag.
+   *
+   * @param tag the @param or @throws tag whose comment has to be translated
+   * @param member the executable member commented with {@code tag}
+   * @return the condition of the comment, or null if no template matches the comment with a unique
+   *     binding of its subjects
+   */
+  static String translate(BlockTag tag, DocumentedExecutable member) {
+    triedComments.incrementAndGet();
+    final String condition = condition(tag.getComment(), member);
+    if (condition != null) {
+      matchedComments.incrementAndGet();
+    }
+    return condition;
+  }
+
+  /**
+   * Returns the condition produced by the template matching the given comment.
+   *
+   * @param comment the comment of a @param or @throws tag
+   * @param member the executable member commented with {@code comment}
+   * @return the condition of the comment, or null if no template matches the comment with a unique
+   *     binding of its subjects
+   */
+  private static String condition(Comment comment, DocumentedExecutable member) {
+    final String text = comment.getText();
+    for (Template template : Template.values()) {
+      final Matcher match = template.pattern.matcher(text);
+      if (match.matches()) {
+        final String subject = bind(match.group("subject"), member);
+        return subject == null || !isProse(match, comment)
+            ? null
+            : template.translation.apply(subject, match);
+      }
+    }
+    final Matcher match = EITHER_NULL.matcher(text);
+    if (match.matches() && isProse(match, comment)) {
+      final String first = bind(match.group("first"), member);
+      final String second = bind(match.group("second"), member);
+      if (first != null && second != null && !first.equals(second)) {
+        return first + "==null || " + second + "==null";
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checks whether the sentences preceding the template in the given match have no word a condition
+   * can come from, and no word marked as code.
+   *
+   * @param match the match of a template
+   * @param comment the matched comment
+   * @return true if the sentences preceding the template are prose
+   */
+  private static boolean isProse(Matcher match, Comment comment) {
+    final String prose = match.group("prose");
+    if (prose == null) {
+      return true;
+    }
+    for (String codeWord : comment.getWordsMarkedAsCode().keySet()) {
+      if (prose.contains(codeWord)) {
+        return false;
+      }
+    }
+    return !TagClassifier.hasConditionWords(prose, Collections.emptySet());
+  }
+
+  /**
+   * Returns the Java expression of the only parameter of the given member the given name refers to.
+   *
+   * @param name the name used in a comment
+   * @param member the executable member whose parameters are bound
+   * @return the Java expression of the parameter named {@code name}, or null if no parameter or
+   *     more code elements can be referred to by {@code name}
+   */
+  private static String bind(String name, DocumentedExecutable member) {
+    final List<DocumentedParameter> parameters = member.getParameters();
+    int index = -1;
+    for (int i = 0; i < parameters.size(); i++) {
+      if (parameters.get(i).getName().equals(name)) {
+        if (index != -1) {
+          return null;
+        }
+        index = i;
+      }
+    }
+    if (index == -1) {
+      return null;
+    }
+    if (publicFields.get(member.getDeclaringClass()).contains(name)) {
+      return null;
+    }
+    // The comments of the other parameters are identifiers of those parameters.
+    for (ParamTag paramTag : member.paramTags()) {
+      if (!paramTag.getParameter().getName().equals(name)
+          && containsWord(paramTag.getComment().getText(), name)) {
+        return null;
+      }
+    }
+    return "args[" + index + "]";
+  }
+
+  /**
+   * Checks whether the given text contains the given word, i.e., an occurrence of the word that is
+   * neither preceded nor followed by a word character (as {@code \b} in a regular expression).
+   *
+   * @param text the text to look into
+   * @param word the word to look for
+   * @return true if {@code text} contains {@code word}
+   */
+  private static boolean containsWord(String text, String word) {
+    for (int i = text.indexOf(word); i != -1; i = text.indexOf(word, i + 1)) {
+      final int end = i + word.length();
+      if ((i == 0 || !isWordCharacter(text.charAt(i - 1)))
+          && (end == text.length() || !isWordCharacter(text.charAt(end)))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether the given character is a word character (as {@code \w} in a regular expression).
+   *
+   * @param c a character
+   * @return true if {@code c} is a letter, a digit, or an underscore
+   */
+  private static boolean isWordCharacter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+  }
+}
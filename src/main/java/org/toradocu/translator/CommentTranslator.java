@@ -3,12 +3,22 @@ package org.toradocu.translator;
 import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.ParamTag;
@@ -16,6 +26,8 @@ import org.toradocu.extractor.ReturnTag;
 import org.toradocu.extractor.ThrowsTag;
 import org.toradocu.translator.preprocess.PreprocessorFactory;
 import org.toradocu.util.Checks;
+import org.toradocu.util.CompilationBatch;
+import randoop.condition.specification.Guard;
 import randoop.condition.specification.Identifiers;
 import randoop.condition.specification.Operation;
 import randoop.condition.specification.OperationSpecification;
@@ -34,12 +46,20 @@ public class CommentTranslator {
    *
    * @param tag the comment to be translated
    * @param excMember the executable member commented with {@code tag}
+   * @param context the context of the translation
    * @return a precondition specification (an empty specification if the translation fails)
    */
-  public static PreSpecification translate(ParamTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+  public static PreSpecification translate(
+      ParamTag tag, DocumentedExecutable excMember, TranslationContext context) {
+    final ParseBudget budget = ParseBudget.of(context);
+    final ParamTag preprocessedTag = preprocess(tag, excMember, budget);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
-    return new ParamTranslator().translate(tag, excMember);
+    return withinParseBudget(
+        budget,
+        preprocessedTag,
+        excMember,
+        () -> new ParamTranslator(context).translate(preprocessedTag, excMember),
+        untranslated(preprocessedTag));
   }
 
   /**
@@ -47,13 +67,21 @@ public class CommentTranslator {
    *
    * @param tag the comment to be translated
    * @param excMember the executable member commented with {@code tag}
+   * @param context the context of the translation
    * @return a list of precondition specifications (each specification can be empty if the
    *     translation failed)
    */
-  public static List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+  public static List<PostSpecification> translate(
+      ReturnTag tag, DocumentedExecutable excMember, TranslationContext context) {
+    final ParseBudget budget = ParseBudget.of(context);
+    final ReturnTag preprocessedTag = preprocess(tag, excMember, budget);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
-    return new ReturnTranslator().translate(tag, excMember);
+    return withinParseBudget(
+        budget,
+        preprocessedTag,
+        excMember,
+        () -> new ReturnTranslator(context).translate(preprocessedTag, excMember),
+        new ArrayList<>());
   }
 
   /**
@@ -61,16 +89,25 @@ public class CommentTranslator {
    *
    * @param tag the comment to be translated
    * @param excMember the executable member commented with {@code tag}
+   * @param context the context of the translation
    * @return a precondition specification (an empty specification if the translation fails)
    */
-  public static ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+  public static ThrowsSpecification translate(
+      ThrowsTag tag, DocumentedExecutable excMember, TranslationContext context) {
+    final ParseBudget budget = ParseBudget.of(context);
+    final ThrowsTag preprocessedTag = preprocess(tag, excMember, budget);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
-    return new ThrowsTranslator().translate(tag, excMember);
+    return withinParseBudget(
+        budget,
+        preprocessedTag,
+        excMember,
+        () -> new ThrowsTranslator(context).translate(preprocessedTag, excMember),
+        untranslated(preprocessedTag));
   }
 
   /**
-   * Creates the specifications from the comments of the given executable members.
+   * Creates the specifications from the comments of the given executable members, using the
+   * settings currently held by the global {@code Configuration}.
    *
    * @param members the executable members whose comments have to be translated into specifications
    * @return a map that associates each executable member (key) with its operation specification
@@ -78,37 +115,352 @@ public class CommentTranslator {
    */
   public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
       List<DocumentedExecutable> members) {
-    Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
-    for (DocumentedExecutable member : members) {
-      Operation operation = Operation.getOperation(member.getExecutable());
-      List<String> paramNames =
-          member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
-      Identifiers identifiers =
-          new Identifiers(paramNames, Configuration.RECEIVER, Configuration.RETURN_VALUE);
-      OperationSpecification spec = new OperationSpecification(operation, identifiers);
-
-      List<PreSpecification> preSpecifications = new ArrayList<>();
+    return createSpecifications(
+        members, TranslationContext.fromConfiguration(Configuration.INSTANCE));
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members, using the
+   * settings of the given translation context. The given members are not modified: their comments
+   * are preprocessed first into new executable members, then the sentences of the @param
+   * and @throws comments that are not translated by the {@code CommentTemplates} are parsed in a
+   * batch, and finally the comments are translated. If enabled by the context, the tags classified
+   * as untranslatable by the {@code TagClassifier} are skipped altogether and get empty
+   * specifications. Different members (and different sentences) are processed concurrently with the
+   * number of threads specified by the context. The iteration order of the returned map is the
+   * order of {@code members}, regardless of the number of threads. As the members are not modified,
+   * they can be translated again (e.g., with another context) and concurrently.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @param context the context of the translation
+   * @return a map that associates each executable member, with its preprocessed comments (key),
+   *     with its operation specification that includes pre-, post-, and exceptional specifications.
+   */
+  public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
+      List<DocumentedExecutable> members, TranslationContext context) {
+    Parser.setGraphCacheSize(context.getParseGraphCacheSize());
+    final int threads = context.getThreads();
+    final ParseBudget budget = ParseBudget.of(context);
+    final Set<BlockTag> skippedTags =
+        context.isTagClassifierEnabled()
+            ? TagClassifier.untranslatableTags(members)
+            : Collections.emptySet();
+    final List<DocumentedExecutable> preprocessedMembers =
+        forEachMember(members, threads, member -> preprocess(member, skippedTags, budget));
+
+    List<MethodComment> comments = new ArrayList<>();
+    final Map<MethodComment, String> templateConditions = new HashMap<>();
+    for (DocumentedExecutable member : preprocessedMembers) {
       for (ParamTag paramTag : member.paramTags()) {
-        preSpecifications.add(CommentTranslator.translate(paramTag, member));
+        collectComment(paramTag, member, skippedTags, context, comments, templateConditions);
       }
-      spec.addParamSpecifications(preSpecifications);
-
-      List<ThrowsSpecification> throwsSpecifications = new ArrayList<>();
       for (ThrowsTag throwsTag : member.throwsTags()) {
-        throwsSpecifications.add(CommentTranslator.translate(throwsTag, member));
+        collectComment(throwsTag, member, skippedTags, context, comments, templateConditions);
+      }
+    }
+    final Map<MethodComment, ParseBudgetExceededException> overBudgetComments =
+        Parser.prefetch(comments, budget, threads);
+
+    final List<OperationSpecification> memberSpecs =
+        forEachMember(
+            preprocessedMembers,
+            threads,
+            member ->
+                createSpecification(
+                    member, context, skippedTags, budget, overBudgetComments, templateConditions));
+    Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
+    for (int i = 0; i < preprocessedMembers.size(); i++) {
+      specs.put(preprocessedMembers.get(i), memberSpecs.get(i));
+    }
+    return specs;
+  }
+
+  /**
+   * Collects the comment of the given preprocessed tag, unless the tag is skipped: the comment is
+   * either translated by the {@code CommentTemplates}, which happens once per tag, or added to the
+   * comments to parse.
+   *
+   * @param tag the preprocessed @param or @throws tag
+   * @param member the executable member commented with {@code tag}
+   * @param skippedTags the tags that are not translated
+   * @param context the context of the translation
+   * @param comments the comments to parse
+   * @param templateConditions the conditions produced by the templates, indexed by their comments
+   */
+  private static void collectComment(
+      BlockTag tag,
+      DocumentedExecutable member,
+      Set<BlockTag> skippedTags,
+      TranslationContext context,
+      List<MethodComment> comments,
+      Map<MethodComment, String> templateConditions) {
+    if (skippedTags.contains(tag)) {
+      return;
+    }
+    final MethodComment comment = new MethodComment(tag.getComment(), member);
+    final String condition = BasicTranslator.templateCondition(tag, member, context);
+    if (condition == null) {
+      comments.add(comment);
+    } else {
+      templateConditions.put(comment, condition);
+    }
+  }
+
+  /**
+   * Applies the given function to each of the given executable members, concurrently with the given
+   * number of threads.
+   *
+   * @param members the executable members to which {@code function} is applied
+   * @param threads the number of threads applying {@code function}
+   * @param function the function to apply
+   * @param <T> the type of the results of {@code function}
+   * @return the results of {@code function}, in the order of {@code members}
+   */
+  private static <T> List<T> forEachMember(
+      List<DocumentedExecutable> members, int threads, Function<DocumentedExecutable, T> function) {
+    List<T> results = new ArrayList<>(members.size());
+    if (threads <= 1 || members.size() <= 1) {
+      for (DocumentedExecutable member : members) {
+        results.add(function.apply(member));
       }
-      spec.addThrowsSpecifications(throwsSpecifications);
+      return results;
+    }
 
-      List<PostSpecification> postSpecifications = new ArrayList<>();
-      ReturnTag returnTag = member.returnTag();
-      if (returnTag != null) {
-        postSpecifications.addAll(CommentTranslator.translate(returnTag, member));
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(threads, members.size()));
+    try {
+      List<Future<T>> futures = new ArrayList<>(members.size());
+      for (DocumentedExecutable member : members) {
+        futures.add(executor.submit(() -> function.apply(member)));
+      }
+      for (Future<T> future : futures) {
+        results.add(future.get());
       }
-      spec.addReturnSpecifications(postSpecifications);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while translating comments", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
 
-      specs.put(member, spec);
+  /**
+   * Preprocesses the comments of the given executable member, except the ones of the skipped tags.
+   *
+   * @param member the executable member whose comments have to be preprocessed
+   * @param skippedTags the tags that are not translated
+   * @param budget the budget limiting the parses of the translation
+   * @return an executable member equal to {@code member}, but with the preprocessed comments (the
+   *     skipped tags are the same objects as in {@code member})
+   */
+  private static DocumentedExecutable preprocess(
+      DocumentedExecutable member, Set<BlockTag> skippedTags, ParseBudget budget) {
+    List<ParamTag> paramTags = new ArrayList<>(member.paramTags().size());
+    for (ParamTag paramTag : member.paramTags()) {
+      paramTags.add(
+          skippedTags.contains(paramTag) ? paramTag : preprocess(paramTag, member, budget));
     }
-    return specs;
+    List<ThrowsTag> throwsTags = new ArrayList<>(member.throwsTags().size());
+    for (ThrowsTag throwsTag : member.throwsTags()) {
+      throwsTags.add(
+          skippedTags.contains(throwsTag) ? throwsTag : preprocess(throwsTag, member, budget));
+    }
+    ReturnTag returnTag = member.returnTag();
+    if (returnTag != null && !skippedTags.contains(returnTag)) {
+      returnTag = preprocess(returnTag, member, budget);
+    }
+    return member.withTags(paramTags, returnTag, throwsTags);
+  }
+
+  /**
+   * Preprocesses the comment of the given tag. The preprocessing stops when the parses of the tag
+   * exceed a limit of the given budget, in which case the tag is returned as it is and its
+   * translation decides whether the tag can be translated.
+   *
+   * @param tag the tag whose comment has to be preprocessed
+   * @param member the executable member commented with {@code tag}
+   * @param budget the budget limiting the parses of the translation
+   * @param <T> the type of {@code tag}
+   * @return a tag equal to {@code tag}, but with the preprocessed comment
+   */
+  private static <T extends BlockTag> T preprocess(
+      T tag, DocumentedExecutable member, ParseBudget budget) {
+    try {
+      return budget.withinTagDeadline(
+          () -> PreprocessorFactory.create(tag.getKind()).preprocess(tag, member));
+    } catch (ParseBudgetExceededException e) {
+      log.debug("Preprocessing of \"" + tag + "\" stopped: " + e.getMessage());
+      return tag;
+    }
+  }
+
+  /**
+   * Runs the given translation of a tag within the deadline of the given budget. If the parses of
+   * the tag exceed any limit of the budget, the tag is recorded as untranslated.
+   *
+   * @param budget the budget limiting the parses of the translation
+   * @param tag the tag to translate
+   * @param member the executable member commented with {@code tag}
+   * @param translation the translation of {@code tag}
+   * @param untranslated the result of the translation when the tag is left untranslated
+   * @param <T> the type of the result of the translation
+   * @return the result of {@code translation}, or {@code untranslated} if the parses exceeded a
+   *     limit
+   */
+  private static <T> T withinParseBudget(
+      ParseBudget budget,
+      BlockTag tag,
+      DocumentedExecutable member,
+      Supplier<T> translation,
+      T untranslated) {
+    try {
+      return budget.withinTagDeadline(translation);
+    } catch (ParseBudgetExceededException e) {
+      ParseBudget.untranslated(tag, member, e);
+      return untranslated;
+    }
+  }
+
+  /**
+   * Checks whether the comment of the given tag exceeded a limit of the parse budget when it was
+   * parsed ahead of the translation, in which case the tag is recorded as untranslated.
+   *
+   * @param tag the preprocessed @param or @throws tag
+   * @param member the executable member commented with {@code tag}
+   * @param overBudgetComments the comments whose parses exceeded a limit of the parse budget, each
+   *     with the exception signaling the exceeded limit
+   * @return true if the comment of {@code tag} exceeded a limit of the parse budget
+   */
+  private static boolean overBudget(
+      BlockTag tag,
+      DocumentedExecutable member,
+      Map<MethodComment, ParseBudgetExceededException> overBudgetComments) {
+    final ParseBudgetExceededException reason =
+        overBudgetComments.get(new MethodComment(tag.getComment(), member));
+    if (reason == null) {
+      return false;
+    }
+    ParseBudget.untranslated(tag, member, reason);
+    return true;
+  }
+
+  /**
+   * Returns the empty specification of the given @param tag.
+   *
+   * @param tag the untranslated tag
+   * @return the empty specification of {@code tag}
+   */
+  private static PreSpecification untranslated(ParamTag tag) {
+    return new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
+  }
+
+  /**
+   * Returns the empty specification of the given @throws tag.
+   *
+   * @param tag the untranslated tag
+   * @return the empty specification of {@code tag}
+   */
+  private static ThrowsSpecification untranslated(ThrowsTag tag) {
+    return new ThrowsSpecification(
+        tag.toString(), new Guard(tag.getComment().getText(), ""), tag.getException().getName());
+  }
+
+  /**
+   * Creates the specification of the given executable member from its preprocessed comments. The
+   * skipped tags get empty specifications, as do the tags whose comments exceeded a limit of the
+   * parse budget when they were parsed ahead of the translation.
+   *
+   * @param member the executable member whose comments have to be translated into specifications
+   * @param context the context of the translation
+   * @param skippedTags the tags that are not translated
+   * @param budget the budget limiting the parses of the translation
+   * @param overBudgetComments the comments whose parses exceeded a limit of {@code budget}, each
+   *     with the exception signaling the exceeded limit
+   * @param templateConditions the conditions produced by the {@code CommentTemplates}, indexed by
+   *     the comments they translate
+   * @return the operation specification of {@code member} that includes pre-, post-, and
+   *     exceptional specifications
+   */
+  private static OperationSpecification createSpecification(
+      DocumentedExecutable member,
+      TranslationContext context,
+      Set<BlockTag> skippedTags,
+      ParseBudget budget,
+      Map<MethodComment, ParseBudgetExceededException> overBudgetComments,
+      Map<MethodComment, String> templateConditions) {
+    Operation operation = Operation.getOperation(member.getExecutable());
+    List<String> paramNames =
+        member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
+    Identifiers identifiers =
+        new Identifiers(paramNames, Configuration.RECEIVER, Configuration.RETURN_VALUE);
+    OperationSpecification spec = new OperationSpecification(operation, identifiers);
+
+    // The candidate specifications of all the tags are compiled at once.
+    CompilationBatch batch = new CompilationBatch(context);
+
+    List<Supplier<PreSpecification>> preSpecifications = new ArrayList<>();
+    for (ParamTag paramTag : member.paramTags()) {
+      final PreSpecification untranslated = untranslated(paramTag);
+      final String templateCondition =
+          templateConditions.get(new MethodComment(paramTag.getComment(), member));
+      preSpecifications.add(
+          skippedTags.contains(paramTag) || overBudget(paramTag, member, overBudgetComments)
+              ? () -> untranslated
+              : withinParseBudget(
+                  budget,
+                  paramTag,
+                  member,
+                  () ->
+                      new ParamTranslator(context)
+                          .translate(paramTag, member, templateCondition, batch),
+                  () -> untranslated));
+    }
+
+    List<Supplier<ThrowsSpecification>> throwsSpecifications = new ArrayList<>();
+    for (ThrowsTag throwsTag : member.throwsTags()) {
+      final ThrowsSpecification untranslated = untranslated(throwsTag);
+      final String templateCondition =
+          templateConditions.get(new MethodComment(throwsTag.getComment(), member));
+      throwsSpecifications.add(
+          skippedTags.contains(throwsTag) || overBudget(throwsTag, member, overBudgetComments)
+              ? () -> untranslated
+              : withinParseBudget(
+                  budget,
+                  throwsTag,
+                  member,
+                  () ->
+                      new ThrowsTranslator(context)
+                          .translate(throwsTag, member, templateCondition, batch),
+                  () -> untranslated));
+    }
+
+    Supplier<List<PostSpecification>> postSpecifications = ArrayList::new;
+    ReturnTag returnTag = member.returnTag();
+    if (returnTag != null && !skippedTags.contains(returnTag)) {
+      postSpecifications =
+          withinParseBudget(
+              budget,
+              returnTag,
+              member,
+              () -> new ReturnTranslator(context).translate(returnTag, member, batch),
+              ArrayList::new);
+    }
+
+    batch.compile();
+    spec.addParamSpecifications(preSpecifications.stream().map(Supplier::get).collect(toList()));
+    spec.addThrowsSpecifications(
+        throwsSpecifications.stream().map(Supplier::get).collect(toList()));
+    spec.addReturnSpecifications(postSpecifications.get());
+    return spec;
   }
 
   /**
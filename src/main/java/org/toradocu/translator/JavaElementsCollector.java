@@ -9,6 +9,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
@@ -18,55 +19,150 @@ import org.toradocu.extractor.ParamTag;
 /**
  * Collects all the Java elements that can be used for the condition translation. Java elements are
  * collected through Java reflection.
+ *
+ * <p>Collected elements are cached: the elements that only depend on a class (the class itself, its
+ * fields, and its methods) are collected once per class, while the elements that depend on an
+ * executable member are collected once per executable member and collected again only if its
+ * {@literal @param} tags change (e.g., because they are preprocessed). Code elements are shared by
+ * all the translations of the same class and must not be modified.
  */
 public class JavaElementsCollector {
 
+  /** The code elements of every class, computed on first use. */
+  private static final ClassValue<ClassElements> classElements =
+      new ClassValue<ClassElements>() {
+        @Override
+        protected ClassElements computeValue(Class<?> type) {
+          return new ClassElements(type);
+        }
+      };
+
   /**
    * Collects all the Java code elements that can be used for the condition translation. The code
    * elements are collected using reflection starting from the given method.
    *
    * @param documentedExecutable the method from which to start to collect the code elements
-   * @return the collected code elements
+   * @return the collected code elements (an unmodifiable set)
    */
   public static Set<CodeElement<?>> collect(DocumentedExecutable documentedExecutable) {
-    Set<CodeElement<?>> collectedElements = new LinkedHashSet<>();
-    final Class<?> containingClass = documentedExecutable.getDeclaringClass();
+    final ClassElements containingClass =
+        classElements.get(documentedExecutable.getDeclaringClass());
+    return containingClass
+        .executableElements
+        .computeIfAbsent(
+            documentedExecutable.getExecutable(),
+            executable -> new ExecutableElements(containingClass, documentedExecutable))
+        .get(documentedExecutable);
+  }
+
+  /** The code elements that only depend on a class. */
+  private static class ClassElements {
+    /** The code element of the class. */
+    final ClassCodeElement classElement;
+    /** The code elements of the public fields of the class. */
+    final List<FieldCodeElement> fields;
+    /** The public methods of the class. */
+    final List<Method> methods;
+    /** The code elements of {@code methods}, in the same order. */
+    final List<CodeElement<?>> methodElements;
+    /** The code elements of the executable members of the class. */
+    final Map<Executable, ExecutableElements> executableElements = new ConcurrentHashMap<>();
+
+    ClassElements(Class<?> aClass) {
+      classElement = new ClassCodeElement(aClass);
+      fields = Collections.unmodifiableList(fieldsOf(aClass));
+      methods = Collections.unmodifiableList(Arrays.asList(aClass.getMethods()));
+      List<CodeElement<?>> elements = new ArrayList<>();
+      for (Method method : methods) {
+        elements.add(
+            Modifier.isStatic(method.getModifiers())
+                ? new StaticMethodCodeElement(method)
+                : new MethodCodeElement(Configuration.RECEIVER, method));
+      }
+      methodElements = Collections.unmodifiableList(elements);
+    }
+  }
+
+  /** The code elements available to the translation of the comments of an executable member. */
+  private static class ExecutableElements {
+    /** The code elements of the class that do not depend on the parameters' comments. */
+    private final ClassElements classElements;
+    /** The code elements of the methods that can be used with the executable member. */
+    private final List<CodeElement<?>> methods;
+    /** The latest collected code elements, along with the @param tags they were collected from. */
+    private volatile Snapshot snapshot;
 
-    // Add the containing class.
-    collectedElements.add(containingClassOf(documentedExecutable));
+    ExecutableElements(ClassElements classElements, DocumentedExecutable documentedExecutable) {
+      this.classElements = classElements;
+      this.methods = Collections.unmodifiableList(methodsOf(classElements, documentedExecutable));
+    }
 
-    // Add the parameters of the executable member.
-    collectedElements.addAll(parametersOf(documentedExecutable));
+    /**
+     * Returns the code elements of the given executable member, collecting the code elements of its
+     * parameters again if its @param tags changed since the last invocation.
+     *
+     * @param documentedExecutable the executable member
+     * @return the code elements of {@code documentedExecutable} (an unmodifiable set)
+     */
+    Set<CodeElement<?>> get(DocumentedExecutable documentedExecutable) {
+      final List<Object> key = parametersKey(documentedExecutable);
+      Snapshot current = snapshot;
+      if (current == null || !current.key.equals(key)) {
+        Set<CodeElement<?>> collectedElements = new LinkedHashSet<>();
+        // Add the containing class.
+        collectedElements.add(classElements.classElement);
+        // Add the parameters of the executable member.
+        collectedElements.addAll(parametersOf(documentedExecutable));
+        // Add fields of the containing class.
+        collectedElements.addAll(classElements.fields);
+        // Add methods of the containing class (all but the method corresponding to
+        // documentedExecutable).
+        collectedElements.addAll(methods);
+        current = new Snapshot(key, Collections.unmodifiableSet(collectedElements));
+        snapshot = current;
+      }
+      return current.elements;
+    }
 
-    // Add fields of the containing class.
-    collectedElements.addAll(fieldsOf(containingClass));
+    /**
+     * Returns the data the code elements of the parameters of the given executable member are
+     * collected from: the parameters and the @param tags, which are immutable.
+     *
+     * @param documentedExecutable the executable member
+     * @return the parameters followed by the @param tags
+     */
+    private static List<Object> parametersKey(DocumentedExecutable documentedExecutable) {
+      return Arrays.asList(documentedExecutable.getParameters(), documentedExecutable.paramTags());
+    }
+  }
 
-    // Add methods of the containing class (all but the method corresponding to
-    // documentedExecutable).
-    collectedElements.addAll(methodsOf(containingClass, documentedExecutable));
+  /** Code elements collected from a given version of the @param tags of an executable member. */
+  private static class Snapshot {
+    /** The data the code elements were collected from. */
+    final List<Object> key;
+    /** The collected code elements. */
+    final Set<CodeElement<?>> elements;
 
-    return collectedElements;
+    Snapshot(List<Object> key, Set<CodeElement<?>> elements) {
+      this.key = key;
+      this.elements = elements;
+    }
   }
 
   // Executable member is ignored and not included in the returned list of methods.
   private static List<CodeElement<?>> methodsOf(
-      Class<?> containingClass, DocumentedExecutable documentedExecutable) {
-    final List<Method> methods = new ArrayList<>();
-    Collections.addAll(methods, containingClass.getMethods());
+      ClassElements containingClass, DocumentedExecutable documentedExecutable) {
     final Executable executable = documentedExecutable.getExecutable();
-    if (executable instanceof Method) {
-      Method method = (Method) executable;
-      methods.remove(method);
-    }
     List<Class<?>> inScopeTypes = collectInScopeTypes(documentedExecutable);
-    methods.removeIf(method -> !invokableWithParameters(method, inScopeTypes));
 
     List<CodeElement<?>> codeElements = new ArrayList<>();
-    for (Method method : methods) {
-      if (Modifier.isStatic(method.getModifiers())) {
-        codeElements.add(new StaticMethodCodeElement(method));
-      } else if (!documentedExecutable.isConstructor()) {
-        codeElements.add(new MethodCodeElement(Configuration.RECEIVER, method));
+    for (int i = 0; i < containingClass.methods.size(); i++) {
+      final Method method = containingClass.methods.get(i);
+      if (method.equals(executable) || !invokableWithParameters(method, inScopeTypes)) {
+        continue;
+      }
+      if (Modifier.isStatic(method.getModifiers()) || !documentedExecutable.isConstructor()) {
+        codeElements.add(containingClass.methodElements.get(i));
       }
     }
     return codeElements;
@@ -142,10 +238,6 @@ public class JavaElementsCollector {
     return paramCodeElements;
   }
 
-  private static ClassCodeElement containingClassOf(DocumentedExecutable documentedExecutable) {
-    return new ClassCodeElement(documentedExecutable.getDeclaringClass());
-  }
-
   /**
    * For the parameter in input, find its param tag in the method's Javadoc and produce the
    * SemanticGraphs of the comment. For every graph, keep the root as identifier.
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.translator.semantic.SemanticTrace;
 
 /**
  * The {@code Matcher} class translates subjects and predicates in Javadoc comments to Java
@@ -19,18 +20,37 @@ import org.toradocu.translator.semantic.SemanticMatcher;
  */
 class Matcher {
 
+  /** The semantic matcher, shared by all the translations. */
+  private static final SemanticMatcher semanticMatcher =
+      new SemanticMatcher(true, (float) 0.2, (float) 3.11);
+
   /**
    * Represents the threshold for the edit distance above which {@code CodeElement}s are considered
    * to be not matching.
    */
   private final int editDistanceThreshold;
 
-  public Matcher() {
-    this.editDistanceThreshold = Configuration.INSTANCE.getDistanceThreshold();
-  }
+  /** Cost of a single word deletion in the edit distance algorithm. */
+  private final int wordRemovalCost;
 
-  public Matcher(int editDistanceThreshold) {
-    this.editDistanceThreshold = editDistanceThreshold;
+  /** Whether the semantic matcher is used when the syntactic match fails. */
+  private final boolean semanticMatcherEnabled;
+  /** Trace where the distances computed by the semantic matcher are recorded, null if disabled. */
+  private final SemanticTrace semanticTrace;
+
+  /**
+   * Creates a new matcher with the settings of the given translation context.
+   *
+   * @param context the context of the translation this matcher is used for
+   */
+  public Matcher(TranslationContext context) {
+    this.editDistanceThreshold = context.getDistanceThreshold();
+    this.wordRemovalCost = context.getWordRemovalCost();
+    this.semanticMatcherEnabled = context.isSemanticMatcherEnabled();
+    this.semanticTrace =
+        context.getSemanticTraceFile() == null
+            ? null
+            : SemanticTrace.of(context.getSemanticTraceFile());
   }
 
   /**
@@ -91,9 +111,10 @@ class Matcher {
     if (filter.length() > 1) {
       minDistance = editDistanceThreshold;
     }
-    // Returns the CodeElement(s) with the smallest distance.
+    // Returns the CodeElement(s) with the smallest distance. Elements farther than the current
+    // minimum distance are discarded, so their distance does not need to be computed exactly.
     for (CodeElement<?> codeElement : codeElements) {
-      int distance = codeElement.getEditDistanceFrom(filter);
+      int distance = codeElement.getEditDistanceFrom(filter, wordRemovalCost, minDistance);
       if (distance < minDistance) {
         minDistance = distance;
         minCodeElements.clear();
@@ -273,18 +294,16 @@ class Matcher {
     List<CodeElement<?>> sortedMethodList = new ArrayList<CodeElement<?>>(codeElements);
     // Try the classic syntactic match first of all
     Match match = syntacticMatch(predicate, codeElements, method);
-    if (match == null && SemanticMatcher.isEnabled()) {
+    if (match == null && semanticMatcherEnabled) {
       // When the syntactic match fails, try semantic if enabled
       try {
-        SemanticMatcher semanticMatcher = new SemanticMatcher(true, (float) 0.2, (float) 3.11);
-
         // it is important to provide a fixed order since this point, to prevent method with same
         // score
         // being put in map in a different order every execution
         Collections.sort(sortedMethodList, new JavaExpressionComparator());
         LinkedHashMap<CodeElement<?>, Double> semanticMethodMatches =
             semanticMatcher.runSemanticMatch(
-                sortedMethodList, method, subject, proposition, comment);
+                sortedMethodList, method, subject, proposition, comment, semanticTrace);
 
         if (semanticMethodMatches != null && !semanticMethodMatches.isEmpty()) {
           List<CodeElement<?>> semanticMethodList =
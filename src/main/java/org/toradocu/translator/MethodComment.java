@@ -0,0 +1,41 @@
+package org.toradocu.translator;
+
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+
+/** This class ties a String comment to its DocumentedMethod. */
+class MethodComment {
+  private Comment comment;
+  private DocumentedExecutable method;
+
+  public MethodComment(Comment comment, DocumentedExecutable method) {
+    this.comment = comment;
+    this.method = method;
+  }
+
+  public Comment getComment() {
+    return comment;
+  }
+
+  public DocumentedExecutable getMethod() {
+    return method;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    MethodComment that = (MethodComment) o;
+
+    if (comment != null ? !comment.equals(that.comment) : that.comment != null) return false;
+    return method != null ? method.equals(that.method) : that.method == null;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = comment != null ? comment.hashCode() : 0;
+    result = 31 * result + (method != null ? method.hashCode() : 0);
+    return result;
+  }
+}
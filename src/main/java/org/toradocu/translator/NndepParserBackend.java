@@ -0,0 +1,43 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.parser.nndep.DependencyParser;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.tagger.maxent.MaxentTagger;
+import edu.stanford.nlp.trees.GrammaticalStructure;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The transition-based neural dependency parser of the Stanford parser. Words are first tagged by
+ * the maximum entropy POS tagger, which keeps the tags already assigned, and then parsed directly
+ * into dependencies. This parser is much faster than the PCFG parser, but it is less accurate on
+ * the sentences of the comments, and its results are not stored in the parse cache.
+ */
+final class NndepParserBackend implements ParserBackend {
+
+  private final MaxentTagger tagger;
+  private final DependencyParser dependencyParser;
+  /** Number of sentences parsed. */
+  private final AtomicLong parsedSentences = new AtomicLong();
+
+  /** Loads the default English POS tagger and universal dependencies model. */
+  NndepParserBackend() {
+    tagger = new MaxentTagger(MaxentTagger.DEFAULT_JAR_PATH);
+    dependencyParser = DependencyParser.loadFromModelFile(DependencyParser.DEFAULT_MODEL);
+  }
+
+  @Override
+  public SemanticGraph parse(List<TaggedWord> words) {
+    final List<TaggedWord> taggedWords = tagger.tagSentence(words, true);
+    GrammaticalStructure gs = dependencyParser.predict(taggedWords);
+    parsedSentences.incrementAndGet();
+    // Build the semantic graph.
+    return new SemanticGraph(gs.typedDependenciesCCprocessed());
+  }
+
+  @Override
+  public String getStatistics() {
+    return String.format("Dependency parser: %d sentences parsed", parsedSentences.get());
+  }
+}
@@ -0,0 +1,423 @@
+package org.toradocu.translator;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.util.RuntimeInterruptedException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.BoundedCache;
+
+/**
+ * Limits the work of the parser, so that a single run-on sentence cannot stall the translation of a
+ * whole class. A budget is created for each translation from the limits set by its {@code
+ * TranslationContext}: the number of tokens of a sentence (longer sentences are not parsed), the
+ * time spent parsing a sentence (the parse is interrupted when the time is over), and the time
+ * spent parsing the sentences of a tag comment (no sentence is parsed after the deadline of the
+ * tag). A sentence exceeding the limit on tokens is remembered for the rest of the translation,
+ * while a sentence whose parse ran out of time is parsed again when it occurs again: the time of a
+ * parse depends on the load of the machine and on the deadline of the tag, not on the sentence
+ * alone. A tag whose parses exceed any limit is left untranslated. Only the PCFG parser can be
+ * interrupted: the dependency parser always completes its (fast) parses.
+ */
+public final class ParseBudget {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(ParseBudget.class);
+
+  /** The limits of the parse budget. */
+  enum Limit {
+    /** The maximum number of tokens of a sentence. */
+    TOKENS,
+    /** The maximum time spent parsing a sentence. */
+    SENTENCE_TIME,
+    /** The maximum time spent parsing the sentences of a tag comment. */
+    TAG_TIME
+  }
+
+  /** Maximum number of sentences exceeding the limit on tokens remembered by a budget. */
+  private static final int MAX_EXCEEDED_SENTENCES = 1000;
+
+  /** Number of sentences (or tags, for {@code TAG_TIME}) that exceeded each limit. */
+  private static final Map<Limit, AtomicLong> exceeded = new EnumMap<>(Limit.class);
+  /** Number of tags left untranslated because their parses exceeded a limit. */
+  private static final AtomicLong untranslatedTags = new AtomicLong();
+  /** The tag each thread is translating, with the budget and the deadline of its parses. */
+  private static final ThreadLocal<TagParse> currentTag = new ThreadLocal<>();
+  /** The parse each thread is running, if it has a limit on time. */
+  private static final ThreadLocal<TimedParse> currentParse = new ThreadLocal<>();
+
+  static {
+    for (Limit limit : Limit.values()) {
+      exceeded.put(limit, new AtomicLong());
+    }
+  }
+
+  /** Holder of the thread interrupting the parses that run out of time, started when used. */
+  private static final class Watchdog {
+    private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private static ScheduledThreadPoolExecutor createExecutor() {
+      final ScheduledThreadPoolExecutor executor =
+          new ScheduledThreadPoolExecutor(
+              1,
+              task -> {
+                Thread thread = new Thread(task, "parse-watchdog");
+                thread.setDaemon(true);
+                return thread;
+              });
+      executor.setRemoveOnCancelPolicy(true);
+      return executor;
+    }
+  }
+
+  /** Maximum number of tokens of a sentence to parse, 0 if there is no limit. */
+  private final int maxTokens;
+  /** Maximum time in milliseconds spent parsing a sentence, 0 if there is no limit. */
+  private final long sentenceTimeout;
+  /** Maximum time in milliseconds spent parsing the sentences of a tag, 0 if there is no limit. */
+  private final long tagDeadline;
+  /**
+   * The sentences (identified by their words and POS tags) that exceeded the limit on tokens in
+   * this translation, so that each of them is counted once, as long as it is not evicted by more
+   * recent ones.
+   */
+  private final BoundedCache<String, ParseBudgetExceededException> exceededSentences =
+      new BoundedCache<>("Exceeded sentences", MAX_EXCEEDED_SENTENCES, exception -> 1);
+
+  /**
+   * Creates a new budget with the given limits.
+   *
+   * @param maxTokens maximum number of tokens of a sentence to parse, 0 if there is no limit
+   * @param sentenceTimeout maximum time in milliseconds spent parsing a sentence, 0 if there is no
+   *     limit
+   * @param tagDeadline maximum time in milliseconds spent parsing the sentences of a tag, 0 if
+   *     there is no limit
+   */
+  ParseBudget(int maxTokens, long sentenceTimeout, long tagDeadline) {
+    this.maxTokens = maxTokens;
+    this.sentenceTimeout = sentenceTimeout;
+    this.tagDeadline = tagDeadline;
+  }
+
+  /**
+   * Creates a new budget with the limits set by the given translation context.
+   *
+   * @param context the context of the translation
+   * @return a new budget with the limits of {@code context}
+   */
+  static ParseBudget of(TranslationContext context) {
+    return new ParseBudget(
+        context.getParseMaxTokens(), context.getParseTimeout(), context.getTagParseDeadline());
+  }
+
+  /**
+   * Returns the number of tags left untranslated because their parses exceeded a limit.
+   *
+   * @return the number of tags left untranslated because their parses exceeded a limit
+   */
+  public static long getUntranslatedTags() {
+    return untranslatedTags.get();
+  }
+
+  /**
+   * Returns a description of the parses that exceeded each limit.
+   *
+   * @return a description of the parses that exceeded each limit
+   */
+  public static String getStatistics() {
+    return String.format(
+        "Parse budget: %d sentences over the limit on tokens, %d sentence parses over the limit"
+            + " on time, %d tag parses over the deadline, %d tags left untranslated",
+        exceeded.get(Limit.TOKENS).get(),
+        exceeded.get(Limit.SENTENCE_TIME).get(),
+        exceeded.get(Limit.TAG_TIME).get(),
+        untranslatedTags.get());
+  }
+
+  /**
+   * Parses the given words with the given parser within the limits of the budget of the tag the
+   * current thread is translating, if any. The parser must run its interruptible work through
+   * {@link #interruptible(Supplier)} to be subject to the limits on time.
+   *
+   * @param sentence the key identifying the words and POS tags of the sentence
+   * @param words words that compose the sentence
+   * @param parser the parser producing the semantic graph of the sentence
+   * @return the semantic graph of the sentence
+   * @throws ParseBudgetExceededException if the sentence is not parsed, or its parse is aborted,
+   *     because it exceeds a limit
+   */
+  static SemanticGraph parse(
+      String sentence, List<TaggedWord> words, Function<List<TaggedWord>, SemanticGraph> parser) {
+    final TagParse tag = currentTag.get();
+    if (tag == null) {
+      return parser.apply(words);
+    }
+    return tag.budget.parse(sentence, words, parser, tag.deadline);
+  }
+
+  /**
+   * Parses the given words with the given parser within the limits of this budget and of the given
+   * deadline of the tag.
+   *
+   * @param sentence the key identifying the words and POS tags of the sentence
+   * @param words words that compose the sentence
+   * @param parser the parser producing the semantic graph of the sentence
+   * @param deadline the time (as in {@code System.nanoTime}) by which the tag must be parsed, null
+   *     if there is none
+   * @return the semantic graph of the sentence
+   * @throws ParseBudgetExceededException if the sentence is not parsed, or its parse is aborted,
+   *     because it exceeds a limit
+   */
+  private SemanticGraph parse(
+      String sentence,
+      List<TaggedWord> words,
+      Function<List<TaggedWord>, SemanticGraph> parser,
+      Long deadline) {
+    final ParseBudgetExceededException previous = exceededSentences.get(sentence);
+    if (previous != null) {
+      throw new ParseBudgetExceededException(previous.getLimit(), previous.getMessage());
+    }
+    if (maxTokens > 0 && words.size() > maxTokens) {
+      throw exceed(
+          sentence,
+          Limit.TOKENS,
+          "sentence of " + words.size() + " tokens, longer than " + maxTokens + " tokens");
+    }
+
+    final long start = System.nanoTime();
+    long end = sentenceTimeout > 0 ? start + MILLISECONDS.toNanos(sentenceTimeout) : 0;
+    Limit timeLimit = Limit.SENTENCE_TIME;
+    if (deadline != null) {
+      if (deadline - start <= 0) {
+        throw exceed(sentence, Limit.TAG_TIME, tagTimeMessage());
+      }
+      if (end == 0 || deadline - end < 0) {
+        end = deadline;
+        timeLimit = Limit.TAG_TIME;
+      }
+    }
+    if (end == 0) {
+      return parser.apply(words);
+    }
+    final TimedParse enclosingParse = currentParse.get();
+    currentParse.set(new TimedParse(this, sentence, end, timeLimit));
+    try {
+      return parser.apply(words);
+    } finally {
+      if (enclosingParse == null) {
+        currentParse.remove();
+      } else {
+        currentParse.set(enclosingParse);
+      }
+    }
+  }
+
+  /**
+   * Runs the given interruptible work of a parser, interrupting it when the time of the current
+   * parse is over. Only the computation of the parse must run through this method: an interruption
+   * could close the files written by the rest of the parser.
+   *
+   * @param work the interruptible work of a parser, which aborts with a {@code
+   *     RuntimeInterruptedException} when interrupted
+   * @param <T> the type of the result of {@code work}
+   * @return the result of {@code work}
+   * @throws ParseBudgetExceededException if {@code work} is interrupted because the time of the
+   *     current parse is over
+   */
+  static <T> T interruptible(Supplier<T> work) {
+    final TimedParse parse = currentParse.get();
+    if (parse == null) {
+      return work.get();
+    }
+    final long remaining = parse.end - System.nanoTime();
+    if (remaining <= 0) {
+      throw parse.exceed();
+    }
+
+    final Interruption interruption = new Interruption(Thread.currentThread());
+    final ScheduledFuture<?> watchdog =
+        Watchdog.EXECUTOR.schedule(interruption::interrupt, remaining, NANOSECONDS);
+    final T result;
+    try {
+      result = work.get();
+    } catch (RuntimeInterruptedException e) {
+      if (!interruption.finish()) {
+        throw e;
+      }
+      // Clear the interrupted status, in case the parser did not.
+      Thread.interrupted();
+      throw parse.exceed();
+    } finally {
+      watchdog.cancel(false);
+    }
+    if (interruption.finish()) {
+      // The work completed just as its time ran out.
+      Thread.interrupted();
+    }
+    return result;
+  }
+
+  private String tagTimeMessage() {
+    return "parses of the tag longer than " + tagDeadline + " ms";
+  }
+
+  /**
+   * Records that the given sentence exceeded the given limit. Only the limit on tokens depends on
+   * the sentence alone, hence only a sentence exceeding that limit is remembered, and counted once,
+   * in this translation.
+   *
+   * @param sentence the key identifying the words and POS tags of the sentence
+   * @param limit the limit exceeded by the sentence
+   * @param message the description of how the sentence exceeded {@code limit}
+   * @return the exception signaling that the sentence exceeded {@code limit}
+   */
+  private ParseBudgetExceededException exceed(String sentence, Limit limit, String message) {
+    final ParseBudgetExceededException exception = new ParseBudgetExceededException(limit, message);
+    if (limit != Limit.TOKENS) {
+      exceeded.get(limit).incrementAndGet();
+      return exception;
+    }
+    synchronized (exceededSentences) {
+      if (!exceededSentences.contains(sentence)) {
+        exceededSentences.put(sentence, exception);
+        exceeded.get(limit).incrementAndGet();
+      }
+    }
+    return exception;
+  }
+
+  /**
+   * Runs the given translation of a tag within this budget, limiting the time spent parsing the
+   * sentences of the tag.
+   *
+   * @param translation the translation of a tag
+   * @param <T> the type of the result of the translation
+   * @return the result of {@code translation}
+   */
+  <T> T withinTagDeadline(Supplier<T> translation) {
+    final TagParse enclosingTag = currentTag.get();
+    Long deadline = tagDeadline > 0 ? System.nanoTime() + MILLISECONDS.toNanos(tagDeadline) : null;
+    if (enclosingTag != null
+        && enclosingTag.deadline != null
+        && (deadline == null || enclosingTag.deadline - deadline < 0)) {
+      deadline = enclosingTag.deadline;
+    }
+    currentTag.set(new TagParse(this, deadline));
+    try {
+      return translation.get();
+    } finally {
+      if (enclosingTag == null) {
+        currentTag.remove();
+      } else {
+        currentTag.set(enclosingTag);
+      }
+    }
+  }
+
+  /**
+   * Records that the given tag has been left untranslated because its parses exceeded a limit.
+   *
+   * @param tag the untranslated tag
+   * @param member the executable member commented with {@code tag}
+   * @param reason the exception signaling the exceeded limit
+   */
+  static void untranslated(
+      BlockTag tag, DocumentedExecutable member, ParseBudgetExceededException reason) {
+    untranslatedTags.incrementAndGet();
+    log.warn(
+        "Tag \""
+            + tag
+            + "\" of "
+            + member.getSignature()
+            + " left untranslated: "
+            + reason.getMessage());
+  }
+
+  /** The parses of a tag, limited by a budget. */
+  private static final class TagParse {
+    /** The budget limiting the parses. */
+    private final ParseBudget budget;
+    /** The time (as in {@code System.nanoTime}) by which the tag must be parsed, null if none. */
+    private final Long deadline;
+
+    TagParse(ParseBudget budget, Long deadline) {
+      this.budget = budget;
+      this.deadline = deadline;
+    }
+  }
+
+  /** A parse with a limit on time. */
+  private static final class TimedParse {
+    /** The budget limiting the parse. */
+    private final ParseBudget budget;
+    /** The key identifying the words and POS tags of the parsed sentence. */
+    private final String sentence;
+    /** The time (as in {@code System.nanoTime}) by which the parse must complete. */
+    private final long end;
+    /** The limit setting the time of the parse. */
+    private final Limit limit;
+
+    TimedParse(ParseBudget budget, String sentence, long end, Limit limit) {
+      this.budget = budget;
+      this.sentence = sentence;
+      this.end = end;
+      this.limit = limit;
+    }
+
+    /**
+     * Records that this parse exceeded its limit on time.
+     *
+     * @return the exception signaling that this parse exceeded its limit on time
+     */
+    ParseBudgetExceededException exceed() {
+      return budget.exceed(
+          sentence,
+          limit,
+          limit == Limit.TAG_TIME
+              ? budget.tagTimeMessage()
+              : "parse longer than " + budget.sentenceTimeout + " ms");
+    }
+  }
+
+  /** The interruption of a parse, which happens only if the parse is not finished yet. */
+  private static final class Interruption {
+    private final Thread thread;
+    private boolean finished;
+    private boolean interrupted;
+
+    Interruption(Thread thread) {
+      this.thread = thread;
+    }
+
+    /** Interrupts the parsing thread, unless the parse is finished. */
+    synchronized void interrupt() {
+      if (!finished) {
+        interrupted = true;
+        thread.interrupt();
+      }
+    }
+
+    /**
+     * Marks the parse as finished, so that the parsing thread is not interrupted anymore.
+     *
+     * @return true if the parsing thread has been interrupted
+     */
+    synchronized boolean finish() {
+      finished = true;
+      return interrupted;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package org.toradocu.translator;
+
+/** Signals that the parse of a sentence has been skipped or aborted because it exceeded a limit. */
+class ParseBudgetExceededException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The limit the parse exceeded. */
+  private final ParseBudget.Limit limit;
+
+  /**
+   * Creates a new exception for a parse that exceeded the given limit.
+   *
+   * @param limit the limit the parse exceeded
+   * @param message the description of how the parse exceeded {@code limit}
+   */
+  ParseBudgetExceededException(ParseBudget.Limit limit, String message) {
+    super(message);
+    this.limit = limit;
+  }
+
+  /**
+   * Returns the limit the parse exceeded.
+   *
+   * @return the limit the parse exceeded
+   */
+  ParseBudget.Limit getLimit() {
+    return limit;
+  }
+}
@@ -0,0 +1,374 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.trees.Tree;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.util.BoundedCache;
+
+/**
+ * Cache of the parse trees produced by the Stanford parser. A tree is stored under the sentence it
+ * was produced from, i.e., the words of the sentence (with placeholders) together with the POS tags
+ * assigned to them before parsing, so that a sentence is parsed only once even if it occurs in the
+ * comments of different methods. The most recently used trees are kept in memory, serialized and
+ * compressed, up to a maximum size. When a cache directory is given, trees are also appended to a
+ * file in that directory whose name depends on the version of the parser model, so that they are
+ * reused by the following runs: only the positions of the trees in the file are kept in memory, and
+ * a tree evicted from memory is read again from the file. The file is locked while records are
+ * appended, so that several processes can share it. Every lookup returns a new copy of the tree.
+ * Objects of this class can be shared by multiple threads.
+ */
+final class ParseCache {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(ParseCache.class);
+
+  /** Maximum size of a record of the trees file, to detect corrupted files. */
+  private static final int MAX_RECORD_SIZE = 1 << 24;
+
+  /** Maximum number of bytes of the serialized trees kept in memory. */
+  private static final long MAX_CACHED_BYTES = 32L << 20;
+
+  /** The cache of every pair of cache directory and model version. */
+  private static final Map<String, ParseCache> caches = new ConcurrentHashMap<>();
+
+  /** The recently used serialized and compressed trees, indexed by their sentences. */
+  private final BoundedCache<String, byte[]> trees =
+      new BoundedCache<>("Parse trees in memory", MAX_CACHED_BYTES, tree -> tree.length);
+  /** Positions of the tree records in the trees file, indexed by their sentences. */
+  private final Map<String, Long> positions = new ConcurrentHashMap<>();
+  /** Channel reading and appending to the trees file, null if trees are not persisted. */
+  private final FileChannel file;
+  /** Number of lookups that found a tree. */
+  private final AtomicLong hits = new AtomicLong();
+  /** Number of lookups that did not find a tree. */
+  private final AtomicLong misses = new AtomicLong();
+
+  private ParseCache(Path directory, String modelVersion) {
+    FileChannel treesFile = null;
+    if (directory != null) {
+      final Path path = directory.resolve("parse-trees-" + modelVersion + ".bin");
+      try {
+        Files.createDirectories(directory);
+        treesFile =
+            FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (FileLock lock = treesFile.lock()) {
+          load(path, treesFile);
+        }
+      } catch (IOException e) {
+        log.error("Unable to use the parse cache in " + directory, e);
+        closeQuietly(treesFile);
+        treesFile = null;
+      }
+    }
+    file = treesFile;
+  }
+
+  /**
+   * Returns the cache persisting in the given directory the trees produced by the parser model with
+   * the given version.
+   *
+   * @param directory the directory where trees are persisted, null to keep trees only in memory
+   * @param modelVersion the version of the parser model
+   * @return the cache persisting the trees in {@code directory}
+   */
+  static ParseCache of(Path directory, String modelVersion) {
+    final Path dir = directory == null ? null : directory.toAbsolutePath().normalize();
+    return caches.computeIfAbsent(
+        (dir == null ? "" : dir.toString()) + "\n" + modelVersion,
+        k -> new ParseCache(dir, modelVersion));
+  }
+
+  /**
+   * Indexes the trees in the given file, which must be locked. A record truncated by an interrupted
+   * run is removed from the file, so that the following records are appended at the right position.
+   *
+   * @param path the path of the trees file
+   * @param channel the channel of the trees file
+   * @throws IOException if the file cannot be read
+   */
+  private void load(Path path, FileChannel channel) throws IOException {
+    long validLength = 0;
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      while (true) {
+        final byte[] sentence = readRecord(input);
+        if (sentence == null) {
+          break;
+        }
+        final long treePosition = validLength + 4 + sentence.length;
+        final int treeLength = skipRecord(input);
+        if (treeLength < 0) {
+          break;
+        }
+        positions.put(new String(sentence, StandardCharsets.UTF_8), treePosition);
+        validLength = treePosition + 4 + treeLength;
+      }
+    }
+    if (validLength < channel.size()) {
+      channel.truncate(validLength);
+    }
+  }
+
+  /**
+   * Reads a record, i.e., a sequence of bytes preceded by its length.
+   *
+   * @param input the stream to read from
+   * @return the bytes of the record, or null if the stream ends before the end of the record
+   * @throws IOException if the stream cannot be read
+   */
+  private static byte[] readRecord(DataInputStream input) throws IOException {
+    try {
+      final int length = input.readInt();
+      if (length < 0 || length > MAX_RECORD_SIZE) {
+        return null;
+      }
+      final byte[] record = new byte[length];
+      input.readFully(record);
+      return record;
+    } catch (EOFException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Skips a record, i.e., a sequence of bytes preceded by its length.
+   *
+   * @param input the stream to read from
+   * @return the length of the skipped record, or -1 if the stream ends before the end of the record
+   * @throws IOException if the stream cannot be read
+   */
+  private static int skipRecord(DataInputStream input) throws IOException {
+    try {
+      final int length = input.readInt();
+      if (length < 0 || length > MAX_RECORD_SIZE) {
+        return -1;
+      }
+      int skipped = 0;
+      while (skipped < length) {
+        final int n = input.skipBytes(length - skipped);
+        if (n == 0) {
+          input.readByte();
+          skipped++;
+        } else {
+          skipped += n;
+        }
+      }
+      return length;
+    } catch (EOFException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Reads the tree record at the given position of the trees file.
+   *
+   * @param position the position of the record in the trees file
+   * @return the bytes of the record, or null if the record is corrupted
+   * @throws IOException if the file cannot be read
+   */
+  private byte[] readTree(long position) throws IOException {
+    final ByteBuffer length = ByteBuffer.allocate(4);
+    readFully(length, position);
+    final int treeLength = length.getInt(0);
+    if (treeLength < 0 || treeLength > MAX_RECORD_SIZE) {
+      return null;
+    }
+    final ByteBuffer tree = ByteBuffer.allocate(treeLength);
+    readFully(tree, position + 4);
+    return tree.array();
+  }
+
+  /**
+   * Fills the given buffer with the bytes of the trees file starting at the given position.
+   *
+   * @param buffer the buffer to fill
+   * @param position the position of the first byte to read
+   * @throws IOException if the file cannot be read or ends before the buffer is filled
+   */
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      final int read = file.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new EOFException("Truncated parse cache record at " + position);
+      }
+    }
+  }
+
+  /**
+   * Returns the key of the given sentence: its words and the POS tags assigned before parsing.
+   *
+   * @param words the (partially tagged) words of a sentence
+   * @return the key identifying the tree of the sentence
+   */
+  static String key(List<TaggedWord> words) {
+    StringBuilder key = new StringBuilder();
+    for (TaggedWord word : words) {
+      key.append(word.word()).append('\t');
+      if (word.tag() != null) {
+        key.append(word.tag());
+      }
+      key.append('\n');
+    }
+    return key.toString();
+  }
+
+  /**
+   * Returns a copy of the tree produced by the parser for the given sentence.
+   *
+   * @param words the (partially tagged) words of a sentence
+   * @return the tree of the sentence, or null if it is not cached
+   */
+  Tree get(List<TaggedWord> words) {
+    final String key = key(words);
+    final byte[] tree = serializedTree(key);
+    if (tree != null) {
+      try (ObjectInputStream input =
+          new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(tree)))) {
+        final Tree copy = (Tree) input.readObject();
+        hits.incrementAndGet();
+        return copy;
+      } catch (IOException | ClassNotFoundException | ClassCastException e) {
+        log.warn("Discarding an unreadable cached parse tree", e);
+      }
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Returns the serialized tree of the given sentence, from memory or else from the trees file.
+   *
+   * @param key the key of a sentence
+   * @return the serialized and compressed tree of the sentence, or null if it is not cached
+   */
+  private byte[] serializedTree(String key) {
+    byte[] tree = trees.get(key);
+    final Long position = positions.get(key);
+    if (tree == null && position != null) {
+      try {
+        tree = readTree(position);
+      } catch (IOException e) {
+        log.warn("Unable to read a persisted parse tree", e);
+      }
+      if (tree != null) {
+        trees.put(key, tree);
+      }
+    }
+    return tree;
+  }
+
+  /**
+   * Stores the tree produced by the parser for the given sentence.
+   *
+   * @param words the (partially tagged) words of a sentence
+   * @param tree the tree produced by the parser for {@code words}
+   */
+  void put(List<TaggedWord> words, Tree tree) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream serialized = new ObjectOutputStream(new GZIPOutputStream(bytes))) {
+      serialized.writeObject(tree);
+    } catch (IOException e) {
+      log.error("Unable to serialize a parse tree", e);
+      return;
+    }
+    final String key = key(words);
+    final byte[] compressed = bytes.toByteArray();
+    trees.put(key, compressed);
+    if (file != null && !positions.containsKey(key)) {
+      append(key, compressed);
+    }
+  }
+
+  /**
+   * Appends the record of the given tree to the trees file. The record is written with a single
+   * write while holding the lock of the file, so that concurrent runs do not interleave records.
+   *
+   * @param key the key of the sentence of the tree
+   * @param tree the serialized and compressed tree
+   */
+  private void append(String key, byte[] tree) {
+    final byte[] sentence = key.getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream bytes =
+        new ByteArrayOutputStream(8 + sentence.length + tree.length);
+    try (DataOutputStream record = new DataOutputStream(bytes)) {
+      record.writeInt(sentence.length);
+      record.write(sentence);
+      record.writeInt(tree.length);
+      record.write(tree);
+    } catch (IOException e) {
+      log.error("Unable to serialize a parse tree record", e);
+      return;
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+    synchronized (file) {
+      if (positions.containsKey(key)) {
+        return;
+      }
+      try (FileLock lock = file.lock()) {
+        final long position = file.size();
+        while (buffer.hasRemaining()) {
+          file.write(buffer, position + buffer.position());
+        }
+        positions.put(key, position + 4 + sentence.length);
+      } catch (IOException e) {
+        log.error("Unable to persist a parse tree", e);
+      }
+    }
+  }
+
+  /**
+   * Closes the given channel, ignoring errors.
+   *
+   * @param channel the channel to close, may be null
+   */
+  private static void closeQuietly(FileChannel channel) {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        log.warn("Unable to close the parse cache file", e);
+      }
+    }
+  }
+
+  /**
+   * Returns a description of the hit rate of this cache.
+   *
+   * @return a description of the hit rate of this cache
+   */
+  String getStatistics() {
+    final long hits = this.hits.get();
+    final long lookups = hits + misses.get();
+    return String.format(
+        "Parse cache: %d hits out of %d lookups (%.1f%%), %d trees persisted; %s",
+        hits,
+        lookups,
+        lookups == 0 ? 0.0 : 100.0 * hits / lookups,
+        positions.size(),
+        trees.getStatistics());
+  }
+}
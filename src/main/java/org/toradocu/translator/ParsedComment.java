@@ -0,0 +1,27 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of parsing a comment: the semantic graphs of its sentences and the inequalities that
+ * have been replaced by placeholders before parsing.
+ */
+class ParsedComment {
+  private final List<SemanticGraph> semanticGraphs;
+  private final List<String> inequalities;
+
+  ParsedComment(List<SemanticGraph> semanticGraphs, List<String> inequalities) {
+    this.semanticGraphs = Collections.unmodifiableList(semanticGraphs);
+    this.inequalities = Collections.unmodifiableList(inequalities);
+  }
+
+  List<SemanticGraph> getSemanticGraphs() {
+    return semanticGraphs;
+  }
+
+  List<String> getInequalities() {
+    return inequalities;
+  }
+}
@@ -6,13 +6,21 @@ import edu.stanford.nlp.ling.HasWord;
 import edu.stanford.nlp.ling.TaggedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.util.BoundedCache;
 
 /**
  * Created by arianna on 18/05/17.
@@ -23,49 +31,80 @@ import org.toradocu.extractor.DocumentedParameter;
  */
 public class Parser {
 
-  /** The regular expressions used to identify patterns in the comment */
-  private static final String INEQUALITY_NUMBER_REGEX =
-      " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)";
-
-  private static final String INEQUALITY_NULL_REGEX = "([=]=?|!=) ?null";
-
-  private static final String GENERIC_TYPE_REGEX = " *(<T>)";
-
-  private static final String RANGE_VAR_REGEX =
-      " * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)";
-
-  private static final String INEQUALITY_VAR_REGEX =
-      " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?";
-  private static final String PLACEHOLDER_PREFIX = " INEQUALITY_";
-  private static final String INEQ_INSOF =
-      "(?<!has )(?<!have )an (instance of)"; // e.g "an instance of"
-  private static final String INEQ_INSOFPROCESSED =
-      " instanceof +[^ \\.]*"; // e.g. "instanceof BinaryMutation"
-  private static final String INEQ_THIS = "(?<!of) this\\."; // e.g "<object> is this."
+  /**
+   * Stores the cache of semantic graphs (and of the inequalities replaced by placeholders) for each
+   * pair method-comment. The cache is shared by threads translating different methods and is
+   * bounded by the number of graphs it holds: an evicted comment is simply parsed again. The bound
+   * is set by {@link #setGraphCacheSize(int)} at the start of each translation.
+   */
+  private static final BoundedCache<MethodComment, ParsedComment> graphsCache =
+      new BoundedCache<>(
+          "Semantic graph cache",
+          Configuration.DEFAULT_PARSE_GRAPH_CACHE_SIZE,
+          parsed -> parsed.getSemanticGraphs().size());
 
-  /** Stores the inequalities that are replaced by placeholders when addPlaceholders is called. */
-  private static List<String> inequalities = new ArrayList<>();
+  private Parser() {}
 
-  /** Stores the cache of semantic graphs for each pair method-comment. */
-  private static Map<MethodComment, List<SemanticGraph>> graphsCache = new HashMap<>();
+  /**
+   * Sets the maximum number of semantic graphs kept in memory by the semantic graph cache and by
+   * the sentence graph cache of the {@code StanfordParser}, evicting the least recently used graphs
+   * if the caches shrink. The caches are shared by all translations in the JVM, so the size of the
+   * translation started last applies.
+   *
+   * @param size the maximum number of semantic graphs kept in memory by each cache
+   */
+  static void setGraphCacheSize(int size) {
+    graphsCache.setMaxWeight(size);
+    StanfordParser.setSentenceGraphCacheSize(size);
+  }
 
-  private Parser() {}
+  /**
+   * Returns a description of the hit rate and of the evictions of the semantic graph cache.
+   *
+   * @return a description of the hit rate and of the evictions of the semantic graph cache
+   */
+  public static String getGraphsCacheStatistics() {
+    return graphsCache.getStatistics();
+  }
 
   /**
    * Store in cache the semantic graphs for a pair comment, method.
    *
    * @param comment the comment object
    * @param method the DocumentedExecutable
+   * @return the semantic graphs of the comment together with the inequalities replaced by
+   *     placeholders in the graphs
    */
-  private static List<SemanticGraph> parse_(Comment comment, DocumentedExecutable method) {
+  private static ParsedComment parse_(Comment comment, DocumentedExecutable method) {
     // Check if cache contains a valid answer.
     MethodComment key = new MethodComment(comment, method);
-    if (graphsCache.containsKey(key)) {
-      return graphsCache.get(key);
+    ParsedComment cached = graphsCache.get(key);
+    if (cached != null) {
+      return cached;
     }
 
+    List<String> inequalities = new ArrayList<>();
     List<SemanticGraph> graphs = new ArrayList<>();
-    Comment commentWithPlaceholders = addPlaceholders(comment);
+    for (List<TaggedWord> taggedWords : tagSentences(comment, method, inequalities)) {
+      graphs.add(StanfordParser.parse(taggedWords));
+    }
+    ParsedComment parsedComment = new ParsedComment(graphs, inequalities);
+    graphsCache.put(key, parsedComment);
+    return parsedComment;
+  }
+
+  /**
+   * Replaces the inequalities in the given comment with placeholders, splits the comment into
+   * sentences, and (POS-)tags the words of the sentences that must not be tagged by the parser.
+   *
+   * @param comment the comment object
+   * @param method the DocumentedExecutable
+   * @param inequalities list where the replaced inequalities are added, in placeholder order
+   * @return the partially tagged sentences of the comment with placeholders
+   */
+  private static List<List<TaggedWord>> tagSentences(
+      Comment comment, DocumentedExecutable method, List<String> inequalities) {
+    Comment commentWithPlaceholders = PlaceholderRewriter.addPlaceholders(comment, inequalities);
     List<String> arguments = new ArrayList<>();
     if (method != null) {
       // Collect method arguments
@@ -75,15 +114,75 @@ public class Parser {
     // Extract sentences in comment with placeholders
     final List<List<HasWord>> sentences =
         StanfordParser.tokenize(commentWithPlaceholders.getText());
+    List<List<TaggedWord>> taggedSentences = new ArrayList<>(sentences.size());
     for (List<HasWord> sentence : sentences) {
-      final List<TaggedWord> taggedWords =
+      taggedSentences.add(
           POSTagger.tagWords(
-              comment, commentWithPlaceholders.getText(), inequalities, sentence, arguments);
-      final SemanticGraph semanticGraph = StanfordParser.parse(taggedWords);
-      graphs.add(semanticGraph);
+              comment, commentWithPlaceholders.getText(), inequalities, sentence, arguments));
+    }
+    return taggedSentences;
+  }
+
+  /**
+   * Parses the given comments ahead of their translation and stores their semantic graphs in the
+   * cache. Distinct comments are parsed concurrently with the given number of threads, so that the
+   * translation of the comments finds them already parsed. The sentences of each comment are parsed
+   * within the deadline of a tag of the given budget, and the comments with a sentence exceeding a
+   * limit of the budget are not stored.
+   *
+   * @param comments the comments to parse, each together with its method
+   * @param budget the budget limiting the parses of each comment
+   * @param threads the number of threads parsing the comments
+   * @return the comments whose parses exceeded a limit of {@code budget}, each with the exception
+   *     signaling the exceeded limit
+   */
+  static Map<MethodComment, ParseBudgetExceededException> prefetch(
+      List<MethodComment> comments, ParseBudget budget, int threads) {
+    final Set<MethodComment> distinctComments = new LinkedHashSet<>();
+    for (MethodComment comment : comments) {
+      if (!graphsCache.contains(comment)) {
+        distinctComments.add(comment);
+      }
+    }
+    final Map<MethodComment, ParseBudgetExceededException> exceeded = new ConcurrentHashMap<>();
+    final Consumer<MethodComment> prefetch =
+        comment -> {
+          try {
+            budget.withinTagDeadline(() -> parse_(comment.getComment(), comment.getMethod()));
+          } catch (ParseBudgetExceededException e) {
+            exceeded.put(comment, e);
+          }
+        };
+    if (threads <= 1 || distinctComments.size() <= 1) {
+      distinctComments.forEach(prefetch);
+      return exceeded;
+    }
+
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(threads, distinctComments.size()));
+    try {
+      final List<Future<?>> futures = new ArrayList<>(distinctComments.size());
+      for (MethodComment comment : distinctComments) {
+        futures.add(executor.submit(() -> prefetch.accept(comment)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing comments", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    } finally {
+      executor.shutdownNow();
     }
-    graphsCache.put(new MethodComment(comment, method), graphs);
-    return graphs;
+    return exceeded;
   }
 
   /**
@@ -93,144 +192,17 @@ public class Parser {
    * @param comment object representing a Javadoc comment
    * @param method the DocumentedExecutable under analysis
    * @return a list of {@code PropositionSeries} objects, one for each sentence in the comment
+   * @throws ParseBudgetExceededException if a sentence of the comment exceeds a limit of the {@code
+   *     ParseBudget}
    */
   // TODO Move this to a new class PropositionIdentifier that handles Proposition.
   public static List<PropositionSeries> parse(Comment comment, DocumentedExecutable method) {
     List<PropositionSeries> result = new ArrayList<>();
-    List<SemanticGraph> semanticGraphs = parse_(comment, method);
-    for (SemanticGraph semanticGraph : semanticGraphs) {
+    ParsedComment parsedComment = parse_(comment, method);
+    for (SemanticGraph semanticGraph : parsedComment.getSemanticGraphs()) {
       result.add(new SentenceParser(semanticGraph).getPropositionSeries());
     }
-    return removePlaceholders(result);
-  }
-
-  /**
-   * Verifies if the comment contains a verb among the {@code possibleVerbs}. If it doesn't, the
-   * verb is assumed to be "is" and is added to the comment.
-   *
-   * @param placeholderText the comment text containing placeholders
-   * @param i counter of the placeholders in the text
-   * @return the placeholderText, updated with the added verb or as it was if it already had one
-   */
-  private static String findVerb(String placeholderText, int i) {
-    // Verbs that could appear before (the inequality, or the keyword this, etc.).
-    // One of these most be present and will be added otherwise.
-    String[] possibleVerbs = {"is", "is not", "isn't", "are", "are not", "aren't"};
-    boolean containsVerb = false;
-    for (String possibleVerb : possibleVerbs) {
-      if (placeholderText.contains(possibleVerb + PLACEHOLDER_PREFIX + i)) {
-        containsVerb = true;
-        break;
-      }
-    }
-    if (!containsVerb) {
-      // The verb is assumed to be "is" and will be added to the text.
-      placeholderText =
-          placeholderText.replaceFirst(PLACEHOLDER_PREFIX + i, " is" + PLACEHOLDER_PREFIX + i);
-    }
-    return placeholderText;
-  }
-
-  private static Comment addPlaceholders(Comment comment) {
-
-    ArrayList<String> contentToIgnore = new ArrayList<>();
-
-    String text =
-        comment
-            .getText()
-            .replace("greater than or equal to", ">=")
-            .replace("greater or equal to", ">=")
-            .replace("≥", ">=")
-            .replace("less than or equal to", "<=")
-            .replace("lesser than or equal to", "<=")
-            .replace("lesser or equal to", "<=")
-            .replace("smaller than or equal to", "<=")
-            .replace("lower than or equal to", "<=")
-            .replace("≤", "<=")
-            .replace("greater than", ">")
-            .replace("smaller than", "<")
-            .replace("less than", "<")
-            .replace("lesser than", "<")
-            .replace("lower than", "<")
-            .replace("equal to", "==");
-
-    java.util.regex.Matcher matcherInstanceOf = Pattern.compile(INEQ_INSOF).matcher(text);
-
-    java.util.regex.Matcher matcherThis = Pattern.compile(INEQ_THIS).matcher(text);
-
-    java.util.regex.Matcher matcherGeneric = Pattern.compile(GENERIC_TYPE_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherRangeVar = Pattern.compile(RANGE_VAR_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherVarComp = Pattern.compile(INEQUALITY_VAR_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherIneqNumber =
-        Pattern.compile(INEQUALITY_NUMBER_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherIneqNull = Pattern.compile(INEQUALITY_NULL_REGEX).matcher(text);
-
-    while (matcherInstanceOf.find()) {
-      // Instance of added to the comparator list
-      // Replace "[an] instance of" with "instanceof"
-      text = text.replaceFirst(INEQ_INSOF, " instanceof");
-    }
-
-    java.util.regex.Matcher matcherIOfProcessed =
-        Pattern.compile(INEQ_INSOFPROCESSED).matcher(text);
-    String placeholderText = text;
-    int i = 0;
-
-    while (matcherIOfProcessed.find()) {
-      // Specific case for the instance of placeholder. We put into inequalities the instanceof and
-      // the name of the class.
-      inequalities.add(text.substring(matcherIOfProcessed.start(), matcherIOfProcessed.end()));
-      placeholderText = placeholderText.replaceFirst(INEQ_INSOFPROCESSED, PLACEHOLDER_PREFIX + i++);
-    }
-
-    while (matcherThis.find()) {
-      inequalities.add(text.substring(matcherThis.start(), matcherThis.end()));
-      placeholderText = placeholderText.replaceFirst(INEQ_THIS, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
-
-    while (matcherGeneric.find()) {
-      placeholderText = placeholderText.replaceFirst(GENERIC_TYPE_REGEX, "IGNORE_ME");
-      contentToIgnore.add(matcherGeneric.group(0));
-    }
-
-    while (matcherRangeVar.find()) {
-      placeholderText = placeholderText.replaceFirst(RANGE_VAR_REGEX, "IGNORE_ME");
-      contentToIgnore.add(matcherRangeVar.group(0));
-    }
-
-    while (matcherIneqNumber.find()) {
-      inequalities.add(text.substring(matcherIneqNumber.start(), matcherIneqNumber.end()));
-      placeholderText =
-          placeholderText.replaceFirst(INEQUALITY_NUMBER_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
-
-    while (matcherIneqNull.find()) {
-      inequalities.add(text.substring(matcherIneqNull.start(), matcherIneqNull.end()));
-      placeholderText = placeholderText.replaceFirst(INEQUALITY_NULL_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
-
-    while (matcherVarComp.find()) {
-      inequalities.add(text.substring(matcherVarComp.start(), matcherVarComp.end()));
-      placeholderText = placeholderText.replaceFirst(INEQUALITY_VAR_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
-
-    for (String ignoredString : contentToIgnore) {
-      placeholderText = placeholderText.replaceFirst("IGNORE_ME", ignoredString);
-    }
-
-    return new Comment(placeholderText, comment.getWordsMarkedAsCode());
+    return removePlaceholders(result, parsedComment.getInequalities());
   }
 
   /**
@@ -239,9 +211,11 @@ public class Parser {
    * are replaced by their symbolic equivalent (e.g. "<").
    *
    * @param seriesList the list of {@code PropositionSeries} containing placeholder text
+   * @param inequalities the inequalities replaced by placeholders, in placeholder order
    * @return a new list of {@code PropositionSeries} with placeholders replaced by inequalities
    */
-  private static List<PropositionSeries> removePlaceholders(List<PropositionSeries> seriesList) {
+  private static List<PropositionSeries> removePlaceholders(
+      List<PropositionSeries> seriesList, List<String> inequalities) {
     List<PropositionSeries> result = new ArrayList<>();
 
     for (PropositionSeries series : seriesList) {
@@ -253,8 +227,11 @@ public class Parser {
         String predicate = placeholderProposition.getPredicate();
 
         for (int i = 0; i < inequalities.size(); i++) {
-          subjectAsString = subjectAsString.replaceAll(PLACEHOLDER_PREFIX + i, inequalities.get(i));
-          predicate = predicate.replaceAll(PLACEHOLDER_PREFIX + i, inequalities.get(i));
+          subjectAsString =
+              subjectAsString.replaceAll(
+                  PlaceholderRewriter.PLACEHOLDER_PREFIX + i, inequalities.get(i));
+          predicate =
+              predicate.replaceAll(PlaceholderRewriter.PLACEHOLDER_PREFIX + i, inequalities.get(i));
         }
         subject.setSubject(subjectAsString); // Replace subject string representation.
 
@@ -266,44 +243,6 @@ public class Parser {
       result.add(newSeries);
     }
 
-    inequalities.clear();
-    return result;
-  }
-}
-
-/** This class ties a String comment to its DocumentedMethod. */
-class MethodComment {
-  private Comment comment;
-  private DocumentedExecutable method;
-
-  public MethodComment(Comment comment, DocumentedExecutable method) {
-    this.comment = comment;
-    this.method = method;
-  }
-
-  public Comment getComment() {
-    return comment;
-  }
-
-  public DocumentedExecutable getMethod() {
-    return method;
-  }
-
-  @Override
-  public boolean equals(Object o) {
-    if (this == o) return true;
-    if (o == null || getClass() != o.getClass()) return false;
-
-    MethodComment that = (MethodComment) o;
-
-    if (comment != null ? !comment.equals(that.comment) : that.comment != null) return false;
-    return method != null ? method.equals(that.method) : that.method == null;
-  }
-
-  @Override
-  public int hashCode() {
-    int result = comment != null ? comment.hashCode() : 0;
-    result = 31 * result + (method != null ? method.hashCode() : 0);
     return result;
   }
 }
@@ -0,0 +1,29 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import java.util.List;
+
+/**
+ * A dependency parser of the sentences of the comments. Implementations must produce
+ * collapsed/CC-processed universal dependencies, i.e., the kind of semantic graph {@code
+ * SentenceParser} identifies propositions in, and must be usable by multiple threads.
+ */
+interface ParserBackend {
+
+  /**
+   * Parses the given {@code words} producing a SemanticGraph. Words that already have a POS tag
+   * (code elements and inequality placeholders) keep it.
+   *
+   * @param words words that compose a sentence
+   * @return the semantic graph of the input sentence
+   */
+  SemanticGraph parse(List<TaggedWord> words);
+
+  /**
+   * Returns a description of the work done by this parser, e.g., the hit rate of its cache.
+   *
+   * @return a description of the work done by this parser
+   */
+  String getStatistics();
+}
@@ -0,0 +1,155 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.parser.common.ParserQuery;
+import edu.stanford.nlp.parser.common.ParserUtils;
+import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.trees.GrammaticalStructure;
+import edu.stanford.nlp.trees.GrammaticalStructureFactory;
+import edu.stanford.nlp.trees.Tree;
+import edu.stanford.nlp.trees.TreebankLanguagePack;
+import edu.stanford.nlp.util.RuntimeInterruptedException;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.CompilationCache;
+
+/**
+ * The PCFG {@code LexicalizedParser} of the Stanford parser, whose phrase structure trees are
+ * converted into dependencies. This is the most accurate parser, and its trees are stored in the
+ * parse cache.
+ */
+final class PcfgParserBackend implements ParserBackend {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(PcfgParserBackend.class);
+
+  private final LexicalizedParser lexicalizedParser;
+  private final GrammaticalStructureFactory gsf;
+  /** Version of the parser model, identifying the trees the model produces in the parse cache. */
+  private final String modelVersion;
+
+  /** Loads the default English PCFG model. */
+  PcfgParserBackend() {
+    lexicalizedParser = LexicalizedParser.loadModel();
+    // tlp is the PennTreebankLanguagePack for English.
+    TreebankLanguagePack tlp = lexicalizedParser.treebankLanguagePack();
+    if (!tlp.supportsGrammaticalStructures()) {
+      throw new RuntimeException(
+          "Error in the Stanford Parser configuration. Are models available?");
+    }
+    gsf = tlp.grammaticalStructureFactory();
+    modelVersion = modelVersion(LexicalizedParser.DEFAULT_PARSER_LOC);
+  }
+
+  /**
+   * Returns the version of the parser model at the given location: a hash of the location and of
+   * the size and modification time of the model, so that it changes whenever the model does.
+   *
+   * @param location the location of the model, in the class path or in the file system
+   * @return the version of the model
+   */
+  private static String modelVersion(String location) {
+    String description = location;
+    try {
+      URL model = PcfgParserBackend.class.getClassLoader().getResource(location);
+      if (model == null) {
+        model = new File(location).toURI().toURL();
+      }
+      final URLConnection connection = model.openConnection();
+      description +=
+          " "
+              + model
+              + " "
+              + connection.getContentLengthLong()
+              + " "
+              + connection.getLastModified();
+    } catch (IOException e) {
+      log.warn("Unable to identify the parser model " + location, e);
+    }
+    return CompilationCache.sha256(description).substring(0, 16);
+  }
+
+  /**
+   * Returns the parse cache selected by the current configuration.
+   *
+   * @return the parse cache selected by the current configuration
+   */
+  private ParseCache parseCache() {
+    final File cacheDir = Configuration.INSTANCE.getParseCacheDir();
+    return ParseCache.of(cacheDir == null ? null : cacheDir.toPath(), modelVersion);
+  }
+
+  /**
+   * Parses the given {@code words} producing a SemanticGraph. The parse trees of sentences already
+   * parsed are taken from the parse cache. The parse is interrupted when its time in the {@code
+   * ParseBudget} is over.
+   *
+   * @param words words that compose a sentence
+   * @return the semantic graph of the input sentence
+   */
+  @Override
+  public SemanticGraph parse(List<TaggedWord> words) {
+    // Parse the sentence.
+    final ParseCache cache = parseCache();
+    Tree tree = cache.get(words);
+    if (tree == null) {
+      tree = ParseBudget.interruptible(() -> parseTree(words));
+      cache.put(words, tree);
+    }
+    GrammaticalStructure gs = gsf.newGrammaticalStructure(tree);
+    // Build the semantic graph.
+    return new SemanticGraph(gs.typedDependenciesCCprocessed());
+  }
+
+  /**
+   * Parses the given {@code words} producing their phrase structure tree, like {@code
+   * LexicalizedParser.parse} does, but letting an interruption of the parse abort it.
+   *
+   * @param words words that compose a sentence
+   * @return the best parse tree of the sentence, or a flat tree if the sentence cannot be parsed
+   * @throws RuntimeInterruptedException if the parse is interrupted
+   */
+  private Tree parseTree(List<TaggedWord> words) {
+    final ParserQuery query = lexicalizedParser.parserQuery();
+    try {
+      if (query.parse(words)) {
+        final Tree tree = query.getBestParse();
+        tree.setScore(query.getPCFGScore() % -10000.0);
+        return tree;
+      }
+    } catch (RuntimeInterruptedException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      log.warn("Unable to parse the sentence " + words + ", a flat tree is used", e);
+    }
+    return ParserUtils.xTree(words);
+  }
+
+  /**
+   * Returns a description of the hit rate of the parse cache.
+   *
+   * @return a description of the hit rate of the parse cache
+   */
+  @Override
+  public String getStatistics() {
+    return parseCache().getStatistics();
+  }
+
+  /**
+   * Returns the lemmas of the words in the given text, tagged by the parser.
+   *
+   * @param text the text to lemmatize
+   * @return the lemmas of the words in {@code text}
+   */
+  List<CoreLabel> lemmatize(String text) {
+    return lexicalizedParser.lemmatize(text);
+  }
+}
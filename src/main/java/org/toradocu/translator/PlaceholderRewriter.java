@@ -0,0 +1,245 @@
+package org.toradocu.translator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.toradocu.extractor.Comment;
+
+/**
+ * Replaces inequalities (and other patterns the Stanford parser does not handle well) in comments
+ * with placeholders. Written-out comparisons (e.g. "less than or equal to") are first normalized to
+ * their symbolic form in a single scan driven by a trie of the phrases; then every kind of pattern
+ * is matched once against the normalized text, and the text with placeholders is built in a final
+ * scan. Placeholders are numbered by kind of pattern and then by position, and a match overlapping
+ * the match of a previous kind is discarded. All the patterns are compiled once.
+ */
+final class PlaceholderRewriter {
+
+  /** Prefix of the placeholders, followed by the index of the replaced inequality. */
+  static final String PLACEHOLDER_PREFIX = " INEQUALITY_";
+
+  /** Verbs that must precede a placeholder; "is" is added before the placeholder otherwise. */
+  private static final String[] POSSIBLE_VERBS = {
+    "is", "is not", "isn't", "are", "are not", "aren't"
+  };
+
+  /** Written-out comparisons and their symbolic form. */
+  private static final String[][] COMPARISON_PHRASES = {
+    {"greater than or equal to", ">="},
+    {"greater or equal to", ">="},
+    {"≥", ">="},
+    {"less than or equal to", "<="},
+    {"lesser than or equal to", "<="},
+    {"lesser or equal to", "<="},
+    {"smaller than or equal to", "<="},
+    {"lower than or equal to", "<="},
+    {"≤", "<="},
+    {"greater than", ">"},
+    {"smaller than", "<"},
+    {"less than", "<"},
+    {"lesser than", "<"},
+    {"lower than", "<"},
+    {"equal to", "=="}
+  };
+
+  /** Trie of the written-out comparisons. */
+  private static final TrieNode COMPARISONS = new TrieNode();
+
+  static {
+    for (String[] phrase : COMPARISON_PHRASES) {
+      COMPARISONS.add(phrase[0], phrase[1]);
+    }
+  }
+
+  /** "[an] instance of", e.g. "an instance of". */
+  private static final Pattern INSTANCE_OF = Pattern.compile("(?<!has )(?<!have )an (instance of)");
+
+  /**
+   * The kinds of patterns, in the order in which they take precedence and in which their
+   * placeholders are numbered.
+   */
+  private enum Kind {
+    /** e.g. "instanceof BinaryMutation". */
+    INSTANCE_OF(" instanceof +[^ \\.]*", true, false),
+    /** e.g. "<object> is this.". */
+    THIS("(?<!of) this\\.", true, true),
+    /** A type variable, which is left in the text. */
+    GENERIC_TYPE(" *(<T>)", false, false),
+    /** A range, e.g. "0 <= x < 10", which is left in the text. */
+    RANGE_VAR(
+        " * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)", false, false),
+    /** A comparison with a number, e.g. "< 0". */
+    INEQUALITY_NUMBER(
+        " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)",
+        true,
+        true),
+    /** A comparison with null, e.g. "== null". */
+    INEQUALITY_NULL("([=]=?|!=) ?null", true, true),
+    /** A comparison with a variable, e.g. "> size". */
+    INEQUALITY_VAR(
+        " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?",
+        true,
+        true);
+
+    private final Pattern pattern;
+    /** Whether matches are replaced by placeholders, rather than left in the text. */
+    private final boolean replaced;
+    /** Whether a placeholder must be preceded by a verb. */
+    private final boolean needsVerb;
+
+    Kind(String regex, boolean replaced, boolean needsVerb) {
+      this.pattern = Pattern.compile(regex);
+      this.replaced = replaced;
+      this.needsVerb = needsVerb;
+    }
+  }
+
+  private PlaceholderRewriter() {}
+
+  /**
+   * Replaces inequalities (and other patterns the Stanford parser does not handle well) in the
+   * given comment with placeholders.
+   *
+   * @param comment the comment in which inequalities are replaced
+   * @param inequalities list where the replaced inequalities are added, in placeholder order
+   * @return the comment with placeholders
+   */
+  static Comment addPlaceholders(Comment comment, List<String> inequalities) {
+    final String text =
+        INSTANCE_OF.matcher(normalizeComparisons(comment.getText())).replaceAll(" instanceof");
+
+    // Matches of every kind, indexed by their start, that do not overlap matches of previous kinds.
+    final TreeMap<Integer, Match> matches = new TreeMap<>();
+    final List<Match> placeholders = new ArrayList<>();
+    for (Kind kind : Kind.values()) {
+      final Matcher matcher = kind.pattern.matcher(text);
+      while (matcher.find()) {
+        final Match match = new Match(kind, matcher.start(), matcher.end());
+        if (!overlaps(matches, match)) {
+          matches.put(match.start, match);
+          if (kind.replaced) {
+            placeholders.add(match);
+          }
+        }
+      }
+    }
+    for (Match match : placeholders) {
+      match.index = inequalities.size();
+      inequalities.add(text.substring(match.start, match.end));
+    }
+
+    final StringBuilder placeholderText = new StringBuilder(text.length());
+    int position = 0;
+    for (Match match : matches.values()) {
+      placeholderText.append(text, position, match.start);
+      if (match.kind.replaced) {
+        if (match.kind.needsVerb && !endsWithVerb(placeholderText)) {
+          // The verb is assumed to be "is" and is added to the text.
+          placeholderText.append(" is");
+        }
+        placeholderText.append(PLACEHOLDER_PREFIX).append(match.index);
+      } else {
+        placeholderText.append(text, match.start, match.end);
+      }
+      position = match.end;
+    }
+    placeholderText.append(text, position, text.length());
+    return new Comment(placeholderText.toString(), comment.getWordsMarkedAsCode());
+  }
+
+  /**
+   * Replaces the written-out comparisons in the given text with their symbolic form, preferring the
+   * longest phrase starting at a given position.
+   *
+   * @param text the text to normalize
+   * @return the text with symbolic comparisons
+   */
+  private static String normalizeComparisons(String text) {
+    final StringBuilder normalized = new StringBuilder(text.length());
+    int i = 0;
+    while (i < text.length()) {
+      TrieNode node = COMPARISONS;
+      TrieNode longest = null;
+      int longestEnd = i;
+      for (int j = i; j < text.length() && node != null; j++) {
+        node = node.children.get(text.charAt(j));
+        if (node != null && node.replacement != null) {
+          longest = node;
+          longestEnd = j + 1;
+        }
+      }
+      if (longest == null) {
+        normalized.append(text.charAt(i++));
+      } else {
+        normalized.append(longest.replacement);
+        i = longestEnd;
+      }
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Checks whether the given match overlaps any of the given matches.
+   *
+   * @param matches the matches, indexed by their start
+   * @param match the match to check
+   * @return true if {@code match} overlaps a match in {@code matches}
+   */
+  private static boolean overlaps(TreeMap<Integer, Match> matches, Match match) {
+    final Entry<Integer, Match> previous = matches.floorEntry(match.start);
+    final Entry<Integer, Match> next = matches.ceilingEntry(match.start);
+    return (previous != null && previous.getValue().end > match.start)
+        || (next != null && next.getKey() < match.end);
+  }
+
+  /**
+   * Checks whether the given text ends with one of the {@code POSSIBLE_VERBS}.
+   *
+   * @param text the text preceding a placeholder
+   * @return true if {@code text} ends with a verb
+   */
+  private static boolean endsWithVerb(CharSequence text) {
+    for (String verb : POSSIBLE_VERBS) {
+      final int start = text.length() - verb.length();
+      if (start >= 0 && verb.contentEquals(text.subSequence(start, text.length()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** A match of a kind of pattern in the normalized text. */
+  private static final class Match {
+    private final Kind kind;
+    private final int start;
+    private final int end;
+    /** Index of the placeholder replacing this match. */
+    private int index;
+
+    Match(Kind kind, int start, int end) {
+      this.kind = kind;
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  /** A node of a trie of phrases, mapping every phrase to its replacement. */
+  private static final class TrieNode {
+    private final Map<Character, TrieNode> children = new HashMap<>();
+    /** The replacement of the phrase ending at this node, null if no phrase ends here. */
+    private String replacement;
+
+    void add(String phrase, String replacement) {
+      TrieNode node = this;
+      for (char c : phrase.toCharArray()) {
+        node = node.children.computeIfAbsent(c, k -> new TrieNode());
+      }
+      node.replacement = replacement;
+    }
+  }
+}
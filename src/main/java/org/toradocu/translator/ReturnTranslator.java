@@ -1,7 +1,6 @@
 package org.toradocu.translator;
 
 import static java.util.stream.Collectors.toList;
-import static org.toradocu.util.ComplianceChecks.isPostSpecCompilable;
 
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
@@ -15,11 +14,13 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ReturnTag;
+import org.toradocu.util.CompilationBatch;
 import org.toradocu.util.Reflection;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.PostSpecification;
@@ -27,25 +28,61 @@ import randoop.condition.specification.Property;
 
 public class ReturnTranslator {
 
+  /** The context of the translation. */
+  private final TranslationContext context;
+
+  public ReturnTranslator(TranslationContext context) {
+    this.context = context;
+  }
+
   public List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
+    final CompilationBatch batch = new CompilationBatch(context);
+    final Supplier<List<PostSpecification>> specifications = translate(tag, excMember, batch);
+    batch.compile();
+    return specifications.get();
+  }
+
+  /**
+   * Translates the given tag, adding the candidate specifications to the given batch. The returned
+   * supplier must be invoked only after the batch has been compiled.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param batch the batch checking whether the candidate specifications are compilable
+   * @return the supplier of the compilable specifications
+   */
+  Supplier<List<PostSpecification>> translate(
+      ReturnTag tag, DocumentedExecutable excMember, CompilationBatch batch) {
     String commentText = tag.getComment().getText();
     // Manage translation of each sub-sentence linked by the Or conjunction separately
     String[] subSentences = manageOrConjunction(commentText);
-    List<List<PostSpecification>> conditions = new ArrayList<>();
+    List<List<Candidate>> candidates = new ArrayList<>();
 
     for (String subSentence : subSentences) {
       // Split the sentence in three parts: predicate + true case + false case.
       // TODO Naive splitting. Make the split more reliable.
       final int predicateSplitPoint = subSentence.indexOf(" if ");
       if (predicateSplitPoint != -1) {
-        conditions.add(
-            returnStandardPattern(excMember, subSentence, tag.getComment(), predicateSplitPoint));
+        candidates.add(
+            returnStandardPattern(
+                excMember, subSentence, tag.getComment(), predicateSplitPoint, batch));
       } else {
-        conditions.add(returnNotStandard(excMember, subSentence));
+        candidates.add(returnNotStandard(excMember, subSentence, batch));
       }
     }
 
-    return mergeOrConjunction(commentText, subSentences, conditions);
+    return () -> {
+      List<List<PostSpecification>> conditions = new ArrayList<>();
+      for (List<Candidate> subSentenceCandidates : candidates) {
+        conditions.add(
+            subSentenceCandidates
+                .stream()
+                .filter(c -> batch.isCompilable(c.id))
+                .map(c -> c.specification)
+                .collect(toList()));
+      }
+      return mergeOrConjunction(commentText, subSentences, conditions);
+    };
   }
 
   /**
@@ -124,20 +161,20 @@ public class ReturnTranslator {
    * @param matcherOp matcher in which an operation was found
    * @return the translation if any, or an empty String
    */
-  private static String manageArgsOperation(
+  private String manageArgsOperation(
       DocumentedExecutable method, java.util.regex.Matcher matcherOp) {
     String firstFactor = matcherOp.group(1);
     String secFactor = matcherOp.group(3);
     String op = matcherOp.group(2);
 
     CodeElement<?> first = null;
-    Set<CodeElement<?>> subject = new Matcher().subjectMatch(firstFactor, method);
+    Set<CodeElement<?>> subject = new Matcher(context).subjectMatch(firstFactor, method);
     if (!subject.isEmpty()) {
       first = subject.stream().findFirst().get();
     }
     if (first != null) {
       CodeElement<?> second = null;
-      subject = new Matcher().subjectMatch(secFactor, method);
+      subject = new Matcher(context).subjectMatch(secFactor, method);
       if (!subject.isEmpty()) {
         second = subject.stream().findFirst().get();
       }
@@ -170,7 +207,7 @@ public class ReturnTranslator {
    * @param method the method to which the @return tag belongs to
    * @return the translation of the given {@code text}
    */
-  private static String translateLastPart(String text, DocumentedExecutable method) {
+  private String translateLastPart(String text, DocumentedExecutable method) {
     final String lowerCaseText = text.toLowerCase();
     if (lowerCaseText.contains("true")) {
       return Configuration.RETURN_VALUE + " == true";
@@ -208,7 +245,7 @@ public class ReturnTranslator {
                   translation.substring(translation.indexOf("{") + 1, translation.indexOf("}"));
 
               Set<CodeElement<?>> argMatches;
-              argMatches = new Matcher().subjectMatch(argument, method);
+              argMatches = new Matcher(context).subjectMatch(argument, method);
               if (argMatches.isEmpty()) {
                 //            ConditionTranslator.log.trace("Failed predicate translation for: " + p
                 // + " due to variable not found.");
@@ -240,7 +277,7 @@ public class ReturnTranslator {
    * @param comment the comment text
    * @return the translation of the given {@code text}
    */
-  private static String translateSecondPart(
+  private String translateSecondPart(
       String trueCase, DocumentedExecutable method, Comment comment) {
     // Identify propositions in the comment. Each sentence in the comment is parsed into a
     // PropositionSeries.
@@ -250,7 +287,7 @@ public class ReturnTranslator {
         Parser.parse(new Comment(trueCase, comment.getWordsMarkedAsCode()), method);
     Set<String> conditions = new LinkedHashSet<>();
     for (PropositionSeries propositions : extractedPropositions) {
-      BasicTranslator.translate(propositions, method, comment.getText());
+      BasicTranslator.translate(propositions, method, comment.getText(), context);
       conditions.add(propositions.getTranslation());
     }
     return BasicTranslator.mergeConditions(conditions);
@@ -270,7 +307,7 @@ public class ReturnTranslator {
    * @return the translation of the given {@code text}
    * @throws IllegalArgumentException if the given {@code text} cannot be translated
    */
-  private static String translateFirstPart(String predicate, DocumentedExecutable method) {
+  private String translateFirstPart(String predicate, DocumentedExecutable method) {
     String parsedComment = predicate.trim().toLowerCase().replace(",", "");
     String translation;
     switch (parsedComment) {
@@ -315,14 +352,16 @@ public class ReturnTranslator {
    * @param textToTranslate the String text to translate
    * @param comment original {@code Comment}
    * @param predicateSplitPoint index of the "if"
-   * @return the translation produced
+   * @param batch the batch checking whether the candidate specifications are compilable
+   * @return the candidate specifications produced
    */
-  private static List<PostSpecification> returnStandardPattern(
+  private List<Candidate> returnStandardPattern(
       DocumentedExecutable method,
       String textToTranslate,
       Comment comment,
-      int predicateSplitPoint) {
-    List<PostSpecification> specs = new ArrayList<>();
+      int predicateSplitPoint,
+      CompilationBatch batch) {
+    List<Candidate> specs = new ArrayList<>();
 
     if (textToTranslate.contains(";")) {
       textToTranslate = textToTranslate.replace(";", ",");
@@ -351,17 +390,19 @@ public class ReturnTranslator {
         if (!conditionTranslation.isEmpty() && !predicateTranslation.isEmpty()) {
           Guard trueGuard = new Guard(textToTranslate, conditionTranslation);
           Property trueProperty = new Property(textToTranslate, predicateTranslation);
-          if (isPostSpecCompilable(method, trueGuard, trueProperty)) {
-            specs.add(new PostSpecification(textToTranslate, trueGuard, trueProperty));
-          }
+          specs.add(
+              new Candidate(
+                  new PostSpecification(textToTranslate, trueGuard, trueProperty),
+                  batch.addPostSpecification(method, trueGuard, trueProperty)));
           String elsePredicate = translateLastPart(falseCase, method);
           if (elsePredicate != null) {
             String invertedGuard = "(" + conditionTranslation + ")==false";
             Guard falseGuard = new Guard(textToTranslate, invertedGuard);
             Property falseProperty = new Property(textToTranslate, elsePredicate);
-            if (isPostSpecCompilable(method, falseGuard, falseProperty)) {
-              specs.add(new PostSpecification(textToTranslate, falseGuard, falseProperty));
-            }
+            specs.add(
+                new Candidate(
+                    new PostSpecification(textToTranslate, falseGuard, falseProperty),
+                    batch.addPostSpecification(method, falseGuard, falseProperty)));
           }
         }
       }
@@ -380,11 +421,12 @@ public class ReturnTranslator {
    *
    * @param method the DocumentedExecutable the tag belongs to
    * @param comment the String comment belonging to the tag
-   * @return a String translation if any, or an empty string
+   * @param batch the batch checking whether the candidate specifications are compilable
+   * @return the candidate specifications produced
    */
-  private static List<PostSpecification> returnNotStandard(
-      DocumentedExecutable method, String comment) {
-    List<PostSpecification> specs = new ArrayList<>();
+  private List<Candidate> returnNotStandard(
+      DocumentedExecutable method, String comment, CompilationBatch batch) {
+    List<Candidate> specs = new ArrayList<>();
 
     String translation = null;
     final String[] truePatterns = {"true", "true always", "true, always", "always true"};
@@ -458,8 +500,11 @@ public class ReturnTranslator {
         }
       }
     }
-    if (property != null && isPostSpecCompilable(method, guard, property)) {
-      specs.add(new PostSpecification(comment, guard, property));
+    if (property != null) {
+      specs.add(
+          new Candidate(
+              new PostSpecification(comment, guard, property),
+              batch.addPostSpecification(method, guard, property)));
     }
     return specs;
   }
@@ -472,11 +517,11 @@ public class ReturnTranslator {
    * @param method the method to which the condition is referred
    * @return the translation with the right substitution if any, null otherwise
    */
-  private static String extractVariablesFound(String translation, DocumentedExecutable method) {
+  private String extractVariablesFound(String translation, DocumentedExecutable method) {
     String argument = translation.substring(translation.indexOf("{") + 1, translation.indexOf("}"));
 
     Set<CodeElement<?>> argMatches;
-    argMatches = new Matcher().subjectMatch(argument, method);
+    argMatches = new Matcher(context).subjectMatch(argument, method);
     if (argMatches.isEmpty()) {
       //            ConditionTranslator.log.trace("Failed predicate translation for: " + p + " due
       // to variable not found.");
@@ -508,7 +553,7 @@ public class ReturnTranslator {
    * @param comment the comment text
    * @return a String predicate match if any, or null
    */
-  private static String tryPredicateMatch(
+  private String tryPredicateMatch(
       DocumentedExecutable method,
       List<SemanticGraph> semanticGraphs,
       List<PropositionSeries> extractedPropositions,
@@ -521,7 +566,7 @@ public class ReturnTranslator {
         for (PropositionSeries prop : extractedPropositions) {
           for (Proposition p : prop.getPropositions()) {
             predicateMatch =
-                new Matcher()
+                new Matcher(context)
                     .predicateMatch(
                         method,
                         new GeneralCodeElement(Configuration.RETURN_VALUE, null),
@@ -545,7 +590,7 @@ public class ReturnTranslator {
    * @param text the comment text
    * @return a String translation if any, null otherwise
    */
-  private static String tryCodeElementMatch(DocumentedExecutable method, String text) {
+  private String tryCodeElementMatch(DocumentedExecutable method, String text) {
     final List<PropositionSeries> extractedPropositions = Parser.parse(new Comment(text), method);
     final List<SemanticGraph> semanticGraphs =
         extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
@@ -624,7 +669,7 @@ public class ReturnTranslator {
    * @param semanticGraphs list of {@code SemanticGraph} related to the comment
    * @return a code element if any, or null
    */
-  private static CodeElement<?> findCodeElement(
+  private CodeElement<?> findCodeElement(
       DocumentedExecutable method, List<SemanticGraph> semanticGraphs) {
     // Try a match looking at the semantic graph.
     CodeElement<?> codeElementMatch = null;
@@ -643,10 +688,23 @@ public class ReturnTranslator {
       for (IndexedWord n : nouns) {
         for (IndexedWord a : adj) wordToMatch += a.word();
         wordToMatch += n.word();
-        Set<CodeElement<?>> subject = new Matcher().subjectMatch(wordToMatch, method);
+        Set<CodeElement<?>> subject = new Matcher(context).subjectMatch(wordToMatch, method);
         if (!subject.isEmpty()) codeElementMatch = subject.stream().findFirst().get();
       }
     }
     return codeElementMatch;
   }
+
+  /** A candidate specification whose compilability is checked by a {@code CompilationBatch}. */
+  private static final class Candidate {
+    /** The candidate specification. */
+    final PostSpecification specification;
+    /** The identifier of the candidate in the batch. */
+    final int id;
+
+    Candidate(PostSpecification specification, int id) {
+      this.specification = specification;
+      this.id = id;
+    }
+  }
 }
@@ -3,39 +3,75 @@ package org.toradocu.translator;
 import edu.stanford.nlp.ling.CoreLabel;
 import edu.stanford.nlp.ling.HasWord;
 import edu.stanford.nlp.ling.TaggedWord;
-import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
 import edu.stanford.nlp.process.DocumentPreprocessor;
 import edu.stanford.nlp.semgraph.SemanticGraph;
-import edu.stanford.nlp.trees.GrammaticalStructure;
-import edu.stanford.nlp.trees.GrammaticalStructureFactory;
-import edu.stanford.nlp.trees.Tree;
-import edu.stanford.nlp.trees.TreebankLanguagePack;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.BoundedCache;
 
 /**
  * This class provides a method to get the semantic graph of a sentence produced by the Stanford
- * parser. To optimize execution time, the Stanford parser is initialized once in the static block
- * to ensure that its initialization phase is done only once.
+ * parser selected with the option {@code --parser}: the PCFG parser or the neural dependency
+ * parser. To optimize execution time, the parser is initialized once in the static block to ensure
+ * that its initialization phase is done only once.
  */
 public class StanfordParser {
 
-  private static final LexicalizedParser LEXICALIZED_PARSER;
-  private static final GrammaticalStructureFactory GSF;
-  private static final Logger log = LoggerFactory.getLogger(StanfordParser.class);
+  /** The parser selected by the configuration. */
+  private static final ParserBackend BACKEND;
+  /**
+   * The semantic graphs of the sentences parsed in this run, indexed by the words and POS tags of
+   * the sentences. A sentence occurring in the comments of different methods (with the same words
+   * tagged as code elements, parameters, and placeholders) is parsed once, and its graph is shared
+   * read-only by all the comments containing it.
+   */
+  private static final BoundedCache<String, SemanticGraph> sentenceGraphs =
+      new BoundedCache<>(
+          "Sentence graph cache", Configuration.DEFAULT_PARSE_GRAPH_CACHE_SIZE, graph -> 1);
 
   static {
-    LEXICALIZED_PARSER = LexicalizedParser.loadModel();
-    // tlp is the PennTreebankLanguagePack for English.
-    TreebankLanguagePack tlp = LEXICALIZED_PARSER.treebankLanguagePack();
-    if (!tlp.supportsGrammaticalStructures()) {
-      throw new RuntimeException(
-          "Error in the Stanford Parser configuration. Are models available?");
+    switch (Configuration.INSTANCE.getParser()) {
+      case NNDEP:
+        BACKEND = new NndepParserBackend();
+        break;
+      default:
+        BACKEND = Pcfg.PARSER;
     }
-    GSF = tlp.grammaticalStructureFactory();
+  }
+
+  /** Holder of the PCFG parser, which is loaded only when used. */
+  private static final class Pcfg {
+    private static final PcfgParserBackend PARSER = new PcfgParserBackend();
+  }
+
+  /**
+   * Returns a description of the work done by the parser, e.g., the hit rate of the parse cache.
+   *
+   * @return a description of the work done by the parser
+   */
+  public static String getParserStatistics() {
+    return BACKEND.getStatistics();
+  }
+
+  /**
+   * Returns a description of the hit rate and of the evictions of the sentence graph cache.
+   *
+   * @return a description of the hit rate and of the evictions of the sentence graph cache
+   */
+  public static String getSentenceGraphCacheStatistics() {
+    return sentenceGraphs.getStatistics();
+  }
+
+  /**
+   * Sets the maximum number of semantic graphs kept in memory by the sentence graph cache, evicting
+   * the least recently used graphs if the cache shrinks.
+   *
+   * @param size the maximum number of semantic graphs kept in memory by the cache
+   */
+  static void setSentenceGraphCacheSize(int size) {
+    sentenceGraphs.setMaxWeight(size);
   }
 
   static List<List<HasWord>> tokenize(String comment) {
@@ -48,20 +84,27 @@ public class StanfordParser {
   /**
    * Parses the given {@code words} producing a SemanticGraph. Before asking the Stanford Parser to
    * produce the semantic graph, this method (POS-)tags code elements as NN and inequalities
-   * placeholders as JJ.
+   * placeholders as JJ. The graphs of sentences already parsed in this run are taken from the
+   * sentence graph cache. The returned graph may be shared with other callers parsing the same
+   * words, and must not be modified.
    *
    * @param words words that compose a sentence
-   * @return the semantic graph of the input sentence produced by the Stanford Parser
+   * @return the semantic graph of the input sentence produced by the selected parser
+   * @throws ParseBudgetExceededException if the sentence is not parsed because it exceeds a limit
+   *     of the {@code ParseBudget}
    */
   public static SemanticGraph parse(List<TaggedWord> words) {
-    // Parse the sentence.
-    Tree tree = LEXICALIZED_PARSER.parse(words);
-    GrammaticalStructure gs = GSF.newGrammaticalStructure(tree);
-    // Build the semantic graph.
-    return new SemanticGraph(gs.typedDependenciesCCprocessed());
+    final String sentence = ParseCache.key(words);
+    SemanticGraph graph = sentenceGraphs.get(sentence);
+    if (graph != null) {
+      return graph;
+    }
+    graph = ParseBudget.parse(sentence, words, BACKEND::parse);
+    sentenceGraphs.put(sentence, graph);
+    return graph;
   }
 
   public static List<CoreLabel> lemmatize(String text) {
-    return LEXICALIZED_PARSER.lemmatize(text);
+    return Pcfg.PARSER.lemmatize(text);
   }
 }
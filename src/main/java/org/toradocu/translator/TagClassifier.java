@@ -0,0 +1,145 @@
+package org.toradocu.translator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.ParamTag;
+import org.toradocu.extractor.ThrowsTag;
+
+/**
+ * Identifies, by looking only at their words, the tags whose comment cannot be translated into a
+ * specification, so that they are not preprocessed, parsed, and matched at all. A comment can be
+ * translated only if it contains a word a condition can come from: a word marked as code, the name
+ * of a parameter, a code-like word (e.g. "maxSize" or "MAX_SIZE"), a number, a comparison operator,
+ * or one of the {@code KEYWORDS} (e.g. "null" or "negative"). Comments made only of prose, such as
+ * "the name of the file", are untranslatable.
+ */
+public final class TagClassifier {
+
+  /** Words introducing conditions that a specification can be produced from. */
+  private static final Set<String> KEYWORDS =
+      new HashSet<>(
+          Arrays.asList(
+              ("null nulls empty true false negative positive zero zeros nonnegative non-negative"
+                      + " nonpositive non-positive greater less lesser smaller larger lower higher"
+                      + " bigger equal equals between range bound bounds instance instanceof always"
+                      + " never size length odd even infinite infinity nan finite this same"
+                      + " identical valid invalid maximum minimum max min exceeds exceed exceeded"
+                      + " within outside contains contain index before after")
+                  .split(" ")));
+
+  /** Numbers and the symbols of comparisons. */
+  private static final Pattern SYMBOLS = Pattern.compile("[<>=!0-9]");
+  /** The words of a comment. */
+  private static final Pattern WORD = Pattern.compile("[A-Za-z_][A-Za-z0-9_-]*");
+  /** Words that look like code: camel case words, words with underscores, and constants. */
+  private static final Pattern CODE_LIKE_WORD = Pattern.compile("[a-z][A-Z]|_|^[A-Z]{2,}$");
+
+  /** Number of classified tags. */
+  private static final AtomicLong classifiedTags = new AtomicLong();
+  /** Number of tags classified as untranslatable. */
+  private static final AtomicLong untranslatableTags = new AtomicLong();
+
+  private TagClassifier() {}
+
+  /**
+   * Returns a description of how many tags have been classified as untranslatable.
+   *
+   * @return a description of how many tags have been classified as untranslatable
+   */
+  public static String getStatistics() {
+    final long classified = classifiedTags.get();
+    final long untranslatable = untranslatableTags.get();
+    return String.format(
+        "Tag classifier: %d tags out of %d skipped as untranslatable (%.1f%%)",
+        untranslatable, classified, classified == 0 ? 0.0 : 100.0 * untranslatable / classified);
+  }
+
+  /**
+   * Returns the tags of the given executable members whose comment cannot be translated.
+   *
+   * @param members the executable members whose tags are classified
+   * @return the untranslatable tags of {@code members}, compared by identity (as equal tags of
+   *     different members may be classified differently)
+   */
+  static Set<BlockTag> untranslatableTags(List<DocumentedExecutable> members) {
+    final Set<BlockTag> untranslatable = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (DocumentedExecutable member : members) {
+      final Set<String> parameterNames = new HashSet<>();
+      for (DocumentedParameter parameter : member.getParameters()) {
+        parameterNames.add(parameter.getName());
+      }
+      for (ParamTag paramTag : member.paramTags()) {
+        classify(paramTag, parameterNames, untranslatable);
+      }
+      for (ThrowsTag throwsTag : member.throwsTags()) {
+        classify(throwsTag, parameterNames, untranslatable);
+      }
+      if (member.returnTag() != null) {
+        classify(member.returnTag(), parameterNames, untranslatable);
+      }
+    }
+    return untranslatable;
+  }
+
+  /**
+   * Adds the given tag to the given set if its comment cannot be translated.
+   *
+   * @param tag the tag to classify
+   * @param parameterNames the names of the parameters of the member commented with {@code tag}
+   * @param untranslatable the set of untranslatable tags
+   */
+  private static void classify(
+      BlockTag tag, Set<String> parameterNames, Set<BlockTag> untranslatable) {
+    classifiedTags.incrementAndGet();
+    if (!isTranslatable(tag, parameterNames)) {
+      untranslatableTags.incrementAndGet();
+      untranslatable.add(tag);
+    }
+  }
+
+  /**
+   * Checks whether the comment of the given tag contains a word a condition can come from.
+   *
+   * @param tag the tag to classify
+   * @param parameterNames the names of the parameters of the member commented with {@code tag}
+   * @return true if the comment of {@code tag} may be translated into a specification
+   */
+  private static boolean isTranslatable(BlockTag tag, Set<String> parameterNames) {
+    return !tag.getComment().getWordsMarkedAsCode().isEmpty()
+        || hasConditionWords(tag.getComment().getText(), parameterNames);
+  }
+
+  /**
+   * Checks whether the given text contains a word a condition can come from: the name of a
+   * parameter, a code-like word, a number, a comparison operator, or a keyword.
+   *
+   * @param text the text to check
+   * @param parameterNames the names of the parameters that can be mentioned in {@code text}
+   * @return true if {@code text} contains a word a condition can come from
+   */
+  static boolean hasConditionWords(String text, Set<String> parameterNames) {
+    if (SYMBOLS.matcher(text).find()) {
+      return true;
+    }
+    final Matcher words = WORD.matcher(text);
+    while (words.find()) {
+      final String word = words.group();
+      if (parameterNames.contains(word)
+          || KEYWORDS.contains(word.toLowerCase())
+          || CODE_LIKE_WORD.matcher(word).find()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -1,29 +1,66 @@
 package org.toradocu.translator;
 
-import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
-
+import java.util.function.Supplier;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.util.CompilationBatch;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.ThrowsSpecification;
 
 public class ThrowsTranslator {
 
+  /** The context of the translation. */
+  private final TranslationContext context;
+
+  public ThrowsTranslator(TranslationContext context) {
+    this.context = context;
+  }
+
   public ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
+    final CompilationBatch batch = new CompilationBatch(context);
+    final Supplier<ThrowsSpecification> specification =
+        translate(
+            tag, excMember, BasicTranslator.templateCondition(tag, excMember, context), batch);
+    batch.compile();
+    return specification.get();
+  }
+
+  /**
+   * Translates the given tag, adding the candidate specification to the given batch. The returned
+   * supplier must be invoked only after the batch has been compiled.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param templateCondition the condition produced by the {@code CommentTemplates} for the comment
+   *     of {@code tag}, null if the comment has to be parsed
+   * @param batch the batch checking whether the candidate specification is compilable
+   * @return the supplier of the specification (an empty specification if the translation fails)
+   */
+  Supplier<ThrowsSpecification> translate(
+      ThrowsTag tag,
+      DocumentedExecutable excMember,
+      String templateCondition,
+      CompilationBatch batch) {
     final String commentTranslation =
         alwaysThrowException(tag.getComment().getText())
             ? "true"
-            : BasicTranslator.translate(tag, excMember);
+            : BasicTranslator.translate(tag, excMember, templateCondition, context);
 
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
     final String exceptionName = tag.getException().getName();
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new ThrowsSpecification(
-          tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
+    final ThrowsSpecification emptySpecification =
+        new ThrowsSpecification(
+            tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
+
+    if (commentTranslation.isEmpty()) {
+      return () -> emptySpecification;
     }
 
-    return new ThrowsSpecification(tag.toString(), guard, exceptionName);
+    final ThrowsSpecification specification =
+        new ThrowsSpecification(tag.toString(), guard, exceptionName);
+    final int candidate = batch.addSpecification(excMember, guard);
+    return () -> batch.isCompilable(candidate) ? specification : emptySpecification;
   }
 
   /**
@@ -0,0 +1,282 @@
+package org.toradocu.translator;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.toradocu.conf.Configuration;
+
+/**
+ * Holds the settings of a translation (e.g., the edit distance threshold used by the {@code
+ * Matcher} and the class path used to compile generated specifications). A context is created once
+ * per translation and passed to every component of the condition translator, so that translations
+ * with different settings can run concurrently in the same JVM without reading the global {@code
+ * Configuration}. Objects of this class are immutable.
+ */
+public class TranslationContext {
+
+  /** Edit distance threshold above which code elements are considered not matching. */
+  private final int distanceThreshold;
+  /** Cost of a single word deletion in the edit distance algorithm. */
+  private final int wordRemovalCost;
+  /** Whether the semantic matcher is used when the syntactic match fails. */
+  private final boolean semanticMatcherEnabled;
+  /** Binaries of the classes under analysis and their dependencies. */
+  private final List<URL> classDirs;
+  /** Directory containing the source files of the classes under analysis. */
+  private final Path sourceDir;
+  /** Number of threads translating the comments of different methods. */
+  private final int threads;
+  /** File where the distances computed by the semantic matcher are appended, null if disabled. */
+  private final Path semanticTraceFile;
+  /** Directory where the verdicts of the compliance checks are persisted, null if disabled. */
+  private final Path compileCacheDir;
+  /** Whether the tags classified as untranslatable by the {@code TagClassifier} are skipped. */
+  private final boolean tagClassifierEnabled;
+  /** Whether the comments matching the {@code CommentTemplates} are translated without parsing. */
+  private final boolean commentTemplatesEnabled;
+  /** Maximum number of semantic graphs kept in memory by each cache of parsed text. */
+  private final int parseGraphCacheSize;
+  /** Maximum number of tokens of a sentence to parse, 0 if there is no limit. */
+  private final int parseMaxTokens;
+  /** Maximum time in milliseconds spent parsing a sentence, 0 if there is no limit. */
+  private final long parseTimeout;
+  /** Maximum time in milliseconds spent parsing the sentences of a tag, 0 if there is no limit. */
+  private final long tagParseDeadline;
+
+  /**
+   * Creates a new translation context with the given settings.
+   *
+   * @param distanceThreshold edit distance threshold above which code elements are considered not
+   *     matching
+   * @param wordRemovalCost cost of a single word deletion in the edit distance algorithm
+   * @param semanticMatcherEnabled whether the semantic matcher is used when the syntactic match
+   *     fails
+   * @param classDirs binaries of the classes under analysis and their dependencies
+   * @param sourceDir directory containing the source files of the classes under analysis
+   * @param threads number of threads translating the comments of different methods
+   * @param semanticTraceFile file where the distances computed by the semantic matcher are
+   *     appended, null to not trace them
+   * @param compileCacheDir directory where the verdicts of the compliance checks are persisted
+   *     across runs, null to keep them only in memory
+   * @param tagClassifierEnabled whether the tags classified as untranslatable by the {@code
+   *     TagClassifier} are skipped
+   * @param commentTemplatesEnabled whether the comments matching the {@code CommentTemplates} are
+   *     translated without parsing them
+   * @param parseGraphCacheSize maximum number of semantic graphs kept in memory by each cache of
+   *     parsed text
+   * @param parseMaxTokens maximum number of tokens of a sentence to parse, 0 for no limit
+   * @param parseTimeout maximum time in milliseconds spent parsing a sentence, 0 for no limit
+   * @param tagParseDeadline maximum time in milliseconds spent parsing the sentences of a tag
+   *     comment, 0 for no limit
+   */
+  public TranslationContext(
+      int distanceThreshold,
+      int wordRemovalCost,
+      boolean semanticMatcherEnabled,
+      List<URL> classDirs,
+      Path sourceDir,
+      int threads,
+      Path semanticTraceFile,
+      Path compileCacheDir,
+      boolean tagClassifierEnabled,
+      boolean commentTemplatesEnabled,
+      int parseGraphCacheSize,
+      int parseMaxTokens,
+      long parseTimeout,
+      long tagParseDeadline) {
+    this.distanceThreshold = distanceThreshold;
+    this.wordRemovalCost = wordRemovalCost;
+    this.semanticMatcherEnabled = semanticMatcherEnabled;
+    this.classDirs =
+        classDirs == null
+            ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(classDirs));
+    this.sourceDir = sourceDir;
+    this.threads = threads;
+    this.semanticTraceFile = semanticTraceFile;
+    this.compileCacheDir = compileCacheDir;
+    this.tagClassifierEnabled = tagClassifierEnabled;
+    this.commentTemplatesEnabled = commentTemplatesEnabled;
+    this.parseGraphCacheSize = parseGraphCacheSize;
+    this.parseMaxTokens = parseMaxTokens;
+    this.parseTimeout = parseTimeout;
+    this.tagParseDeadline = tagParseDeadline;
+  }
+
+  /**
+   * Creates a new translation context with the settings currently held by the given configuration.
+   *
+   * @param configuration the configuration the settings are read from
+   * @return a new translation context with the settings of {@code configuration}
+   */
+  public static TranslationContext fromConfiguration(Configuration configuration) {
+    return fromConfiguration(configuration, configuration.sourceDir);
+  }
+
+  /**
+   * Creates a new translation context with the settings currently held by the given configuration,
+   * except for the directory containing the source files of the classes under analysis.
+   *
+   * @param configuration the configuration the settings are read from
+   * @param sourceDir directory containing the source files of the classes under analysis
+   * @return a new translation context with the settings of {@code configuration} and {@code
+   *     sourceDir}
+   */
+  public static TranslationContext fromConfiguration(Configuration configuration, Path sourceDir) {
+    return new TranslationContext(
+        configuration.getDistanceThreshold(),
+        configuration.getWordRemovalCost(),
+        configuration.isSemanticMatcherEnabled(),
+        configuration.classDirs,
+        sourceDir,
+        configuration.getThreads(),
+        configuration.getSemanticTraceFile() == null
+            ? null
+            : configuration.getSemanticTraceFile().toPath(),
+        configuration.getCompileCacheDir() == null
+            ? null
+            : configuration.getCompileCacheDir().toPath(),
+        configuration.isTagClassifierEnabled(),
+        configuration.isCommentTemplatesEnabled(),
+        configuration.getParseGraphCacheSize(),
+        configuration.getParseMaxTokens(),
+        configuration.getParseTimeout(),
+        configuration.getTagParseDeadline());
+  }
+
+  /**
+   * Returns the edit distance threshold above which code elements are considered not matching.
+   *
+   * @return the edit distance threshold above which code elements are considered not matching
+   */
+  public int getDistanceThreshold() {
+    return distanceThreshold;
+  }
+
+  /**
+   * Returns the cost of a single word deletion in the edit distance algorithm.
+   *
+   * @return the cost of a single word deletion in the edit distance algorithm
+   */
+  public int getWordRemovalCost() {
+    return wordRemovalCost;
+  }
+
+  /**
+   * Returns true if the semantic matcher is used when the syntactic match fails.
+   *
+   * @return true if the semantic matcher is used when the syntactic match fails
+   */
+  public boolean isSemanticMatcherEnabled() {
+    return semanticMatcherEnabled;
+  }
+
+  /**
+   * Returns the binaries of the classes under analysis and their dependencies.
+   *
+   * @return the binaries of the classes under analysis and their dependencies
+   */
+  public List<URL> getClassDirs() {
+    return classDirs;
+  }
+
+  /**
+   * Returns the directory containing the source files of the classes under analysis.
+   *
+   * @return the directory containing the source files of the classes under analysis
+   */
+  public Path getSourceDir() {
+    return sourceDir;
+  }
+
+  /**
+   * Returns the number of threads translating the comments of different methods.
+   *
+   * @return the number of threads translating the comments of different methods
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Returns the file where the distances computed by the semantic matcher are appended, or null if
+   * the distances are not traced.
+   *
+   * @return the file where the distances computed by the semantic matcher are appended, or null if
+   *     the distances are not traced
+   */
+  public Path getSemanticTraceFile() {
+    return semanticTraceFile;
+  }
+
+  /**
+   * Returns the directory where the verdicts of the compliance checks are persisted across runs, or
+   * null if the verdicts are kept only in memory.
+   *
+   * @return the directory where the verdicts of the compliance checks are persisted, or null if the
+   *     verdicts are kept only in memory
+   */
+  public Path getCompileCacheDir() {
+    return compileCacheDir;
+  }
+
+  /**
+   * Returns true if the tags classified as untranslatable by the {@code TagClassifier} are skipped.
+   *
+   * @return true if the tags classified as untranslatable by the {@code TagClassifier} are skipped
+   */
+  public boolean isTagClassifierEnabled() {
+    return tagClassifierEnabled;
+  }
+
+  /**
+   * Returns true if the comments matching the {@code CommentTemplates} are translated without
+   * parsing them.
+   *
+   * @return true if the comments matching the {@code CommentTemplates} are translated without
+   *     parsing them
+   */
+  public boolean isCommentTemplatesEnabled() {
+    return commentTemplatesEnabled;
+  }
+
+  /**
+   * Returns the maximum number of semantic graphs kept in memory by each cache of parsed text.
+   *
+   * @return the maximum number of semantic graphs kept in memory by each cache of parsed text
+   */
+  public int getParseGraphCacheSize() {
+    return parseGraphCacheSize;
+  }
+
+  /**
+   * Returns the maximum number of tokens of a sentence to parse, 0 if there is no limit.
+   *
+   * @return the maximum number of tokens of a sentence to parse, 0 if there is no limit
+   */
+  public int getParseMaxTokens() {
+    return parseMaxTokens;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds spent parsing a sentence, 0 if there is no limit.
+   *
+   * @return the maximum time in milliseconds spent parsing a sentence, 0 if there is no limit
+   */
+  public long getParseTimeout() {
+    return parseTimeout;
+  }
+
+  /**
+   * Returns the maximum time in milliseconds spent parsing the sentences of a tag comment, 0 if
+   * there is no limit.
+   *
+   * @return the maximum time in milliseconds spent parsing the sentences of a tag comment, 0 if
+   *     there is no limit
+   */
+  public long getTagParseDeadline() {
+    return tagParseDeadline;
+  }
+}
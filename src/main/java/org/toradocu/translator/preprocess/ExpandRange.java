@@ -33,11 +33,13 @@ public class ExpandRange implements PreprocessingPhase {
           + inOutGroup
           + " the ([\\w\\s]+)?(interval|range) (of )?\\[([0-9]+) ?,? ?([0-9]+)\\]";
 
+  private static final Pattern SQUARE_BRACKETS_RANGE_PATTERN =
+      Pattern.compile(SQUARE_BRACKETS_RANGE);
+
   @Override
   public String run(BlockTag tag, DocumentedExecutable excMember) {
     String comment = tag.getComment().getText();
-    java.util.regex.Matcher squareBracketsRange =
-        Pattern.compile(SQUARE_BRACKETS_RANGE).matcher(comment);
+    java.util.regex.Matcher squareBracketsRange = SQUARE_BRACKETS_RANGE_PATTERN.matcher(comment);
 
     while (squareBracketsRange.find()) {
       int min = Integer.valueOf(squareBracketsRange.group(7));
@@ -48,10 +50,12 @@ public class ExpandRange implements PreprocessingPhase {
       boolean outsideRange = outRangeWords.contains(insideOrOutside);
       if (!negation && insideRange || negation && outsideRange) {
         // covers "inside/in range" and "not out/outside range"
-        comment = comment.replaceFirst(SQUARE_BRACKETS_RANGE, ">" + min + " and <" + max);
+        comment =
+            SQUARE_BRACKETS_RANGE_PATTERN.matcher(comment).replaceFirst(">" + min + " and <" + max);
       } else {
         // covers "not in/inside range" and "out/outside range"
-        comment = comment.replaceFirst(SQUARE_BRACKETS_RANGE, "<" + min + " or >" + max);
+        comment =
+            SQUARE_BRACKETS_RANGE_PATTERN.matcher(comment).replaceFirst("<" + min + " or >" + max);
       }
     }
     return comment;
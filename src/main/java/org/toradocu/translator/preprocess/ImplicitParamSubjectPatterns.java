@@ -6,6 +6,7 @@ import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
 import java.util.Arrays;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.toradocu.extractor.BlockTag;
@@ -17,65 +18,73 @@ import org.toradocu.translator.PropositionSeries;
 
 public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
 
+  /** Phrases stating what a parameter must be (e.g. "must be"), with their capitalized form. */
+  private static final Pattern POSITIVE_PATTERNS = phrases("must be", "will be");
+  /** Phrases stating what a parameter must not be (e.g. "must not be"). */
+  private static final Pattern NEGATIVE_PATTERNS =
+      phrases(
+          "must not be",
+          "must not return",
+          "must never be",
+          "must never return",
+          "will not be",
+          "will never be",
+          "can't be",
+          "cannot be",
+          "should not be",
+          "shouldn't be",
+          "may not be",
+          "must'nt be");
+  /**
+   * Param comment that contains a comma followed by a description (ignore non-mandatory
+   * conditions).
+   */
+  private static final Pattern COMMA_PATTERN =
+      Pattern.compile(".*(, (?!default)(?!may be)(?!can be)(?!could be)(?!possibly))(.*)");
+
+  private static final String[] BEGINNINGS = {"the", "a", "an", "any"};
+
+  /**
+   * Compiles the pattern matching any of the given phrases, starting either with a lower case or
+   * with an upper case letter, and the comma or "It" preceding them.
+   *
+   * @param phrases lower case phrases
+   * @return the pattern matching any of {@code phrases}
+   */
+  private static Pattern phrases(String... phrases) {
+    StringJoiner alternatives = new StringJoiner("|", "(, )?( It )?(?:", ")");
+    for (String phrase : phrases) {
+      alternatives.add(
+          "["
+              + phrase.charAt(0)
+              + Character.toUpperCase(phrase.charAt(0))
+              + "]"
+              + Pattern.quote(phrase.substring(1)));
+    }
+    return Pattern.compile(alternatives.toString());
+  }
+
   @Override
   public String run(BlockTag tag, DocumentedExecutable excMember) {
     String originalComment = tag.getComment().getText();
     String parameterName = ((ParamTag) tag).getParameter().getName();
-    String[] positivePatterns = {"must be", "Must be", "will be", "Will be"};
-
-    String[] negativePatterns = {
-      "must not be",
-      "Must not be",
-      "must not return",
-      "Must not return",
-      "must never be",
-      "Must never be",
-      "must never return",
-      "Must never return",
-      "will not be",
-      "Will not be",
-      "will never be",
-      "Will never be",
-      "can't be",
-      "Can't be",
-      "cannot be",
-      "Cannot be",
-      "should not be",
-      "Should not be",
-      "shouldn't be",
-      "Shouldn't be",
-      "may not be",
-      "May not be",
-      "must'nt be",
-      "Must'nt be"
-    };
 
     String preProcessedComment =
-        replacePatterns(originalComment, positivePatterns, parameterName, "");
+        replacePatterns(originalComment, POSITIVE_PATTERNS, parameterName, "");
     preProcessedComment =
-        replacePatterns(preProcessedComment, negativePatterns, parameterName, "not");
+        replacePatterns(preProcessedComment, NEGATIVE_PATTERNS, parameterName, "not");
 
     if (originalComment.equals(preProcessedComment)) {
-      final List<PropositionSeries> extractedPropositions =
-          Parser.parse(new Comment(originalComment), excMember);
-      final List<SemanticGraph> semanticGraphs =
-          extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
-
       preProcessedComment = originalComment.replace(";", ",");
-      String[] beginnings = {"the", "a", "an", "any"};
-
-      // param comment that contains a comma followed by a description (ignore non-mandatory
-      // conditions)
-      String commaPattern = ".*(, (?!default)(?!may be)(?!can be)(?!could be)(?!possibly))(.*)";
-      Matcher commaMatcher = Pattern.compile(commaPattern).matcher(preProcessedComment);
 
+      Matcher commaMatcher = COMMA_PATTERN.matcher(preProcessedComment);
       if (commaMatcher.find() && adjectivesFound(excMember, commaMatcher)) {
-        return replaceCommaPattern(preProcessedComment, parameterName, beginnings);
+        return replaceCommaPattern(preProcessedComment, parameterName, BEGINNINGS);
       }
 
       // Manage param comment starting with an adjective
       preProcessedComment =
-          manageFirstAdj(excMember, preProcessedComment, parameterName, beginnings);
+          manageFirstAdj(excMember, preProcessedComment, parameterName, BEGINNINGS);
     }
     return preProcessedComment;
   }
@@ -176,14 +185,10 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
    * @return the comment with patterns correctly replaced
    */
   private String replacePatterns(
-      String comment, String[] patterns, String parameterName, String negation) {
-    for (String pattern : patterns) {
-      if (comment.contains(pattern)) {
-        comment =
-            comment.replaceAll(
-                "(, )?( It )?" + pattern, ". {@code " + parameterName + "} " + " is " + negation);
-      }
-    }
-    return comment;
+      String comment, Pattern patterns, String parameterName, String negation) {
+    return patterns
+        .matcher(comment)
+        .replaceAll(
+            Matcher.quoteReplacement(". {@code " + parameterName + "} " + " is " + negation));
   }
 }
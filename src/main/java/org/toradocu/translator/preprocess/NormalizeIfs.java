@@ -20,9 +20,9 @@ public class NormalizeIfs implements PreprocessingPhase {
     if (comment.contains("if and only if")
         || comment.startsWith("iff ")
         || comment.contains(" iff ")) {
-      comment = comment.replaceAll("if and only if", "if");
+      comment = comment.replace("if and only if", "if");
       comment = comment.replace("iff ", "if ");
-      comment = comment.replaceAll(" iff ", " if ");
+      comment = comment.replace(" iff ", " if ");
       if (comment.endsWith(".")) {
         comment = comment.substring(0, comment.length() - 1);
       }
@@ -1,5 +1,7 @@
 package org.toradocu.translator.preprocess;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.Comment;
@@ -7,17 +9,34 @@ import org.toradocu.extractor.DocumentedExecutable;
 
 public class Preprocessor {
 
-  private List<PreprocessingPhase> phases;
+  private final List<PreprocessingPhase> phases;
 
   Preprocessor(List<PreprocessingPhase> phases) {
-    this.phases = phases;
+    this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
   }
 
-  public BlockTag preprocess(BlockTag tag, DocumentedExecutable excMember) {
+  /**
+   * Runs the phases of this preprocessor on the comment of the given tag. The given tag is not
+   * modified: each phase changing the comment produces a new tag. The words marked as code are
+   * carried from a phase to the next one, and the text produced by a phase is scanned for inline
+   * tags and HTML only if it may contain them.
+   *
+   * @param tag the tag whose comment is preprocessed
+   * @param excMember the executable member commented with {@code tag}
+   * @param <T> the type of {@code tag}
+   * @return a tag equal to {@code tag}, but with the preprocessed comment
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends BlockTag> T preprocess(T tag, DocumentedExecutable excMember) {
+    T preprocessedTag = tag;
     for (PreprocessingPhase phase : phases) {
-      String preprocessedText = phase.run(tag, excMember);
-      tag.setComment(new Comment(preprocessedText, tag.getComment().getWordsMarkedAsCode()));
+      final Comment comment = preprocessedTag.getComment();
+      final Comment preprocessedComment = comment.withText(phase.run(preprocessedTag, excMember));
+      if (preprocessedComment != comment) {
+        // withComment returns a tag of the same type.
+        preprocessedTag = (T) preprocessedTag.withComment(preprocessedComment);
+      }
     }
-    return tag;
+    return preprocessedTag;
   }
 }
@@ -1,48 +1,78 @@
 package org.toradocu.translator.preprocess;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
 import org.toradocu.extractor.BlockTag;
 
+/**
+ * Provides the preprocessor of each kind of tag. The preprocessors (and their phases) are
+ * stateless, thus they are created once and shared by all the tags of the same kind.
+ */
 public class PreprocessorFactory {
 
-  private PreprocessorFactory() {}
+  /** The preprocessor of each kind of tag. */
+  private static final Map<BlockTag.Kind, Preprocessor> preprocessors =
+      new EnumMap<>(BlockTag.Kind.class);
 
-  public static Preprocessor create(BlockTag.Kind tagKind) {
-    List<PreprocessingPhase> phases = new ArrayList<>();
+  static {
+    final PreprocessingPhase trim = new Trim();
+    final PreprocessingPhase endPeriod = new EndPeriod();
+    final PreprocessingPhase expandRange = new ExpandRange();
+    final PreprocessingPhase removeCommas = new RemoveCommas();
+    final PreprocessingPhase normalizeIfs = new NormalizeIfs();
+    final PreprocessingPhase normalizeNonNullNonEmpty = new NormalizeNonNullNonEmpty();
+    final PreprocessingPhase normalizeIt = new NormalizeIt();
 
-    phases.add(new EndPeriod());
-    phases.add(new Trim());
+    preprocessors.put(
+        BlockTag.Kind.PARAM,
+        new Preprocessor(
+            Arrays.asList(
+                endPeriod,
+                trim,
+                new ImplicitParamSubjectPatterns(),
+                expandRange,
+                removeCommas,
+                new RemoveMayBe(),
+                normalizeNonNullNonEmpty,
+                normalizeIt,
+                trim)));
+    preprocessors.put(
+        BlockTag.Kind.THROWS,
+        new Preprocessor(
+            Arrays.asList(
+                endPeriod,
+                trim,
+                expandRange,
+                removeCommas,
+                normalizeIfs,
+                new RemoveInitialIf(),
+                normalizeNonNullNonEmpty,
+                normalizeIt,
+                trim)));
+    preprocessors.put(
+        BlockTag.Kind.RETURN,
+        new Preprocessor(
+            Arrays.asList(
+                endPeriod,
+                trim,
+                expandRange,
+                normalizeIfs,
+                normalizeNonNullNonEmpty,
+                normalizeIt,
+                new NormalizeWhether(),
+                trim)));
+  }
 
-    switch (tagKind) {
-      case PARAM:
-        phases.add(new ImplicitParamSubjectPatterns());
-        phases.add(new ExpandRange());
-        phases.add(new RemoveCommas()); // TODO Make RemoveCommas a singleton?
-        phases.add(new RemoveMayBe());
-        phases.add(new NormalizeNonNullNonEmpty());
-        phases.add(new NormalizeIt());
-        phases.add(new Trim());
-        break;
-      case THROWS:
-        phases.add(new ExpandRange());
-        phases.add(new RemoveCommas());
-        phases.add(new NormalizeIfs());
-        phases.add(new RemoveInitialIf());
-        phases.add(new NormalizeNonNullNonEmpty());
-        phases.add(new NormalizeIt());
-        phases.add(new Trim());
-        break;
-      case RETURN:
-        phases.add(new ExpandRange());
-        phases.add(new NormalizeIfs());
-        phases.add(new NormalizeNonNullNonEmpty());
-        phases.add(new NormalizeIt());
-        phases.add(new NormalizeWhether());
-        phases.add(new Trim());
-        break;
-    }
+  private PreprocessorFactory() {}
 
-    return new Preprocessor(phases);
+  /**
+   * Returns the preprocessor of the given kind of tag.
+   *
+   * @param tagKind the kind of the tags to preprocess
+   * @return the preprocessor of the tags of kind {@code tagKind}, shared by all the callers
+   */
+  public static Preprocessor create(BlockTag.Kind tagKind) {
+    return preprocessors.get(tagKind);
   }
 }
@@ -7,6 +7,6 @@ public class RemoveCommas implements PreprocessingPhase {
 
   @Override
   public String run(BlockTag tag, DocumentedExecutable excMember) {
-    return tag.getComment().getText().replaceAll(",", " ");
+    return tag.getComment().getText().replace(',', ' ');
   }
 }
@@ -10,10 +10,10 @@ public class RemoveMayBe implements PreprocessingPhase {
     String comment = tag.getComment().getText();
 
     if (comment.contains("may be")) {
-      comment = comment.replaceAll("may be", "");
+      comment = comment.replace("may be", "");
     }
     if (comment.contains("can be")) {
-      comment = comment.replaceAll("can be", "");
+      comment = comment.replace("can be", "");
     }
     return comment;
   }
@@ -0,0 +1,167 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Converts GloVe vectors from the textual format (one word per line, followed by the components of
+ * its vector separated by spaces) to the binary store read by {@code MappedGloveVectors}. The
+ * conversion has to be done only once: the binary store is then opened in constant time.
+ *
+ * <p>Usage: {@code GloveBinaryConverter <glove-txt-file> <binary-store-file>}
+ */
+public class GloveBinaryConverter {
+
+  /** Makes constructor private to prevent the instantiation of this class objects. */
+  private GloveBinaryConverter() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: GloveBinaryConverter <glove-txt-file> <binary-store-file>");
+      System.exit(1);
+    }
+    convert(Paths.get(args[0]), Paths.get(args[1]));
+  }
+
+  /**
+   * Converts the GloVe vectors in the given textual file into a binary store. Lines whose number of
+   * components differs from the one of the first vector (e.g., a header line) are ignored, as well
+   * as repeated words. The store is written to a temporary file that is then moved to {@code
+   * store}, so that a partially written store is never opened.
+   *
+   * @param text the file containing the GloVe vectors in textual format
+   * @param store the file the binary store is written to
+   * @throws IOException if {@code text} cannot be read or {@code store} cannot be written
+   */
+  public static void convert(Path text, Path store) throws IOException {
+    // First pass: collect the words, so that the index can be written before the vectors.
+    final List<byte[]> words = new ArrayList<>();
+    int dimension = -1;
+    int tableSize = 0;
+    int[] slots = new int[0];
+    try (BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] tokens = line.trim().split(" ");
+        if (dimension == -1 && tokens.length > 2) {
+          dimension = tokens.length - 1;
+        }
+        if (tokens.length - 1 != dimension) {
+          continue;
+        }
+        final byte[] word = tokens[0].getBytes(StandardCharsets.UTF_8);
+        if (words.size() + 1 > tableSize / 2) { // Keeps the load factor below 0.5.
+          tableSize = Math.max(16, tableSize * 2);
+          slots = rehash(words, tableSize);
+        }
+        if (insert(slots, words, word, words.size())) {
+          words.add(word);
+        }
+      }
+    }
+    if (dimension == -1) {
+      throw new IOException("No GloVe vectors found in " + text);
+    }
+
+    // Second pass: write the index and then the vectors, in the order of words.
+    final Path temporaryStore =
+        Files.createTempFile(store.toAbsolutePath().getParent(), "glove", ".tmp");
+    try {
+      try (DataOutputStream out =
+              new DataOutputStream(
+                  new BufferedOutputStream(Files.newOutputStream(temporaryStore), 1 << 16));
+          BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+        int wordsSize = 0;
+        for (byte[] word : words) {
+          wordsSize += word.length;
+        }
+        final long indexSize =
+            MappedGloveVectors.HEADER_SIZE
+                + (long) tableSize * Integer.BYTES
+                + (long) (words.size() + 1) * Integer.BYTES
+                + wordsSize;
+        final int padding = (int) ((Float.BYTES - indexSize % Float.BYTES) % Float.BYTES);
+
+        out.writeInt(MappedGloveVectors.MAGIC);
+        out.writeInt(MappedGloveVectors.VERSION);
+        out.writeInt(words.size());
+        out.writeInt(dimension);
+        out.writeInt(tableSize);
+        out.writeLong(indexSize + padding);
+        for (int slot : slots) {
+          out.writeInt(slot);
+        }
+        int offset = 0;
+        for (byte[] word : words) {
+          out.writeInt(offset);
+          offset += word.length;
+        }
+        out.writeInt(offset);
+        for (byte[] word : words) {
+          out.write(word);
+        }
+        out.write(new byte[padding]);
+
+        int written = 0;
+        String line;
+        while (written < words.size() && (line = reader.readLine()) != null) {
+          final String[] tokens = line.trim().split(" ");
+          if (tokens.length - 1 != dimension
+              || !tokens[0].equals(new String(words.get(written), StandardCharsets.UTF_8))) {
+            continue; // Header line or repeated word.
+          }
+          for (int i = 1; i < tokens.length; i++) {
+            out.writeFloat(Float.parseFloat(tokens[i]));
+          }
+          written++;
+        }
+        if (written != words.size()) {
+          throw new IOException(text + " changed during the conversion");
+        }
+      }
+      Files.move(temporaryStore, store, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporaryStore);
+    }
+  }
+
+  /**
+   * Inserts a word in the hash table, unless the table already contains it.
+   *
+   * @param slots the hash table
+   * @param words the words already in the table
+   * @param word the word to insert
+   * @param index the index of {@code word}
+   * @return true if the word has been inserted, false if the table already contains it
+   */
+  private static boolean insert(int[] slots, List<byte[]> words, byte[] word, int index) {
+    final int mask = slots.length - 1;
+    int slot = MappedGloveVectors.hash(word) & mask;
+    while (slots[slot] != 0) {
+      if (Arrays.equals(words.get(slots[slot] - 1), word)) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = index + 1;
+    return true;
+  }
+
+  private static int[] rehash(List<byte[]> words, int tableSize) {
+    final int[] slots = new int[tableSize];
+    for (int i = 0; i < words.size(); i++) {
+      insert(slots, words, words.get(i), i);
+    }
+    return slots;
+  }
+}
@@ -1,12 +1,13 @@
 package org.toradocu.translator.semantic;
 
-import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import org.deeplearning4j.models.embeddings.loader.WordVectorSerializer;
+import java.nio.file.StandardCopyOption;
 import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
 
 /** Created by arianna on 31/07/17. */
@@ -20,7 +21,7 @@ public class GloveModelWrapper {
     // Exists only to defeat instantiation.
   }
 
-  public static GloveModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveModelWrapper();
       try {
@@ -32,31 +33,36 @@ public class GloveModelWrapper {
     return instance;
   }
 
-  private static WordVectors setUpGloveTxtVectors() throws Exception {
+  /**
+   * Opens the binary GloVe store in the glove-txt folder. If the store does not exist yet, it is
+   * created (once) by converting the textual GloVe model packaged in the Toradocu jar.
+   *
+   * @return the memory-mapped GloVe vectors
+   * @throws IOException if the GloVe model cannot be read or converted
+   */
+  private static WordVectors setUpGloveTxtVectors() throws IOException {
     String gloveTxtFolder = "glove-txt";
     String gloveTxtFile = "glove.6B.300d.txt";
-
-    // Copy GloVe models in Toradocu jar to glove-txt folder and use them.
-    String filePath = "/" + gloveTxtFile;
-    InputStream gloveInputStream = GloveModelWrapper.class.getResourceAsStream(filePath);
-    Path destinationFile = Paths.get(gloveTxtFolder, gloveTxtFile);
+    String gloveBinaryFile = "glove.6B.300d.bin";
 
     Path folderPath = Paths.get(gloveTxtFolder);
-    if (!Files.exists(folderPath)) {
-      Files.createDirectory(folderPath);
-    }
-    if (Files.list(folderPath).count() == 0) {
-      Files.copy(gloveInputStream, destinationFile);
-    }
-    WordVectors gloveVectors = null;
-    try {
-      File gloveFinalFile = destinationFile.toFile();
-      gloveVectors = WordVectorSerializer.loadTxtVectors(gloveFinalFile);
-      gloveFinalFile.deleteOnExit();
-    } catch (Exception e) {
-      e.printStackTrace();
+    Path binaryFile = folderPath.resolve(gloveBinaryFile);
+    if (!Files.exists(binaryFile)) {
+      // Copy GloVe model in Toradocu jar to glove-txt folder and convert it.
+      String filePath = "/" + gloveTxtFile;
+      Files.createDirectories(folderPath);
+      Path textFile = Files.createTempFile(folderPath, "glove", ".txt");
+      try (InputStream gloveInputStream = GloveModelWrapper.class.getResourceAsStream(filePath)) {
+        if (gloveInputStream == null) {
+          throw new FileNotFoundException("GloVe model " + filePath + " not found");
+        }
+        Files.copy(gloveInputStream, textFile, StandardCopyOption.REPLACE_EXISTING);
+        GloveBinaryConverter.convert(textFile, binaryFile);
+      } finally {
+        Files.deleteIfExists(textFile);
+      }
     }
-    return gloveVectors;
+    return new GloveWordVectors(MappedGloveVectors.open(binaryFile));
   }
 
   public WordVectors getGloveTxtVectors() {
@@ -0,0 +1,40 @@
+package org.toradocu.translator.semantic;
+
+import org.deeplearning4j.models.embeddings.wordvectors.WordVectorsImpl;
+import org.deeplearning4j.models.word2vec.VocabWord;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Adapts the vectors of a binary GloVe store to the {@code WordVectors} required by {@code
+ * WordMovers}. Only the methods used to compute the Word Mover's Distance, {@code hasWord} and
+ * {@code getWordVectorMatrix}, read the store: this class has no vocabulary or lookup table, thus
+ * the other methods of {@code WordVectors} cannot be used.
+ */
+class GloveWordVectors extends WordVectorsImpl<VocabWord> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The store of the vectors. */
+  private final transient MappedGloveVectors store;
+
+  /**
+   * Creates the word vectors of the given store.
+   *
+   * @param store the binary GloVe store
+   */
+  GloveWordVectors(MappedGloveVectors store) {
+    this.store = store;
+  }
+
+  @Override
+  public boolean hasWord(String word) {
+    return store.hasWord(word);
+  }
+
+  @Override
+  public INDArray getWordVectorMatrix(String word) {
+    final float[] vector = store.getVector(word);
+    return vector == null ? null : Nd4j.create(vector);
+  }
+}
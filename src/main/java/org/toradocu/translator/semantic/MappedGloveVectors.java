@@ -0,0 +1,219 @@
+package org.toradocu.translator.semantic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Word vectors read from a binary GloVe store created by {@code GloveBinaryConverter}. The store is
+ * memory-mapped: opening it takes constant time and vectors are read off-heap only when they are
+ * requested. Objects of this class are immutable and can be shared by multiple threads.
+ *
+ * <p>The store has the following layout (all numbers are big-endian):
+ *
+ * <ol>
+ *   <li>header: the magic number {@code MAGIC}, the format version, the number of words, the
+ *       dimension of the vectors, the size of the hash table (a power of two), and the offset of
+ *       the vectors in the file (a long);
+ *   <li>hash table: for every slot, 0 if the slot is empty, the index of a word plus one otherwise.
+ *       Collisions are resolved with linear probing;
+ *   <li>word offsets: for every word plus one, the offset of the word in the words section;
+ *   <li>words section: the UTF-8 encoded words, one after the other;
+ *   <li>vectors: for every word, in the same order, the components of its vector as floats.
+ * </ol>
+ *
+ * The Word Mover's Distance reads the vectors through {@code GloveWordVectors}.
+ */
+public class MappedGloveVectors {
+
+  /** Magic number at the beginning of a binary GloVe store. */
+  static final int MAGIC = 0x54444756;
+  /** Version of the format of binary GloVe stores. */
+  static final int VERSION = 1;
+  /** Size of the header in bytes. */
+  static final int HEADER_SIZE = 5 * Integer.BYTES + Long.BYTES;
+  /** Maximum size of a single mapped region of the vectors, in bytes. */
+  private static final long MAX_REGION_SIZE = 1 << 30;
+
+  /** Number of words in the store. */
+  private final int words;
+  /** Dimension of the vectors. */
+  private final int dimension;
+  /** Hash table from words to their indexes plus one. */
+  private final IntBuffer table;
+  /** Offsets of the words in {@code wordBytes}. */
+  private final IntBuffer wordOffsets;
+  /** UTF-8 encoded words. */
+  private final ByteBuffer wordBytes;
+  /** Vectors, split in regions of {@code vectorsPerRegion} vectors each. */
+  private final FloatBuffer[] vectorRegions;
+  /** Number of vectors in every region of {@code vectorRegions}. */
+  private final int vectorsPerRegion;
+
+  private MappedGloveVectors(FileChannel channel) throws IOException {
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    while (header.hasRemaining()) {
+      if (channel.read(header, header.position()) < 0) {
+        throw new IOException("Truncated GloVe store");
+      }
+    }
+    header.flip();
+    if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+      throw new IOException("Not a GloVe store or unsupported format version");
+    }
+    words = header.getInt();
+    dimension = header.getInt();
+    final int tableSize = header.getInt();
+    final long vectorsOffset = header.getLong();
+    if (vectorsOffset > Integer.MAX_VALUE
+        || vectorsOffset + (long) words * dimension * Float.BYTES > channel.size()) {
+      throw new IOException("Corrupted GloVe store");
+    }
+
+    final MappedByteBuffer index =
+        channel.map(FileChannel.MapMode.READ_ONLY, 0, (int) vectorsOffset);
+    index.position(HEADER_SIZE);
+    table = slice(index, tableSize * Integer.BYTES).asIntBuffer();
+    wordOffsets = slice(index, (words + 1) * Integer.BYTES).asIntBuffer();
+    wordBytes = slice(index, wordOffsets.get(words));
+
+    final long vectorSize = (long) dimension * Float.BYTES;
+    vectorsPerRegion = (int) Math.max(1, MAX_REGION_SIZE / Math.max(1, vectorSize));
+    vectorRegions = new FloatBuffer[(words + vectorsPerRegion - 1) / vectorsPerRegion];
+    for (int i = 0; i < vectorRegions.length; i++) {
+      final int vectors = Math.min(vectorsPerRegion, words - i * vectorsPerRegion);
+      vectorRegions[i] =
+          channel
+              .map(
+                  FileChannel.MapMode.READ_ONLY,
+                  vectorsOffset + i * vectorsPerRegion * vectorSize,
+                  vectors * vectorSize)
+              .asFloatBuffer();
+    }
+  }
+
+  /**
+   * Opens the binary GloVe store in the given file.
+   *
+   * @param store the file containing the store
+   * @return the word vectors in {@code store}
+   * @throws IOException if the store cannot be read or is not a valid GloVe store
+   */
+  public static MappedGloveVectors open(Path store) throws IOException {
+    // Mapped regions remain valid after the channel is closed.
+    try (FileChannel channel = FileChannel.open(store, StandardOpenOption.READ)) {
+      return new MappedGloveVectors(channel);
+    }
+  }
+
+  private static ByteBuffer slice(ByteBuffer buffer, int length) {
+    final ByteBuffer slice = buffer.slice();
+    slice.limit(length);
+    buffer.position(buffer.position() + length);
+    return slice;
+  }
+
+  /**
+   * Returns the hash used to index the given word in the hash table of a store.
+   *
+   * @param word the UTF-8 encoded word
+   * @return the hash of {@code word}
+   */
+  static int hash(byte[] word) {
+    int hash = 0;
+    for (byte b : word) {
+      hash = 31 * hash + b;
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Returns the index of the given word in the store, or -1 if the store does not contain it.
+   *
+   * @param word the word to look up
+   * @return the index of {@code word}, or -1 if {@code word} is not in the store
+   */
+  public int indexOf(String word) {
+    if (word == null || words == 0) {
+      return -1;
+    }
+    final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+    final int mask = table.limit() - 1;
+    for (int slot = hash(bytes) & mask; ; slot = (slot + 1) & mask) {
+      final int entry = table.get(slot);
+      if (entry == 0) {
+        return -1;
+      }
+      if (wordEquals(entry - 1, bytes)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  private boolean wordEquals(int index, byte[] word) {
+    final int offset = wordOffsets.get(index);
+    if (wordOffsets.get(index + 1) - offset != word.length) {
+      return false;
+    }
+    for (int i = 0; i < word.length; i++) {
+      if (wordBytes.get(offset + i) != word[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the vector of the given word, or null if the store does not contain the word.
+   *
+   * @param word the word whose vector has to be returned
+   * @return the vector of {@code word}, or null if {@code word} is not in the store
+   */
+  public float[] getVector(String word) {
+    final int index = indexOf(word);
+    if (index == -1) {
+      return null;
+    }
+    final FloatBuffer region = vectorRegions[index / vectorsPerRegion];
+    final int offset = (index % vectorsPerRegion) * dimension;
+    final float[] vector = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      vector[i] = region.get(offset + i);
+    }
+    return vector;
+  }
+
+  /**
+   * Returns the number of words in the store.
+   *
+   * @return the number of words in the store
+   */
+  public int size() {
+    return words;
+  }
+
+  /**
+   * Returns the dimension of the vectors in the store.
+   *
+   * @return the dimension of the vectors in the store
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Checks whether the store contains the given word.
+   *
+   * @param word the word to look up
+   * @return true if {@code word} is in the store
+   */
+  public boolean hasWord(String word) {
+    return indexOf(word) != -1;
+  }
+}
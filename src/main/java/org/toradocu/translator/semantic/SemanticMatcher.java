@@ -2,8 +2,6 @@ package org.toradocu.translator.semantic;
 
 import com.crtomirmajer.wmd4j.WordMovers;
 import edu.stanford.nlp.ling.CoreLabel;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -15,32 +13,33 @@ import org.toradocu.translator.*;
  * Main component. Contains all the methods to compute the {@code SemantichMatch}es for a given
  * class. This implements the "basic" semantic semantic, i.e. the one that uses plain vector sums.
  * Other kinds of matcher will extend this class.
+ *
+ * <p>A semantic matcher holds no state related to a single match, and builds its vector model only
+ * once (on first use): a single instance can be used for a whole run, also by concurrent threads.
  */
 public class SemanticMatcher {
 
-  /**
-   * Tells whether the semantic matching is enabled or not according to configuration parameters.
-   */
-  private static boolean enabled;
-
   /**
    * List of words to be ignored in the comment and code element name when performing semantic
    * matching.
    */
-  private final ArrayList<String> stopwords;
+  private final List<String> stopwords;
 
   /**
    * Threshold up to which a similarity distance is considered acceptable. Zero is perfect
    * similarity.
    */
-  private float wmdThreshold;
+  private final float wmdThreshold;
+
+  /** Computes the Word Mover's Distance, built on first use. */
+  private WordMovers wordMovers;
 
   public SemanticMatcher(boolean stopWordsRemoval, float distanceThreshold, float wmdThreshold) {
     this.wmdThreshold = wmdThreshold;
 
     // TODO can this naive list be improved?
     stopwords =
-        new ArrayList<>(
+        Collections.unmodifiableList(
             Arrays.asList(
                 "true",
                 "false",
@@ -68,14 +67,6 @@ public class SemanticMatcher {
                 "specify"));
   }
 
-  public static boolean isEnabled() {
-    return enabled;
-  }
-
-  public static void setEnabled(boolean enabled) {
-    SemanticMatcher.enabled = enabled;
-  }
-
   /**
    * Entry point to run the semantic matching through vector sums. Takes the list of candidates
    * involved in the matching, the method for which calculating the matching, the comment to match
@@ -87,19 +78,39 @@ public class SemanticMatcher {
    * @param proposition the {@code Proposition} extracted from the comment
    * @param comment comment text @return a map containing the best matches together with the
    *     distance computed in respect to the comment
+   * @param trace the trace where computed distances are recorded, null to not record them
    * @return the best matches
-   * @throws IOException if there were problems reading the vector model
    */
   public LinkedHashMap<CodeElement<?>, Double> runSemanticMatch(
       List<CodeElement<?>> codeElements,
       DocumentedExecutable method,
       CodeElement<?> subject,
       Proposition proposition,
-      String comment)
-      throws IOException {
-
+      String comment,
+      SemanticTrace trace) {
+    List<String> stopwords = new ArrayList<>(this.stopwords);
     stopwords.add(method.getDeclaringClass().getSimpleName().toLowerCase());
-    return wmdMatch(comment, proposition, subject, method, codeElements);
+    return wmdMatch(comment, proposition, subject, method, codeElements, stopwords, trace);
+  }
+
+  /**
+   * Returns the object computing the Word Mover's Distance, building it (and loading the vector
+   * model) if needed.
+   *
+   * @return the object computing the Word Mover's Distance
+   */
+  private synchronized WordMovers getWordMovers() {
+    if (wordMovers == null) {
+      try {
+        wordMovers =
+            WordMovers.Builder()
+                .wordVectors(GloveModelWrapper.getInstance().getGloveTxtVectors())
+                .build();
+      } catch (URISyntaxException e) {
+        e.printStackTrace();
+      }
+    }
+    return wordMovers;
   }
 
   /**
@@ -124,10 +135,12 @@ public class SemanticMatcher {
    * Parse the original tag comment. Special characters are removed. Then the comment is normalized
    * to lower case and lemmatization is applied. As a last step, stopwords are removed.
    *
+   * @param comment the comment to parse
+   * @param stopwords the words to remove
    * @return the parsed comment in form of array of strings (words retained from the original
    *     comment)
    */
-  private List<String> parseComment(String comment) {
+  private List<String> parseComment(String comment, List<String> stopwords) {
     comment = comment.replaceAll("[^A-Za-z0-9 ]", "").toLowerCase();
 
     ArrayList<String> wordComment = new ArrayList<String>(Arrays.asList(comment.split(" ")));
@@ -143,7 +156,7 @@ public class SemanticMatcher {
       index++;
     }
 
-    return this.removeStopWords(wordComment);
+    return removeStopWords(wordComment, stopwords);
   }
 
   /**
@@ -154,30 +167,23 @@ public class SemanticMatcher {
    * @param method the method to which the comment belongs
    * @param codeElements list of code elements for which computing the distance @return a map
    *     containing the best matches together with the distance computed in respect to the comment
+   * @param stopwords the words to ignore in the comment and in the code element names
+   * @param trace the trace where computed distances are recorded, null to not record them
    */
   private LinkedHashMap<CodeElement<?>, Double> wmdMatch(
       String comment,
       Proposition proposition,
       CodeElement<?> subjectCodeElement,
       DocumentedExecutable method,
-      List<CodeElement<?>> codeElements)
-      throws IOException {
+      List<CodeElement<?>> codeElements,
+      List<String> stopwords,
+      SemanticTrace trace) {
     Map<CodeElement<?>, Double> distances = new LinkedHashMap<>();
 
-    FileWriter writer = new FileWriter("wmd-glove-distances.csv", true);
-
-    WordMovers wm = null;
-    try {
-      wm =
-          WordMovers.Builder()
-              .wordVectors(GloveModelWrapper.getInstance().getGloveTxtVectors())
-              .build();
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
-    }
+    WordMovers wm = getWordMovers();
 
     //    String subject = proposition.getSubject().getSubject();
-    List<String> commentWordSet = parseComment(comment);
+    List<String> commentWordSet = parseComment(comment, stopwords);
     if (codeElements != null && !codeElements.isEmpty()) {
       for (CodeElement<?> codeElement : codeElements) {
         // For each code element, compute the corresponding vector and compute the distance
@@ -192,7 +198,7 @@ public class SemanticMatcher {
         }
         double dist = 10;
         List<String> camelId = parseCodeElementName(name);
-        List<String> codeElementWordSet = removeStopWords(camelId);
+        List<String> codeElementWordSet = removeStopWords(camelId, stopwords);
         //        Set<String> codeElementWordSet = new HashSet<>(camelId);
 
         String parsedComment =
@@ -200,10 +206,6 @@ public class SemanticMatcher {
         String parsedCodeElement =
             String.join(" ", codeElementWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
 
-        writer.append(parsedComment + ";");
-        writer.append(parsedCodeElement + ";");
-        writer.append(String.valueOf(commentWordSet.size()) + ";");
-
         if (codeElement instanceof MethodCodeElement
             && !((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
             && !areComplementary((MethodCodeElement) codeElement, method)) {
@@ -226,11 +228,11 @@ public class SemanticMatcher {
             distances.put(codeElement, dist);
           }
         }
-        writer.append(String.valueOf(dist) + "\n");
+        if (trace != null) {
+          trace.record(parsedComment, parsedCodeElement, commentWordSet.size(), dist);
+        }
       }
     }
-    writer.flush();
-    writer.close();
     return retainMatches(commentWordSet, method.getSignature(), distances);
   }
 
@@ -265,9 +267,7 @@ public class SemanticMatcher {
    */
   private LinkedHashMap<CodeElement<?>, Double> retainMatches(
       List<String> commentWords, String methodName, Map<CodeElement<?>, Double> distances) {
-    if (commentWords.size() > 8) {
-      wmdThreshold = 5.96f;
-    }
+    final float wmdThreshold = commentWords.size() > 8 ? 5.96f : this.wmdThreshold;
 
     // Select as candidates only code elements that have a semantic distance below the chosen
     // threshold.
@@ -294,12 +294,13 @@ public class SemanticMatcher {
    * Remove stopwords from given list of {@code String}s
    *
    * @param words list of {@code String}s to be cleaned
+   * @param stopwords the words to remove
    * @return the cleaned list of words
    */
-  private List<String> removeStopWords(List<String> words) {
+  private List<String> removeStopWords(List<String> words, List<String> stopwords) {
     for (int i = 0; i < words.size(); i++) {
       String word = words.get(i).toLowerCase();
-      if (this.stopwords.contains(word)) {
+      if (stopwords.contains(word)) {
         words.remove(i);
         words.add(i, "");
       }
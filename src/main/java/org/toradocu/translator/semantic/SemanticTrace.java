@@ -0,0 +1,101 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Trace of the distances computed by the semantic matcher. Each distance is appended as a line
+ * {@code comment;code element;number of comment words;distance} to a CSV file. Lines are written
+ * asynchronously by a dedicated thread, so that tracing does not slow down (nor serialize) the
+ * threads running the semantic matcher. Pending lines are written when the JVM shuts down.
+ */
+public class SemanticTrace {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(SemanticTrace.class);
+
+  /** The traces of every file, so that each file is written by a single thread. */
+  private static final Map<Path, SemanticTrace> traces = new ConcurrentHashMap<>();
+
+  /** Marks the end of the lines to write. */
+  private static final String END = new String();
+
+  /** Lines waiting to be written. */
+  private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+  /** Thread writing the lines to the file. */
+  private final Thread writer;
+
+  private SemanticTrace(Path file) {
+    writer = new Thread(() -> write(file), "semantic-trace");
+    writer.setDaemon(true);
+    writer.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+  }
+
+  /**
+   * Returns the trace appending distances to the given file.
+   *
+   * @param file the file where distances are appended
+   * @return the trace appending distances to {@code file}
+   */
+  public static SemanticTrace of(Path file) {
+    return traces.computeIfAbsent(file.toAbsolutePath().normalize(), SemanticTrace::new);
+  }
+
+  /**
+   * Records a distance computed by the semantic matcher. This method does not block.
+   *
+   * @param comment the parsed comment
+   * @param codeElement the parsed name of the code element
+   * @param commentWords the number of words in the parsed comment
+   * @param distance the distance between the comment and the code element
+   */
+  public void record(String comment, String codeElement, int commentWords, double distance) {
+    if (!writer.isAlive()) { // The file cannot be written.
+      return;
+    }
+    lines.add(comment + ";" + codeElement + ";" + commentWords + ";" + distance + "\n");
+  }
+
+  /** Writes the pending lines and stops the writer thread. */
+  private void close() {
+    lines.add(END);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write(Path file) {
+    try (BufferedWriter out =
+        Files.newBufferedWriter(
+            file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+      while (true) {
+        String line = lines.take();
+        while (line != null) {
+          if (line == END) {
+            return;
+          }
+          out.write(line);
+          line = lines.poll();
+        }
+        out.flush(); // No more lines for now.
+      }
+    } catch (IOException e) {
+      log.error("Unable to write the semantic trace to " + file, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package org.toradocu.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-memory cache whose total weight is bounded. Every entry has a positive weight, computed when
+ * the entry is stored, and when the total weight exceeds the maximum the least recently used
+ * entries are evicted. Callers must be able to recompute an evicted value, so that their results do
+ * not depend on which entries are evicted. Objects of this class can be shared by multiple threads.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BoundedCache<K, V> {
+
+  /** Name of this cache, used in its statistics. */
+  private final String name;
+  /** Maximum total weight of the entries, guarded by {@code entries}. */
+  private long maxWeight;
+  /** Function computing the weight of a value. */
+  private final ToIntFunction<V> weigher;
+  /** The entries and their weights, in access order. */
+  private final LinkedHashMap<K, Weighted<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+  /** Total weight of the entries, guarded by {@code entries}. */
+  private long weight;
+  /** Number of lookups that found a value. */
+  private final AtomicLong hits = new AtomicLong();
+  /** Number of lookups that did not find a value. */
+  private final AtomicLong misses = new AtomicLong();
+  /** Number of entries evicted to respect the maximum weight. */
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Creates a new empty cache.
+   *
+   * @param name the name of the cache, used in its statistics
+   * @param maxWeight the maximum total weight of the entries, 0 to disable the cache
+   * @param weigher the function computing the weight of a value, whose result must be positive
+   * @throws IllegalArgumentException if {@code maxWeight} is negative
+   */
+  public BoundedCache(String name, long maxWeight, ToIntFunction<V> weigher) {
+    this.name = Objects.requireNonNull(name);
+    this.maxWeight = checkMaxWeight(maxWeight);
+    this.weigher = Objects.requireNonNull(weigher);
+  }
+
+  /**
+   * Changes the maximum total weight of the entries, evicting the least recently used entries if
+   * the total weight exceeds the new maximum.
+   *
+   * @param maxWeight the new maximum total weight of the entries, 0 to disable the cache
+   * @throws IllegalArgumentException if {@code maxWeight} is negative
+   */
+  public void setMaxWeight(long maxWeight) {
+    synchronized (entries) {
+      this.maxWeight = checkMaxWeight(maxWeight);
+      evictExcess();
+    }
+  }
+
+  /**
+   * Returns the value stored under the given key, marking it as the most recently used.
+   *
+   * @param key the key of the value
+   * @return the value stored under {@code key}, or null if there is none
+   */
+  public V get(K key) {
+    final Weighted<V> entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    (entry == null ? misses : hits).incrementAndGet();
+    return entry == null ? null : entry.value;
+  }
+
+  /**
+   * Checks whether a value is stored under the given key, without counting a lookup and without
+   * marking the value as used.
+   *
+   * @param key the key of the value
+   * @return true if a value is stored under {@code key}
+   */
+  public boolean contains(K key) {
+    synchronized (entries) {
+      return entries.containsKey(key);
+    }
+  }
+
+  /**
+   * Stores the given value under the given key, evicting the least recently used entries if the
+   * total weight exceeds the maximum. A value heavier than the maximum weight is not stored.
+   *
+   * @param key the key of the value
+   * @param value the value to store
+   */
+  public void put(K key, V value) {
+    final int valueWeight = Math.max(1, weigher.applyAsInt(value));
+    synchronized (entries) {
+      if (valueWeight > maxWeight) {
+        return;
+      }
+      final Weighted<V> previous = entries.put(key, new Weighted<>(value, valueWeight));
+      weight += valueWeight - (previous == null ? 0 : previous.weight);
+      evictExcess();
+    }
+  }
+
+  /** Evicts the least recently used entries until the total weight respects the maximum. */
+  private void evictExcess() {
+    final Iterator<Weighted<V>> eldest = entries.values().iterator();
+    while (weight > maxWeight) {
+      weight -= eldest.next().weight;
+      eldest.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  /**
+   * Checks that the given maximum weight is non-negative.
+   *
+   * @param maxWeight the maximum weight to check
+   * @return {@code maxWeight}
+   * @throws IllegalArgumentException if {@code maxWeight} is negative
+   */
+  private long checkMaxWeight(long maxWeight) {
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("The maximum weight of " + name + " must be non-negative");
+    }
+    return maxWeight;
+  }
+
+  /**
+   * Returns a description of the hit rate of this cache and of its evictions.
+   *
+   * @return a description of the hit rate of this cache and of its evictions
+   */
+  public String getStatistics() {
+    final long hits = this.hits.get();
+    final long lookups = hits + misses.get();
+    final int size;
+    final long currentWeight;
+    final long maxWeight;
+    synchronized (entries) {
+      size = entries.size();
+      currentWeight = weight;
+      maxWeight = this.maxWeight;
+    }
+    return String.format(
+        "%s: %d hits out of %d lookups (%.1f%%), %d evictions, %d entries cached (weight %d of %d)",
+        name,
+        hits,
+        lookups,
+        lookups == 0 ? 0.0 : 100.0 * hits / lookups,
+        evictions.get(),
+        size,
+        currentWeight,
+        maxWeight);
+  }
+
+  /** A value together with its weight. */
+  private static final class Weighted<V> {
+    private final V value;
+    private final int weight;
+
+    Weighted(V value, int weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+}
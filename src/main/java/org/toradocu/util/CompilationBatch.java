@@ -0,0 +1,372 @@
+package org.toradocu.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.translator.TranslationContext;
+import randoop.condition.specification.Guard;
+import randoop.condition.specification.Property;
+
+/**
+ * Checks whether many candidate specifications are compilable by invoking the compiler only once.
+ * Candidates are first added to the batch, then {@link #compile()} puts all the candidates sharing
+ * the same imports in a single compilation unit (one method per candidate) and compiles it. The
+ * compilation errors are mapped back to the candidates through the lines of their methods.
+ *
+ * <p>The outcome for every candidate is the same as if the candidate was compiled on its own: the
+ * candidates having errors in a batch are compiled again on their own, and the remaining candidates
+ * are compiled again in a new batch until a batch compiles without errors. Candidates whose
+ * conditions are certainly valid or certainly invalid according to the {@code ConditionTypeChecker}
+ * are not compiled at all, and candidates whose conditions are well-typed are checked by compiling
+ * only their declarations, which are shared by the candidates of the same executable member.
+ * Verdicts are looked up in and recorded to the {@code CompilationCache} of the translation, so
+ * that a source already checked is not compiled again. Objects of this class are not thread-safe;
+ * every thread should use its own batch.
+ */
+public class CompilationBatch {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(CompilationBatch.class);
+
+  /** Name of the class declared by the compiled sources. */
+  private static final String CLASS_NAME = "GeneratedSpecs";
+
+  /** The context of the translation that produced the candidates. */
+  private final TranslationContext context;
+  /** The compiler service for the class path of the translation. */
+  private final CompilerPool compiler;
+  /** The verdicts of the previous compilations. */
+  private final CompilationCache cache;
+  /** The candidates added to this batch, indexed by their identifiers. */
+  private final List<Candidate> candidates = new ArrayList<>();
+  /** Whether each candidate is compilable, indexed by the identifiers of the candidates. */
+  private final List<Boolean> verdicts = new ArrayList<>();
+  /**
+   * The candidates that are compilable if and only if their declarations are, mapped to the
+   * identifiers of the sources with only their declarations.
+   */
+  private final Map<Integer, Integer> declarationSources = new HashMap<>();
+
+  /**
+   * Creates a new empty batch.
+   *
+   * @param context the context of the translation that produces the candidates, providing the class
+   *     path
+   */
+  public CompilationBatch(TranslationContext context) {
+    this.context = context;
+    this.compiler = CompilerPool.of(context.getClassDirs());
+    this.cache = CompilationCache.of(context.getCompileCacheDir());
+  }
+
+  /**
+   * Adds to this batch the candidate precondition (or exceptional postcondition) with the given
+   * {@code Guard}.
+   *
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @return the identifier of the candidate, to be used with {@link #isCompilable(int)}
+   */
+  public int addSpecification(DocumentedExecutable method, Guard guard) {
+    return add(
+        ComplianceChecks.specificationSource(method, guard, context),
+        guard.getConditionText(),
+        new ConditionTypeChecker(method, false),
+        guard.getConditionText());
+  }
+
+  /**
+   * Adds to this batch the candidate postcondition with the given {@code Guard} and {@code
+   * Property}.
+   *
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @param property the property which condition must be checked for compliance
+   * @return the identifier of the candidate, to be used with {@link #isCompilable(int)}
+   */
+  public int addPostSpecification(DocumentedExecutable method, Guard guard, Property property) {
+    return add(
+        ComplianceChecks.postSpecificationSource(method, guard, property, context),
+        guard.getConditionText() + " ? " + property.getConditionText(),
+        new ConditionTypeChecker(method, true),
+        guard.getConditionText(),
+        property.getConditionText());
+  }
+
+  /**
+   * Adds a candidate to this batch. The verdict about the candidate is given right away if the
+   * candidate cannot be checked, if its conditions are certainly valid or certainly invalid, or if
+   * it is cached; otherwise the candidate is compiled by the next invocation of {@link #compile()}.
+   *
+   * @param source the source code exercising the conditions, null if the candidate cannot be
+   *     checked
+   * @param description the conditions of the candidate, as reported when the candidate is discarded
+   * @param checker the type checker of the conditions of the candidate
+   * @param conditions the conditions of the candidate
+   * @return the identifier of the candidate
+   */
+  private int add(
+      SourceCodeBuilder source,
+      String description,
+      ConditionTypeChecker checker,
+      String... conditions) {
+    final int id = candidates.size();
+    if (source == null) {
+      // The compliance check cannot be applied: the candidate is compilable.
+      candidates.add(null);
+      verdicts.add(true);
+      return id;
+    }
+    switch (checker.check(conditions)) {
+      case VALID:
+        candidates.add(null);
+        verdicts.add(true);
+        break;
+      case WELL_TYPED:
+        // Only the declarations are compiled, and they are shared by many candidates.
+        candidates.add(null);
+        verdicts.add(null);
+        final int declarations = addCandidate(source.withoutConditions(), description);
+        if (verdicts.get(declarations) == null) {
+          declarationSources.put(id, declarations);
+        } else {
+          verdicts.set(id, verdicts.get(declarations));
+        }
+        break;
+      case INVALID:
+        logDiscarded(description, checker.getError());
+        candidates.add(null);
+        verdicts.add(false);
+        break;
+      default:
+        addCandidate(source, description);
+    }
+    return id;
+  }
+
+  /**
+   * Adds a candidate to be compiled, unless its verdict is cached.
+   *
+   * @param source the source code exercising the conditions of the candidate
+   * @param description the conditions of the candidate, as reported when the candidate is discarded
+   * @return the identifier of the candidate
+   */
+  private int addCandidate(SourceCodeBuilder source, String description) {
+    final int id = candidates.size();
+    final Candidate candidate = new Candidate(id, source, description, compiler.getFingerprint());
+    candidates.add(candidate);
+    verdicts.add(cache.get(candidate.key));
+    return id;
+  }
+
+  /**
+   * Compiles the candidates added since the last invocation of this method whose verdict is not
+   * cached. Candidates sharing the same imports are compiled together, and candidates with the same
+   * source are compiled only once.
+   */
+  public void compile() {
+    Map<String, Candidate> compiled = new LinkedHashMap<>();
+    List<Candidate> duplicates = new ArrayList<>();
+    for (int id = 0; id < candidates.size(); id++) {
+      final Candidate candidate = candidates.get(id);
+      if (candidate != null && verdicts.get(id) == null) {
+        if (compiled.putIfAbsent(candidate.source, candidate) != null) {
+          duplicates.add(candidate);
+        }
+      }
+    }
+    Map<String, List<Candidate>> groups = new LinkedHashMap<>();
+    for (Candidate candidate : compiled.values()) {
+      groups.computeIfAbsent(candidate.header, h -> new ArrayList<>()).add(candidate);
+    }
+    for (Map.Entry<String, List<Candidate>> group : groups.entrySet()) {
+      compile(group.getKey(), group.getValue());
+    }
+    for (Candidate duplicate : duplicates) {
+      verdicts.set(duplicate.id, verdicts.get(compiled.get(duplicate.source).id));
+    }
+    for (Map.Entry<Integer, Integer> candidate : declarationSources.entrySet()) {
+      verdicts.set(candidate.getKey(), verdicts.get(candidate.getValue()));
+    }
+    declarationSources.clear();
+  }
+
+  /**
+   * Tells whether the candidate with the given identifier is compilable.
+   *
+   * @param candidate the identifier of the candidate returned when the candidate was added
+   * @return true if the candidate is compilable, false otherwise
+   * @throws IllegalStateException if the candidate has not been compiled yet
+   */
+  public boolean isCompilable(int candidate) {
+    final Boolean verdict = verdicts.get(candidate);
+    if (verdict == null) {
+      throw new IllegalStateException("Candidate " + candidate + " has not been compiled yet");
+    }
+    return verdict;
+  }
+
+  /**
+   * Compiles the given candidates, which all have the given header.
+   *
+   * @param header the common beginning of the source code of the candidates
+   * @param group the candidates to compile
+   */
+  private void compile(String header, List<Candidate> group) {
+    List<Candidate> pending = new ArrayList<>(group);
+    while (!pending.isEmpty()) {
+      if (pending.size() == 1) {
+        compileAlone(pending.get(0));
+        return;
+      }
+
+      // One method per candidate, each method starting on a new line.
+      StringBuilder source = new StringBuilder(header);
+      int[] firstLines = new int[pending.size() + 1];
+      int line = countLines(header) + 1;
+      for (int i = 0; i < pending.size(); i++) {
+        final String method = pending.get(i).builder.buildMethod("foo" + i) + "\n";
+        firstLines[i] = line;
+        line += countLines(method);
+        source.append(method);
+      }
+      firstLines[pending.size()] = line;
+      source.append("}");
+
+      final List<Diagnostic<? extends JavaFileObject>> errors;
+      try {
+        errors = compiler.compile(CLASS_NAME, source.toString());
+      } catch (Exception e) {
+        pending.forEach(this::compileAlone);
+        return;
+      }
+      if (errors.isEmpty()) {
+        pending.forEach(c -> setVerdict(c, true));
+        return;
+      }
+
+      List<Candidate> failed = new ArrayList<>();
+      for (Diagnostic<? extends JavaFileObject> error : errors) {
+        final int index = methodAt(firstLines, error.getLineNumber());
+        if (error.getSource() == null || index == -1) {
+          // The error cannot be ascribed to a candidate.
+          pending.forEach(this::compileAlone);
+          return;
+        }
+        if (!failed.contains(pending.get(index))) {
+          failed.add(pending.get(index));
+        }
+      }
+      // An error can hide other errors (e.g., syntax errors stop the compilation early) or be
+      // caused by another candidate: failed candidates are compiled on their own, the others again
+      // in a new batch.
+      failed.forEach(this::compileAlone);
+      pending.removeAll(failed);
+    }
+  }
+
+  /**
+   * Compiles the given candidate on its own and records the outcome.
+   *
+   * @param candidate the candidate to compile
+   */
+  private void compileAlone(Candidate candidate) {
+    try {
+      final List<Diagnostic<? extends JavaFileObject>> errors =
+          compiler.compile(CLASS_NAME, candidate.source);
+      if (!errors.isEmpty()) {
+        logDiscarded(
+            candidate.description,
+            errors.stream().map(Object::toString).collect(Collectors.joining("\n")));
+        setVerdict(candidate, false);
+        return;
+      }
+    } catch (Exception e) {
+      // The verdict is not cached, since the compilation may succeed the next time.
+      log.warn("Compliance check failed for " + candidate.description, e);
+      verdicts.set(candidate.id, true);
+      return;
+    }
+    setVerdict(candidate, true);
+  }
+
+  /**
+   * Records the outcome of the compilation of the given candidate, both in this batch and in the
+   * cache.
+   *
+   * @param candidate the compiled candidate
+   * @param compilable whether the candidate is compilable
+   */
+  private void setVerdict(Candidate candidate, boolean compilable) {
+    verdicts.set(candidate.id, compilable);
+    cache.put(candidate.key, compilable);
+  }
+
+  private static void logDiscarded(String description, String errors) {
+    log.info(
+        "The following specification was generated but discarded:\n"
+            + description
+            + "\n"
+            + errors
+            + "\n");
+  }
+
+  private static int countLines(String text) {
+    int lines = 0;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Returns the index of the method containing the given line.
+   *
+   * @param firstLines the first line of every method, followed by the line after the last method
+   * @param line a line of the compiled source
+   * @return the index of the method containing {@code line}, or -1 if no method contains it
+   */
+  private static int methodAt(int[] firstLines, long line) {
+    for (int i = 0; i < firstLines.length - 1; i++) {
+      if (line >= firstLines[i] && line < firstLines[i + 1]) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** A candidate specification waiting to be compiled. */
+  private static final class Candidate {
+    /** The identifier of the candidate. */
+    final int id;
+    /** The builder of the source code exercising the conditions of the candidate. */
+    final SourceCodeBuilder builder;
+    /** The beginning of the source code, shared by the candidates that can be compiled together. */
+    final String header;
+    /** The source code compiling the candidate on its own. */
+    final String source;
+    /** The key of the verdict of the candidate in the cache. */
+    final String key;
+    /** The conditions of the candidate, as reported when the candidate is discarded. */
+    final String description;
+
+    Candidate(int id, SourceCodeBuilder builder, String description, String classpathFingerprint) {
+      this.id = id;
+      this.builder = builder;
+      this.header = builder.buildHeader();
+      this.source = header + builder.buildMethod("foo") + " }";
+      this.key = CompilationCache.key(classpathFingerprint, source);
+      this.description = description;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package org.toradocu.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the verdicts of the compliance checks. A verdict tells whether a {@code GeneratedSpecs}
+ * source is compilable against a class path, and it is stored under the SHA-256 hash of the source
+ * and of the fingerprint of the class path. Verdicts are kept in memory for the whole run and, when
+ * a cache directory is given, appended to the file {@code compile-verdicts.txt} in that directory,
+ * so that they are reused by the following runs. Objects of this class can be shared by multiple
+ * threads.
+ */
+public final class CompilationCache {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(CompilationCache.class);
+
+  /** Name of the file, in the cache directory, storing the verdicts. */
+  private static final String VERDICTS_FILE = "compile-verdicts.txt";
+
+  /** The cache of every cache directory; the key of the in-memory only cache is the empty path. */
+  private static final Map<Path, CompilationCache> caches = new ConcurrentHashMap<>();
+
+  /** The verdicts, indexed by the hexadecimal hash of source and class path. */
+  private final Map<String, Boolean> verdicts = new ConcurrentHashMap<>();
+  /** Writer of the verdicts file, null if verdicts are not persisted. */
+  private final BufferedWriter writer;
+  /** Number of lookups that found a verdict. */
+  private final AtomicLong hits = new AtomicLong();
+  /** Number of lookups that did not find a verdict. */
+  private final AtomicLong misses = new AtomicLong();
+
+  private CompilationCache(Path directory) {
+    BufferedWriter verdictsWriter = null;
+    if (!directory.toString().isEmpty()) {
+      final Path file = directory.resolve(VERDICTS_FILE);
+      try {
+        Files.createDirectories(directory);
+        if (Files.exists(file)) {
+          load(file);
+        }
+        verdictsWriter =
+            Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      } catch (IOException e) {
+        log.error("Unable to use the compilation cache in " + directory, e);
+      }
+    }
+    writer = verdictsWriter;
+  }
+
+  /**
+   * Returns the cache persisting the verdicts in the given directory.
+   *
+   * @param directory the directory where verdicts are persisted, null to keep verdicts only in
+   *     memory
+   * @return the cache persisting the verdicts in {@code directory}
+   */
+  public static CompilationCache of(Path directory) {
+    final Path key = directory == null ? Paths.get("") : directory.toAbsolutePath().normalize();
+    return caches.computeIfAbsent(key, CompilationCache::new);
+  }
+
+  private void load(Path file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] fields = line.split(" ");
+        if (fields.length == 2 && (fields[1].equals("0") || fields[1].equals("1"))) {
+          verdicts.put(fields[0], fields[1].equals("1"));
+        } // else: the line was truncated by an interrupted run.
+      }
+    }
+  }
+
+  /**
+   * Returns the key of the given source compiled against the class path with the given fingerprint.
+   *
+   * @param classpathFingerprint the fingerprint of the class path
+   * @param source the compiled source
+   * @return the key identifying the verdict of the compilation
+   */
+  public static String key(String classpathFingerprint, String source) {
+    return sha256(classpathFingerprint, source);
+  }
+
+  /**
+   * Returns the hexadecimal SHA-256 hash of the given strings.
+   *
+   * @param parts the strings to hash
+   * @return the hexadecimal SHA-256 hash of {@code parts}
+   */
+  public static String sha256(String... parts) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is supported by every Java platform", e);
+    }
+    for (String part : parts) {
+      digest.update(part.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Returns the verdict stored under the given key.
+   *
+   * @param key the key of the verdict
+   * @return true if the source is compilable, false if it is not, null if the verdict is unknown
+   */
+  public Boolean get(String key) {
+    final Boolean verdict = verdicts.get(key);
+    (verdict == null ? misses : hits).incrementAndGet();
+    return verdict;
+  }
+
+  /**
+   * Stores the given verdict under the given key.
+   *
+   * @param key the key of the verdict
+   * @param compilable whether the source is compilable
+   */
+  public void put(String key, boolean compilable) {
+    if (verdicts.putIfAbsent(key, compilable) == null && writer != null) {
+      synchronized (writer) {
+        try {
+          writer.write(key + " " + (compilable ? "1" : "0"));
+          writer.newLine();
+          writer.flush();
+        } catch (IOException e) {
+          log.error("Unable to persist a compilation verdict", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of lookups that found a verdict.
+   *
+   * @return the number of lookups that found a verdict
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups that did not find a verdict.
+   *
+   * @return the number of lookups that did not find a verdict
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Returns a description of the hit rate of this cache.
+   *
+   * @return a description of the hit rate of this cache
+   */
+  public String getStatistics() {
+    final long hits = getHits();
+    final long lookups = hits + getMisses();
+    return String.format(
+        "Compilation cache: %d hits out of %d lookups (%.1f%%), %d verdicts cached",
+        hits, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups, verdicts.size());
+  }
+}
@@ -0,0 +1,292 @@
+package org.toradocu.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+/**
+ * Long-lived compiler service for a given class path. The service keeps the system {@code
+ * JavaCompiler} and a pool of file managers whose class path is set once: a file manager keeps the
+ * class path archives open and indexed across compilations, so that only the first compilation pays
+ * for scanning the class path. File managers are not thread-safe, hence every compilation borrows a
+ * file manager from the pool and gives it back when done. The service can be used from several
+ * threads.
+ *
+ * <p>The class path may change while the service is alive (e.g., classes are recompiled while
+ * Toradocu runs as a server): {@link #refresh()} recomputes the fingerprint of the class path and,
+ * if it changed, discards the file managers, whose indexes of the class path are stale. Computing
+ * the fingerprint visits every file of the class path, hence the server refreshes the class path
+ * once per request, while a batch run, whose class path does not change, never refreshes it.
+ */
+public final class CompilerPool {
+
+  /** The services of every class path, so that file managers are shared by all the translations. */
+  private static final Map<List<String>, CompilerPool> pools = new ConcurrentHashMap<>();
+
+  /** Maximum number of idle file managers kept by a pool. */
+  private static final int MAX_IDLE_FILE_MANAGERS = Runtime.getRuntime().availableProcessors();
+
+  /** The system Java compiler, null if the running Java platform is not a JDK. */
+  private static final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+  /** The class path used by the compilations. */
+  private final List<File> classpath;
+  /** Fingerprint of the class path, computed on first use and by {@code refresh}. */
+  private volatile String fingerprint;
+  /** Number of times the class path changed, i.e., the version of the current file managers. */
+  private volatile int version;
+  /** File managers not in use, with the version of the class path they were created for. */
+  private final BlockingQueue<PooledFileManager> idleFileManagers =
+      new LinkedBlockingQueue<>(MAX_IDLE_FILE_MANAGERS);
+
+  private CompilerPool(List<String> classpath) {
+    this.classpath = classpath.stream().map(File::new).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the compiler service for the given class path.
+   *
+   * @param classDirs the class path of the compilations
+   * @return the compiler service compiling against {@code classDirs}
+   */
+  public static CompilerPool of(List<URL> classDirs) {
+    final List<String> classpath = new ArrayList<>();
+    for (URL url : classDirs) {
+      classpath.add(url.getPath());
+    }
+    return pools.computeIfAbsent(classpath, CompilerPool::new);
+  }
+
+  /**
+   * Returns the fingerprint of the class path of this service, as computed by the latest {@link
+   * #refresh()} (or on first use).
+   *
+   * @return the fingerprint of the class path
+   */
+  public String getFingerprint() {
+    String result = fingerprint;
+    if (result == null) {
+      synchronized (this) {
+        result = fingerprint;
+        if (result == null) {
+          result = computeFingerprint();
+          fingerprint = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the version of the class path of this service, i.e., the number of times {@link
+   * #refresh()} found that the class path changed. Whatever depends on the content of the class
+   * path (e.g., loaded classes) is stale once the version changes.
+   *
+   * @return the version of the class path
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Recomputes the fingerprint of the class path of this service. If the class path changed since
+   * the fingerprint was last computed, the file managers are discarded: the ones in use are closed
+   * when they are given back.
+   */
+  public synchronized void refresh() {
+    final String current = computeFingerprint();
+    if (fingerprint != null && !fingerprint.equals(current)) {
+      version++;
+      PooledFileManager idle;
+      while ((idle = idleFileManagers.poll()) != null) {
+        closeQuietly(idle.fileManager);
+      }
+    }
+    fingerprint = current;
+  }
+
+  /**
+   * Computes the fingerprint of the class path of this service. The fingerprint is a hash of the
+   * entries of the class path and of the name, size, and last modification time of every file they
+   * contain, so that it changes whenever a class is recompiled or a jar is replaced.
+   *
+   * @return the fingerprint of the class path
+   */
+  private String computeFingerprint() {
+    StringBuilder description = new StringBuilder();
+    for (File entry : classpath) {
+      description.append(entry.getAbsolutePath()).append('\n');
+      final Path root = entry.toPath();
+      if (!Files.exists(root)) {
+        continue;
+      }
+      try (Stream<Path> files = Files.walk(root)) {
+        files
+            .filter(Files::isRegularFile)
+            .sorted()
+            .forEach(
+                file -> {
+                  final File f = file.toFile();
+                  description
+                      .append(root.relativize(file))
+                      .append(' ')
+                      .append(f.length())
+                      .append(' ')
+                      .append(f.lastModified())
+                      .append('\n');
+                });
+      } catch (IOException | UncheckedIOException e) {
+        // An unreadable entry is identified by its path only.
+      }
+    }
+    return CompilationCache.sha256(description.toString());
+  }
+
+  private static void closeQuietly(StandardJavaFileManager fileManager) {
+    try {
+      fileManager.close();
+    } catch (IOException e) {
+      // The file manager is discarded anyway.
+    }
+  }
+
+  /**
+   * Compiles the given source code, discarding the generated class files.
+   *
+   * @param className the name of the (only) top level class declared by {@code sourceCode}
+   * @param sourceCode the source code to compile
+   * @return the compilation errors, empty if the compilation was successful
+   * @throws IOException if the compiler cannot access the class path
+   * @throws IllegalStateException if the running Java platform provides no compiler
+   */
+  public List<Diagnostic<? extends JavaFileObject>> compile(String className, String sourceCode)
+      throws IOException {
+    if (compiler == null) {
+      throw new IllegalStateException("No Java compiler available: a JDK is required");
+    }
+    PooledFileManager pooled = idleFileManagers.poll();
+    while (pooled != null && pooled.version != version) {
+      // Given back while the class path was changing.
+      closeQuietly(pooled.fileManager);
+      pooled = idleFileManagers.poll();
+    }
+    if (pooled == null) {
+      final int currentVersion = version;
+      final StandardJavaFileManager newFileManager =
+          compiler.getStandardFileManager(null, null, null);
+      newFileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+      pooled = new PooledFileManager(newFileManager, currentVersion);
+    }
+    final StandardJavaFileManager fileManager = pooled.fileManager;
+
+    boolean reusable = false;
+    try {
+      DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+      compiler
+          .getTask(
+              null,
+              new DiscardingFileManager(fileManager),
+              diagnostics,
+              null,
+              null,
+              Collections.singletonList(new SourceFile(className, sourceCode)))
+          .call();
+      reusable = true;
+      return diagnostics
+          .getDiagnostics()
+          .stream()
+          .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+          .collect(Collectors.toList());
+    } finally {
+      // A file manager is given back only if the compilation completed, if the class path did not
+      // change meanwhile, and if the pool is not full.
+      if (!reusable || pooled.version != version || !idleFileManagers.offer(pooled)) {
+        fileManager.close();
+      }
+    }
+  }
+
+  /** A file manager of the pool, along with the version of the class path it was created for. */
+  private static final class PooledFileManager {
+    final StandardJavaFileManager fileManager;
+    final int version;
+
+    PooledFileManager(StandardJavaFileManager fileManager, int version) {
+      this.fileManager = fileManager;
+      this.version = version;
+    }
+  }
+
+  /** Source file whose content is held in memory. */
+  private static final class SourceFile extends SimpleJavaFileObject {
+    /** The source code. */
+    private final String sourceCode;
+
+    SourceFile(String className, String sourceCode) {
+      super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+      this.sourceCode = sourceCode;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return sourceCode;
+    }
+  }
+
+  /**
+   * File manager discarding the class files generated by the compiler. Closing this file manager
+   * does not close the underlying file manager, which is then reused by the following compilations.
+   */
+  private static final class DiscardingFileManager
+      extends ForwardingJavaFileManager<JavaFileManager> {
+
+    DiscardingFileManager(JavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+      return new SimpleJavaFileObject(URI.create("mem:///" + className + kind.extension), kind) {
+        @Override
+        public OutputStream openOutputStream() {
+          return new OutputStream() {
+            @Override
+            public void write(int b) {}
+
+            @Override
+            public void write(byte[] b, int off, int len) {}
+          };
+        }
+      };
+    }
+
+    @Override
+    public void close() {}
+  }
+}
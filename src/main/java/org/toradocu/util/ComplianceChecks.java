@@ -2,119 +2,100 @@ package org.toradocu.util;
 
 import java.io.File;
 import java.lang.reflect.Modifier;
-import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.mdkt.compiler.CompilationException;
-import org.mdkt.compiler.InMemoryJavaCompiler;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.translator.TranslationContext;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.Property;
 
 public class ComplianceChecks {
 
-  /** Logger of this class. */
-  private static final Logger log = LoggerFactory.getLogger(ComplianceChecks.class);
-
   /**
    * Tries to compile the boolean condition in the given {@code Guard} and tells whether the
-   * compilation was successful.
+   * compilation was successful. To check many conditions at once, use a {@code CompilationBatch}.
    *
    * @param method documented executable the guard belongs to
    * @param guard the guard which condition must be checked for compliance
+   * @param context the context of the translation that produced the guard
    * @return true if the condition was compilable, false otherwise
    */
-  public static boolean isSpecCompilable(DocumentedExecutable method, Guard guard) {
-    if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
-      // if the target class is private we cannot apply compliance check.
-      return true;
-    }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return true;
+  public static boolean isSpecCompilable(
+      DocumentedExecutable method, Guard guard, TranslationContext context) {
+    CompilationBatch batch = new CompilationBatch(context);
+    int candidate = batch.addSpecification(method, guard);
+    batch.compile();
+    return batch.isCompilable(candidate);
   }
 
   /**
    * Tries to compile the boolean conditions in the given {@code Guard} and {@code Property} and
-   * tells whether the compilation was successful.
+   * tells whether the compilation was successful. To check many conditions at once, use a {@code
+   * CompilationBatch}.
    *
    * @param method documented executable the guard belongs to
    * @param guard the guard which condition must be checked for compliance
    * @param property the property which condition must be checked for compliance
+   * @param context the context of the translation that produced the guard and the property
    * @return true if the condition was compilable, false otherwise
    */
   public static boolean isPostSpecCompilable(
-      DocumentedExecutable method, Guard guard, Property property) {
+      DocumentedExecutable method, Guard guard, Property property, TranslationContext context) {
+    CompilationBatch batch = new CompilationBatch(context);
+    int candidate = batch.addPostSpecification(method, guard, property);
+    batch.compile();
+    return batch.isCompilable(candidate);
+  }
+
+  /**
+   * Builds the source code exercising the condition in the given {@code Guard}.
+   *
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @param context the context of the translation that produced the guard
+   * @return the source code exercising the condition, or null if the compliance check cannot be
+   *     applied
+   */
+  static SourceCodeBuilder specificationSource(
+      DocumentedExecutable method, Guard guard, TranslationContext context) {
     if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
       // if the target class is private we cannot apply compliance check.
-      return true;
+      return null;
     }
     SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    String methodReturnType = method.getReturnType().getType().getTypeName();
-    if (!methodReturnType.equals("void")) {
-      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
-    }
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + " ? "
-              + property.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return true;
+    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder, context);
+    return sourceCodeBuilder;
   }
 
   /**
-   * Invokes the in-memory compiler on the given source code.
+   * Builds the source code exercising the conditions in the given {@code Guard} and {@code
+   * Property}.
    *
-   * @param sourceCode source code to be compiled
-   * @throws Exception if the compiler encounters problems
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @param property the property which condition must be checked for compliance
+   * @param context the context of the translation that produced the guard and the property
+   * @return the source code exercising the conditions, or null if the compliance check cannot be
+   *     applied
    */
-  private static void compileSource(String sourceCode) throws Exception {
-    InMemoryJavaCompiler compiler = InMemoryJavaCompiler.newInstance();
-    compiler.ignoreWarnings();
-    List<String> classpath = new ArrayList<>();
-    for (URL url : Configuration.INSTANCE.classDirs) {
-      classpath.add(url.getPath());
+  static SourceCodeBuilder postSpecificationSource(
+      DocumentedExecutable method, Guard guard, Property property, TranslationContext context) {
+    if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
+      // if the target class is private we cannot apply compliance check.
+      return null;
     }
-    compiler.useOptions("-cp", String.join(":", classpath));
-    compiler.compile("GeneratedSpecs", sourceCode);
+    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
+    String methodReturnType = method.getReturnType().getType().getTypeName();
+    if (!methodReturnType.equals("void")) {
+      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
+    }
+    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder, context);
+    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder, context);
+    return sourceCodeBuilder;
   }
 
   /**
@@ -146,16 +127,19 @@ public class ComplianceChecks {
    * @param method the method which specifications must be compiled
    * @param sourceCodeBuilder {@code SourceCodeBuilder} object that wraps the source code
    * @param conditionText condition text
+   * @param context the context of the translation, providing the source directory
    */
   private static void importClassesInInstanceOf(
-      DocumentedExecutable method, SourceCodeBuilder sourceCodeBuilder, String conditionText) {
+      DocumentedExecutable method,
+      SourceCodeBuilder sourceCodeBuilder,
+      String conditionText,
+      TranslationContext context) {
     Matcher matcher = Pattern.compile(" instanceof ([A-Z][A-Za-z]+)").matcher(conditionText);
     while (matcher.find()) {
       String className = matcher.group(1);
 
-      Configuration configuration = Configuration.INSTANCE;
       final String sourceFile =
-          configuration.sourceDir.toString()
+          context.getSourceDir().toString()
               + File.separator
               + method.getDeclaringClass().getCanonicalName().replaceAll("\\.", File.separator)
               + ".java";
@@ -176,12 +160,16 @@ public class ComplianceChecks {
    * @param method documented executable the guard belongs to
    * @param conditionText the condition text
    * @param sourceCodeBuilder {@code SourceCodeBuilder} object that wraps the source code
+   * @param context the context of the translation
    */
   private static void addConditionCodeInformation(
-      DocumentedExecutable method, String conditionText, SourceCodeBuilder sourceCodeBuilder) {
+      DocumentedExecutable method,
+      String conditionText,
+      SourceCodeBuilder sourceCodeBuilder,
+      TranslationContext context) {
     String substitutedText = substituteArgs(sourceCodeBuilder, method, conditionText);
     sourceCodeBuilder.addCondition(substitutedText);
-    importClassesInInstanceOf(method, sourceCodeBuilder, substitutedText);
+    importClassesInInstanceOf(method, sourceCodeBuilder, substitutedText, context);
   }
 
   /**
@@ -0,0 +1,844 @@
+package org.toradocu.util;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.expr.ArrayAccessExpr;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
+import com.github.javaparser.ast.expr.CharLiteralExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.expr.DoubleLiteralExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.InstanceOfExpr;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.expr.LongLiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+
+/**
+ * Fast type checker of the conditions of a candidate specification, used before compiling the
+ * candidate. Conditions are parsed with JavaParser and their names and members are resolved with
+ * reflection against the target class, the parameters, and the result of the documented executable.
+ *
+ * <p>The checker is conservative: a condition is {@link Verdict#INVALID} only if it certainly does
+ * not compile (e.g., it invokes a method that does not exist, or with the wrong number of
+ * arguments, or it compares a non-numeric value with {@code <}), and it is {@link Verdict#VALID}
+ * only if every part of it is fully resolved and the source exercising it certainly compiles. When
+ * the conditions are fully resolved but the declarations of the variables they use are not simple
+ * enough to be sure that they compile, the verdict is {@link Verdict#WELL_TYPED}. In any other case
+ * the verdict is {@link Verdict#UNKNOWN} and the candidate must be compiled. An object of this
+ * class checks the conditions of a single candidate.
+ */
+public final class ConditionTypeChecker {
+
+  /** The outcome of a check. */
+  public enum Verdict {
+    /** The conditions certainly compile. */
+    VALID,
+    /**
+     * The conditions are well-typed, but the declarations of the variables they use might not
+     * compile (e.g., because they are generic): the conditions compile if and only if the
+     * declarations do.
+     */
+    WELL_TYPED,
+    /** The conditions certainly do not compile. */
+    INVALID,
+    /** The conditions must be compiled to know whether they are valid. */
+    UNKNOWN
+  }
+
+  /** Number of checks with each verdict, indexed by the ordinal of the verdict. */
+  private static final AtomicLongArray verdictCounts = new AtomicLongArray(Verdict.values().length);
+
+  /** The methods of every class and its supertypes, indexed by name. */
+  private static final ClassValue<Map<String, List<Method>>> methods =
+      new ClassValue<Map<String, List<Method>>>() {
+        @Override
+        protected Map<String, List<Method>> computeValue(Class<?> type) {
+          Map<String, List<Method>> methods = new HashMap<>();
+          for (Class<?> supertype : supertypes(type)) {
+            for (Method method : supertype.getDeclaredMethods()) {
+              methods.computeIfAbsent(method.getName(), n -> new ArrayList<>()).add(method);
+            }
+          }
+          return methods;
+        }
+      };
+
+  /** The fields of every class and its supertypes, indexed by name. */
+  private static final ClassValue<Map<String, List<Field>>> fields =
+      new ClassValue<Map<String, List<Field>>>() {
+        @Override
+        protected Map<String, List<Field>> computeValue(Class<?> type) {
+          Map<String, List<Field>> fields = new HashMap<>();
+          for (Class<?> supertype : supertypes(type)) {
+            for (Field field : supertype.getDeclaredFields()) {
+              fields.computeIfAbsent(field.getName(), n -> new ArrayList<>()).add(field);
+            }
+          }
+          return fields;
+        }
+      };
+
+  /** The boxed type of every primitive type. */
+  private static final Map<Class<?>, Class<?>> boxedTypes = new HashMap<>();
+  /** The primitive type of every boxed type. */
+  private static final Map<Class<?>, Class<?>> primitiveTypes = new HashMap<>();
+  /** The numeric primitive types, each followed by the types it widens to. */
+  private static final List<Class<?>> numericTypes =
+      Arrays.asList(byte.class, short.class, int.class, long.class, float.class, double.class);
+
+  static {
+    List<Class<?>> primitives =
+        Arrays.asList(
+            boolean.class,
+            byte.class,
+            short.class,
+            char.class,
+            int.class,
+            long.class,
+            float.class,
+            double.class);
+    List<Class<?>> boxes =
+        Arrays.asList(
+            Boolean.class,
+            Byte.class,
+            Short.class,
+            Character.class,
+            Integer.class,
+            Long.class,
+            Float.class,
+            Double.class);
+    for (int i = 0; i < primitives.size(); i++) {
+      boxedTypes.put(primitives.get(i), boxes.get(i));
+      primitiveTypes.put(boxes.get(i), primitives.get(i));
+    }
+  }
+
+  /** Marker of the type of {@code null}. */
+  private static final class NullType {}
+
+  /** Signals a condition that certainly does not compile. */
+  private static final class InvalidConditionException extends Exception {
+    InvalidConditionException(String message) {
+      super(message);
+    }
+  }
+
+  /** The documented executable the conditions belong to. */
+  private final DocumentedExecutable method;
+  /** Whether the conditions can refer to the result of the executable. */
+  private final boolean withResult;
+  /** Whether every part of the conditions checked so far has been fully resolved. */
+  private boolean resolved;
+  /** Whether the declarations of the variables used so far by the conditions certainly compile. */
+  private boolean plainDeclarations;
+  /** Why the conditions are invalid, null if they are not invalid. */
+  private String error;
+
+  /**
+   * Creates a checker of the conditions of a candidate specification of the given executable.
+   *
+   * @param method the documented executable the conditions belong to
+   * @param withResult true if the conditions belong to a postcondition and can thus refer to the
+   *     result of {@code method}, false otherwise
+   */
+  public ConditionTypeChecker(DocumentedExecutable method, boolean withResult) {
+    this.method = method;
+    this.withResult = withResult;
+  }
+
+  /**
+   * Checks the given conditions, which are compiled together as the conditions of one candidate.
+   *
+   * @param conditions the conditions of the candidate, referring to the parameters with the {@code
+   *     args[n]} notation
+   * @return the verdict about the compilability of {@code conditions}
+   */
+  public Verdict check(String... conditions) {
+    final Verdict verdict = checkConditions(conditions);
+    verdictCounts.incrementAndGet(verdict.ordinal());
+    return verdict;
+  }
+
+  /**
+   * Returns why the checked conditions do not compile.
+   *
+   * @return why the checked conditions do not compile, null if they are not invalid
+   */
+  public String getError() {
+    return error;
+  }
+
+  /**
+   * Returns a description of the verdicts given by all the checkers.
+   *
+   * @return a description of the verdicts given by all the checkers
+   */
+  public static String getStatistics() {
+    return String.format(
+        "Condition type checker: %d candidates accepted, %d accepted if their declarations compile,"
+            + " %d rejected, %d left to the compiler",
+        verdictCounts.get(Verdict.VALID.ordinal()),
+        verdictCounts.get(Verdict.WELL_TYPED.ordinal()),
+        verdictCounts.get(Verdict.INVALID.ordinal()),
+        verdictCounts.get(Verdict.UNKNOWN.ordinal()));
+  }
+
+  private Verdict checkConditions(String[] conditions) {
+    resolved = true;
+    plainDeclarations = hasPlainDeclarations();
+    try {
+      for (String condition : conditions) {
+        if (condition == null) {
+          resolved = false;
+          continue;
+        }
+        final Expression expression;
+        try {
+          expression = JavaParser.parseExpression(condition);
+        } catch (ParseProblemException e) {
+          resolved = false;
+          continue;
+        }
+        final Class<?> type = typeOf(expression);
+        if (type == null) {
+          resolved = false;
+        } else if (!isBoolean(type)) {
+          throw new InvalidConditionException(
+              "incompatible types: " + type.getName() + " cannot be converted to boolean");
+        }
+      }
+    } catch (InvalidConditionException e) {
+      error = e.getMessage();
+      return Verdict.INVALID;
+    } catch (LinkageError e) {
+      // Some classes referenced by the signatures of the members cannot be loaded.
+      return Verdict.UNKNOWN;
+    }
+    if (!resolved) {
+      return Verdict.UNKNOWN;
+    }
+    return plainDeclarations ? Verdict.VALID : Verdict.WELL_TYPED;
+  }
+
+  /**
+   * Tells whether the source code exercising the conditions certainly compiles when the conditions
+   * are well-typed, as far as the declarations of the receiver and of the result are concerned.
+   *
+   * @return true if the declarations of receiver and result certainly compile, false otherwise
+   */
+  private boolean hasPlainDeclarations() {
+    final Class<?> declaringClass = method.getDeclaringClass();
+    if (declaringClass.getPackage() == null
+        || declaringClass.getPackage().getName().isEmpty()
+        || declaringClass.getSimpleName().equals("GeneratedSpecs")
+        || declaringClass.getTypeParameters().length > 0
+        || method.getExecutable().getTypeParameters().length > 0
+        || !isDeclarable(declaringClass)) {
+      return false;
+    }
+    for (DocumentedParameter parameter : method.getParameters()) {
+      final String name = parameter.getName();
+      if (name.equals(Configuration.RECEIVER) || name.equals(Configuration.RETURN_VALUE)) {
+        return false;
+      }
+    }
+    return !hasResult() || isDeclarable(method.getReturnType().getType());
+  }
+
+  private boolean hasResult() {
+    return withResult && !method.getReturnType().getType().getTypeName().equals("void");
+  }
+
+  /**
+   * Tells whether the given type can be used in a declaration of the compiled source code: it must
+   * be neither generic nor parameterized, and it must be public and loaded from the class path of
+   * the compiler.
+   *
+   * @param type the declared type
+   * @return true if {@code type} can certainly be used in a declaration, false otherwise
+   */
+  private boolean isDeclarable(Type type) {
+    if (!(type instanceof Class)) {
+      return false;
+    }
+    Class<?> aClass = (Class<?>) type;
+    while (aClass.isArray()) {
+      aClass = aClass.getComponentType();
+    }
+    if (aClass.isPrimitive()) {
+      return true;
+    }
+    final ClassLoader loader = aClass.getClassLoader();
+    if (loader != null
+        && (loader != method.getDeclaringClass().getClassLoader()
+            || loader == ConditionTypeChecker.class.getClassLoader())) {
+      // Classes found on the class path of Toradocu are not on the class path of the compiler.
+      return false;
+    }
+    if (aClass.getCanonicalName() == null) {
+      return false;
+    }
+    for (Class<?> c = aClass; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the static type of the given expression, checking its subexpressions.
+   *
+   * @param expression the expression to type
+   * @return the static type of {@code expression} (erased), or null if it cannot be determined
+   * @throws InvalidConditionException if {@code expression} certainly does not compile
+   */
+  private Class<?> typeOf(Expression expression) throws InvalidConditionException {
+    if (expression instanceof EnclosedExpr) {
+      return typeOf(((EnclosedExpr) expression).getInner());
+    } else if (expression instanceof NullLiteralExpr) {
+      return NullType.class;
+    } else if (expression instanceof BooleanLiteralExpr) {
+      return boolean.class;
+    } else if (expression instanceof IntegerLiteralExpr) {
+      try {
+        ((IntegerLiteralExpr) expression).asInt();
+        return int.class;
+      } catch (NumberFormatException e) {
+        return unresolved();
+      }
+    } else if (expression instanceof LongLiteralExpr) {
+      return long.class;
+    } else if (expression instanceof DoubleLiteralExpr) {
+      final String value = ((DoubleLiteralExpr) expression).getValue();
+      return value.endsWith("f") || value.endsWith("F") ? float.class : double.class;
+    } else if (expression instanceof CharLiteralExpr) {
+      return char.class;
+    } else if (expression instanceof StringLiteralExpr) {
+      return String.class;
+    } else if (expression instanceof NameExpr) {
+      return typeOf((NameExpr) expression);
+    } else if (expression instanceof ArrayAccessExpr) {
+      return typeOf((ArrayAccessExpr) expression);
+    } else if (expression instanceof FieldAccessExpr) {
+      return typeOf((FieldAccessExpr) expression);
+    } else if (expression instanceof MethodCallExpr) {
+      return typeOf((MethodCallExpr) expression);
+    } else if (expression instanceof UnaryExpr) {
+      return typeOf((UnaryExpr) expression);
+    } else if (expression instanceof BinaryExpr) {
+      return typeOf((BinaryExpr) expression);
+    } else if (expression instanceof ConditionalExpr) {
+      return typeOf((ConditionalExpr) expression);
+    } else if (expression instanceof InstanceOfExpr) {
+      // The instanceof type is resolved through the imports of the compiled source.
+      typeOf(((InstanceOfExpr) expression).getExpression());
+      resolved = false;
+      return boolean.class;
+    }
+    // Lambdas, casts, object creations, and so on are left to the compiler.
+    return unresolved();
+  }
+
+  private Class<?> typeOf(NameExpr name) throws InvalidConditionException {
+    final String identifier = name.getNameAsString();
+    if (identifier.equals(Configuration.RECEIVER)) {
+      return method.getDeclaringClass();
+    }
+    if (identifier.equals(Configuration.RETURN_VALUE)) {
+      if (hasResult()) {
+        return typeOfDeclared(method.getReturnType().getType());
+      }
+      for (DocumentedParameter parameter : method.getParameters()) {
+        if (parameter.getName().equals(identifier)) {
+          return unresolved();
+        }
+      }
+      throw new InvalidConditionException("cannot find symbol: variable " + identifier);
+    }
+    // Other names can refer to classes or packages.
+    return unresolved();
+  }
+
+  private Class<?> typeOf(ArrayAccessExpr access) throws InvalidConditionException {
+    final Type parameterType = declaredType(access);
+    if (parameterType != null) {
+      return typeOfDeclared(parameterType);
+    }
+
+    final Class<?> arrayType = typeOf(access.getName());
+    final Class<?> indexType = typeOf(access.getIndex());
+    if (arrayType != null && arrayType != NullType.class && !arrayType.isArray()) {
+      throw new InvalidConditionException("array required, but " + arrayType.getName() + " found");
+    }
+    if (indexType == null || !isNumeric(indexType)) {
+      resolved = false;
+    }
+    return arrayType == null || arrayType == NullType.class
+        ? unresolved()
+        : arrayType.getComponentType();
+  }
+
+  private Class<?> typeOf(FieldAccessExpr access) throws InvalidConditionException {
+    final Class<?> scopeType = typeOf(access.getScope());
+    final String name = access.getNameAsString();
+    if (scopeType == null || scopeType == NullType.class) {
+      return unresolved();
+    }
+    if (scopeType.isPrimitive()) {
+      throw new InvalidConditionException(scopeType.getName() + " cannot be dereferenced");
+    }
+    if (scopeType.isArray()) {
+      if (!name.equals("length")) {
+        throw new InvalidConditionException("cannot find symbol: variable " + name);
+      }
+      return int.class;
+    }
+    final List<Field> candidates =
+        fields.get(scopeType).getOrDefault(name, Collections.emptyList());
+    if (candidates.isEmpty()) {
+      throw new InvalidConditionException(
+          "cannot find symbol: variable " + name + " in " + scopeType.getName());
+    }
+    if (candidates.size() > 1 || !Modifier.isPublic(candidates.get(0).getModifiers())) {
+      return unresolved();
+    }
+    return typeOfDeclared(candidates.get(0).getGenericType());
+  }
+
+  private Class<?> typeOf(MethodCallExpr call) throws InvalidConditionException {
+    final Class<?> scopeType = call.getScope().isPresent() ? typeOf(call.getScope().get()) : null;
+    final List<Class<?>> argumentTypes = new ArrayList<>();
+    for (Expression argument : call.getArguments()) {
+      argumentTypes.add(typeOf(argument));
+    }
+    if (scopeType == null || scopeType == NullType.class || call.getTypeArguments().isPresent()) {
+      return unresolved();
+    }
+    final String name = call.getNameAsString();
+    if (scopeType.isPrimitive()) {
+      throw new InvalidConditionException(scopeType.getName() + " cannot be dereferenced");
+    }
+    if (scopeType.isArray() && name.equals("clone")) {
+      return unresolved();
+    }
+
+    final List<Method> named =
+        methods.get(scopeType.isArray() ? Object.class : scopeType).get(name);
+    if (named == null) {
+      throw new InvalidConditionException(
+          "cannot find symbol: method " + name + " in " + scopeType.getName());
+    }
+    final int arity = argumentTypes.size();
+    List<Method> candidates = new ArrayList<>();
+    for (Method candidate : named) {
+      final int parameters = candidate.getParameterCount();
+      if (parameters == arity || (candidate.isVarArgs() && arity >= parameters - 1)) {
+        candidates.add(candidate);
+      }
+    }
+    if (candidates.isEmpty()) {
+      throw new InvalidConditionException(
+          "method " + name + " in " + scopeType.getName() + " cannot take " + arity + " arguments");
+    }
+
+    // The invoked method is known only if all the accessible candidates override each other.
+    Method invoked = null;
+    for (Method candidate : candidates) {
+      if (candidate.isBridge() || candidate.isSynthetic()) {
+        continue;
+      }
+      final int modifiers = candidate.getModifiers();
+      if (candidate.isVarArgs()
+          || (!Modifier.isPublic(modifiers) && !Modifier.isPrivate(modifiers))) {
+        return unresolved();
+      }
+      if (Modifier.isPrivate(modifiers)) {
+        continue;
+      }
+      if (invoked == null) {
+        invoked = candidate;
+      } else if (!Arrays.equals(invoked.getParameterTypes(), candidate.getParameterTypes())) {
+        return unresolved();
+      } else if (invoked.getReturnType().isAssignableFrom(candidate.getReturnType())) {
+        invoked = candidate;
+      } else if (!candidate.getReturnType().isAssignableFrom(invoked.getReturnType())) {
+        return unresolved();
+      }
+    }
+    if (invoked == null) {
+      return unresolved();
+    }
+    if (invoked.getReturnType() == void.class) {
+      throw new InvalidConditionException("'void' type not allowed here: " + call);
+    }
+
+    final Type[] parameterTypes = invoked.getGenericParameterTypes();
+    for (int i = 0; i < arity; i++) {
+      if (!(parameterTypes[i] instanceof Class)
+          || argumentTypes.get(i) == null
+          || !isConvertible(argumentTypes.get(i), (Class<?>) parameterTypes[i])) {
+        resolved = false;
+      }
+    }
+    return typeOfDeclared(invoked.getGenericReturnType());
+  }
+
+  private Class<?> typeOf(UnaryExpr unary) throws InvalidConditionException {
+    final Class<?> type = typeOf(unary.getExpression());
+    switch (unary.getOperator()) {
+      case LOGICAL_COMPLEMENT:
+        if (type != null && !isBoolean(type)) {
+          throw invalidOperand(unary.getOperator().asString(), type);
+        }
+        return boolean.class;
+      case PLUS:
+      case MINUS:
+        if (type != null && !isNumeric(type)) {
+          throw invalidOperand(unary.getOperator().asString(), type);
+        }
+        return type == null ? unresolved() : promote(type, int.class);
+      default:
+        return unresolved();
+    }
+  }
+
+  private Class<?> typeOf(BinaryExpr binary) throws InvalidConditionException {
+    if ((binary.getOperator() == BinaryExpr.Operator.EQUALS
+            || binary.getOperator() == BinaryExpr.Operator.NOT_EQUALS)
+        && isNullCheckOfVariable(binary)) {
+      return boolean.class;
+    }
+    final Class<?> left = typeOf(binary.getLeft());
+    final Class<?> right = typeOf(binary.getRight());
+    final String operator = binary.getOperator().asString();
+    switch (binary.getOperator()) {
+      case AND:
+      case OR:
+        for (Class<?> operand : Arrays.asList(left, right)) {
+          if (operand == null) {
+            resolved = false;
+          } else if (!isBoolean(operand)) {
+            throw invalidOperand(operator, operand);
+          }
+        }
+        return boolean.class;
+      case LESS:
+      case LESS_EQUALS:
+      case GREATER:
+      case GREATER_EQUALS:
+        for (Class<?> operand : Arrays.asList(left, right)) {
+          if (operand == null) {
+            resolved = false;
+          } else if (!isNumeric(operand)) {
+            throw invalidOperand(operator, operand);
+          }
+        }
+        return boolean.class;
+      case EQUALS:
+      case NOT_EQUALS:
+        if (left == null || right == null || !isComparable(left, right)) {
+          resolved = false;
+        }
+        return boolean.class;
+      case PLUS:
+        if (left == String.class || right == String.class) {
+          if (left == null || right == null) {
+            resolved = false;
+          }
+          return String.class;
+        }
+        if (left == null || right == null) {
+          // The unknown operand can be a string.
+          return unresolved();
+        }
+        return typeOfArithmetic(operator, left, right);
+      case MINUS:
+      case MULTIPLY:
+      case DIVIDE:
+      case REMAINDER:
+        return typeOfArithmetic(operator, left, right);
+      default:
+        return unresolved();
+    }
+  }
+
+  /**
+   * Returns the type of an arithmetic operation on numeric operands.
+   *
+   * @param operator the arithmetic operator
+   * @param left the type of the left operand, null if unknown
+   * @param right the type of the right operand, null if unknown
+   * @return the promoted type of the operands, null if an operand is unknown
+   * @throws InvalidConditionException if an operand is not numeric
+   */
+  private Class<?> typeOfArithmetic(String operator, Class<?> left, Class<?> right)
+      throws InvalidConditionException {
+    for (Class<?> operand : Arrays.asList(left, right)) {
+      if (operand != null && !isNumeric(operand)) {
+        throw invalidOperand(operator, operand);
+      }
+    }
+    return left == null || right == null ? unresolved() : promote(left, right);
+  }
+
+  private Class<?> typeOf(ConditionalExpr conditional) throws InvalidConditionException {
+    final Class<?> condition = typeOf(conditional.getCondition());
+    if (condition != null && !isBoolean(condition)) {
+      throw invalidOperand("?:", condition);
+    }
+    final Class<?> thenType = typeOf(conditional.getThenExpr());
+    final Class<?> elseType = typeOf(conditional.getElseExpr());
+    if (condition == null
+        || thenType == null
+        || elseType == null
+        || !isBoolean(thenType)
+        || !isBoolean(elseType)) {
+      return unresolved();
+    }
+    return thenType == elseType ? thenType : boolean.class;
+  }
+
+  /**
+   * Records that a part of the conditions has not been resolved.
+   *
+   * @return null, the unknown type of the unresolved part
+   */
+  private Class<?> unresolved() {
+    resolved = false;
+    return null;
+  }
+
+  private static InvalidConditionException invalidOperand(String operator, Class<?> type) {
+    return new InvalidConditionException(
+        "bad operand type "
+            + (type == NullType.class ? "<null>" : type.getName())
+            + " for operator "
+            + operator);
+  }
+
+  /**
+   * Returns the static type of a variable, field, or method result declared with the given type.
+   * Only non-generic types are resolved: for a parameterized type the erasure is returned, which is
+   * enough to look up members, but comparisons and conversions involving it are left to the
+   * compiler.
+   *
+   * @param type the declared type
+   * @return the (erased) static type, or null if {@code type} is a type variable or a generic array
+   */
+  private Class<?> typeOfDeclared(Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    }
+    resolved = false;
+    if (type instanceof ParameterizedType
+        && ((ParameterizedType) type).getRawType() instanceof Class) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the declared type of the parameter referred to by the given expression.
+   *
+   * @param expression an expression
+   * @return the declared type of the parameter if {@code expression} is {@code args[n]}, with
+   *     {@code n} a single digit, null otherwise
+   */
+  private Type declaredType(ArrayAccessExpr expression) {
+    final List<DocumentedParameter> parameters = method.getParameters();
+    if (!(expression.getName() instanceof NameExpr)
+        || !((NameExpr) expression.getName()).getNameAsString().equals("args")
+        || !(expression.getIndex() instanceof IntegerLiteralExpr)) {
+      return null;
+    }
+    // args[n] is replaced with the name of the n-th parameter, when n is a single digit.
+    final String index = ((IntegerLiteralExpr) expression.getIndex()).getValue();
+    if (index.length() != 1 || Integer.parseInt(index) >= parameters.size()) {
+      return null;
+    }
+    final Type type =
+        parameters.get(Integer.parseInt(index)).asReflectionParameter().getParameterizedType();
+    if (!isDeclarable(type)) {
+      plainDeclarations = false;
+    }
+    return type;
+  }
+
+  /**
+   * Tells whether the given comparison compares a parameter, the receiver, or the result with
+   * {@code null}. Such a comparison compiles for every reference type, generic ones included.
+   *
+   * @param comparison an equality comparison
+   * @return true if {@code comparison} certainly compiles because it is a null check of a variable
+   *     of reference type, false otherwise
+   */
+  private boolean isNullCheckOfVariable(BinaryExpr comparison) {
+    final Expression variable;
+    if (comparison.getLeft() instanceof NullLiteralExpr) {
+      variable = comparison.getRight();
+    } else if (comparison.getRight() instanceof NullLiteralExpr) {
+      variable = comparison.getLeft();
+    } else {
+      return false;
+    }
+    Type type = null;
+    if (variable instanceof ArrayAccessExpr) {
+      type = declaredType((ArrayAccessExpr) variable);
+    } else if (variable instanceof NameExpr) {
+      final String identifier = ((NameExpr) variable).getNameAsString();
+      if (identifier.equals(Configuration.RECEIVER)) {
+        type = method.getDeclaringClass();
+      } else if (identifier.equals(Configuration.RETURN_VALUE) && hasResult()) {
+        type = method.getReturnType().getType();
+      }
+    }
+    return type != null && !(type instanceof Class && ((Class<?>) type).isPrimitive());
+  }
+
+  /**
+   * Returns the given class, all its supertypes, and {@code Object}.
+   *
+   * @param type a class
+   * @return {@code type} and all its supertypes
+   */
+  private static Set<Class<?>> supertypes(Class<?> type) {
+    Set<Class<?>> supertypes = new HashSet<>();
+    Deque<Class<?>> pending = new ArrayDeque<>();
+    pending.add(type);
+    pending.add(Object.class);
+    while (!pending.isEmpty()) {
+      final Class<?> current = pending.remove();
+      if (supertypes.add(current)) {
+        if (current.getSuperclass() != null) {
+          pending.add(current.getSuperclass());
+        }
+        pending.addAll(Arrays.asList(current.getInterfaces()));
+      }
+    }
+    return supertypes;
+  }
+
+  private static boolean isBoolean(Class<?> type) {
+    return type == boolean.class || type == Boolean.class;
+  }
+
+  private static boolean isNumeric(Class<?> type) {
+    final Class<?> primitive = unbox(type);
+    return primitive != null && primitive != boolean.class && primitive != void.class;
+  }
+
+  /**
+   * Returns the primitive type of the given type.
+   *
+   * @param type a type
+   * @return {@code type} if it is primitive, its unboxed type if it is a boxed type, null otherwise
+   */
+  private static Class<?> unbox(Class<?> type) {
+    return type.isPrimitive() ? type : primitiveTypes.get(type);
+  }
+
+  /**
+   * Returns the type of the result of a numeric operation with operands of the given types.
+   *
+   * @param left the type of the first operand, a numeric type
+   * @param right the type of the second operand, a numeric type
+   * @return the type of the operation after binary numeric promotion
+   */
+  private static Class<?> promote(Class<?> left, Class<?> right) {
+    final Class<?> first = unbox(left);
+    final Class<?> second = unbox(right);
+    for (Class<?> type : Arrays.asList(double.class, float.class, long.class)) {
+      if (first == type || second == type) {
+        return type;
+      }
+    }
+    return int.class;
+  }
+
+  /**
+   * Tells whether values of the given types can certainly be compared with {@code ==}.
+   *
+   * @param left the type of the first operand
+   * @param right the type of the second operand
+   * @return true if the comparison certainly compiles, false if it might not compile
+   * @throws InvalidConditionException if the comparison certainly does not compile
+   */
+  private static boolean isComparable(Class<?> left, Class<?> right)
+      throws InvalidConditionException {
+    if (left.isPrimitive() || right.isPrimitive()) {
+      if (left == NullType.class || right == NullType.class) {
+        throw new InvalidConditionException(
+            "bad operand types for ==: " + (left.isPrimitive() ? left : right) + " and <null>");
+      }
+      if ((isNumeric(left) && isNumeric(right)) || (isBoolean(left) && isBoolean(right))) {
+        return true;
+      }
+      if (left.isPrimitive() && right.isPrimitive()) {
+        throw new InvalidConditionException("incomparable types: " + left + " and " + right);
+      }
+      // A primitive value compared with a reference: left to the compiler.
+      return false;
+    }
+    return left == NullType.class
+        || right == NullType.class
+        || left.isAssignableFrom(right)
+        || right.isAssignableFrom(left);
+  }
+
+  /**
+   * Tells whether a value of the given type can be passed to a parameter of the given type.
+   *
+   * @param from the type of the argument
+   * @param to the type of the parameter
+   * @return true if the argument is certainly convertible to the parameter type, false otherwise
+   */
+  private static boolean isConvertible(Class<?> from, Class<?> to) {
+    if (from == NullType.class) {
+      return !to.isPrimitive();
+    }
+    if (!to.isPrimitive()) {
+      return to.isAssignableFrom(from.isPrimitive() ? boxedTypes.get(from) : from);
+    }
+    final Class<?> primitive = unbox(from);
+    if (primitive == null) {
+      return false;
+    }
+    if (primitive == to) {
+      return true;
+    }
+    // Widening primitive conversion (char only widens to int and larger types).
+    final int fromIndex =
+        primitive == char.class
+            ? numericTypes.indexOf(short.class)
+            : numericTypes.indexOf(primitive);
+    final int toIndex = numericTypes.indexOf(to);
+    return fromIndex != -1 && toIndex > fromIndex;
+  }
+}
@@ -1,10 +1,5 @@
 package org.toradocu.util;
 
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
-import org.toradocu.conf.Configuration;
-
 /**
  * This utility class returns the edit distance between two strings based on character edits and
  * word deletions.
@@ -12,193 +7,156 @@ import org.toradocu.conf.Configuration;
 public class Distance {
 
   /**
-   * Returns the edit distance between the given strings. {@code s1} is the only string in which
-   * word deletions are considered when calculating the edit distance. The cost of a word deletion
-   * is specified by the field {@code org.toradocu.conf.Configuration.wordRemovalCost}.
+   * Returns the edit distance between the given strings, using the specified cost for word
+   * deletions. {@code s1} is the only string in which word deletions are considered when
+   * calculating the edit distance.
    *
    * @param s0 the first string to use in calculating distance. Word deletions are not considered
    *     for this string.
    * @param s1 the second string to use in calculating distance. Word deletions are considered for
    *     this string only.
+   * @param wordDeletionCost the cost of a single word deletion
    * @return the edit distance between the two strings, taking into account character edits and word
    *     deletions
    */
-  public static int editDistance(String s0, String s1) {
-    return editDistance(s0, s1, Configuration.INSTANCE.getWordRemovalCost());
+  public static int editDistance(String s0, String s1, int wordDeletionCost) {
+    return editDistance(s0, s1, wordDeletionCost, Integer.MAX_VALUE);
   }
 
   /**
-   * Returns the edit distance between the given strings, using the specified cost for word
-   * deletions. {@code s1} is the only string in which word deletions are considered when
-   * calculating the edit distance. This method is mainly provided for testing purposes.
+   * Returns the edit distance between the given strings if it does not exceed {@code bound}, or
+   * {@code bound + 1} otherwise. The computation stops as soon as the distance is known to exceed
+   * the bound, so this method is much faster than {@link #editDistance(String, String, int)} when
+   * only close strings are of interest.
    *
    * @param s0 the first string to use in calculating distance. Word deletions are not considered
    *     for this string.
    * @param s1 the second string to use in calculating distance. Word deletions are considered for
    *     this string only.
    * @param wordDeletionCost the cost of a single word deletion
-   * @return the edit distance between the two strings, taking into account character edits and word
-   *     deletions
+   * @param bound the maximum distance of interest, must be non-negative
+   * @return the edit distance between the two strings if it is at most {@code bound}, {@code bound
+   *     + 1} otherwise
    */
-  static int editDistance(String s0, String s1, int wordDeletionCost) {
-    String[] words = s1.split(" ");
-    return editDistanceRecursive(wordDeletionCost, s0, new LinkedList<>(Arrays.asList(words)));
-  }
-
-  private static int editDistanceRecursive(int wordDeletionCost, String s0, List<String> s1) {
-    int minDistance = levenshteinDistance(s0, String.join(" ", s1));
-    for (int i = 0; i < s1.size(); i++) {
-      String word = s1.remove(i);
-      if (!s1.isEmpty()) {
-        int distance = wordDeletionCost + editDistanceRecursive(wordDeletionCost, s0, s1);
-        if (distance < minDistance) {
-          minDistance = distance;
+  public static int editDistance(String s0, String s1, int wordDeletionCost, int bound) {
+    if (bound < 0) {
+      throw new IllegalArgumentException("The bound must be non-negative, but it is " + bound);
+    }
+    // Keeps saturated values far enough from overflow.
+    bound = Math.min(bound, Integer.MAX_VALUE / 2);
+    // The distance ignores case. Lower-casing s1 before splitting it gives the same words as
+    // lower-casing each word, since the separator is not affected.
+    final String left = s0.toLowerCase();
+    final String[] words = s1.toLowerCase().split(" ");
+    final int n = left.length();
+
+    // The distance is the minimum, over every non-empty subsequence of words kept from s1, of the
+    // Levenshtein distance between s0 and the kept words joined by spaces, plus the cost of the
+    // deleted words. Words are processed left to right keeping two rows of the Levenshtein matrix
+    // for s0: noneKept holds the distances from the prefixes of s0 when every word so far has been
+    // deleted, someKept the minimum distances when at least one word has been kept. Taking the
+    // element-wise minimum of rows is exact because extending a row with new characters is
+    // monotone and distributes over the minimum.
+    //
+    // Every value greater than the bound is saturated to bound + 1. This does not change values
+    // within the bound, since costs are non-negative and a distance is never smaller than the
+    // distances it is computed from. For the same reason, the minimum of the two rows can only
+    // grow while words are processed, and the computation stops once it exceeds the bound.
+    final int exceeded = bound + 1;
+    int[] noneKept = new int[n + 1];
+    for (int i = 0; i <= n; i++) {
+      noneKept[i] = i;
+    }
+    if (words.length == 0) { // s1 contains only spaces: no word can be kept or deleted.
+      return Math.min(n, exceeded);
+    }
+    saturate(noneKept, exceeded);
+    int[] someKept = null;
+    for (String word : words) {
+      int[] next = extend(noneKept, left, word, 0, exceeded);
+      if (someKept != null) {
+        final int[] keepAfterOthers = extend(someKept, left, word, 1, exceeded);
+        for (int i = 0; i <= n; i++) {
+          next[i] =
+              Math.min(
+                  next[i],
+                  Math.min(keepAfterOthers[i], add(someKept[i], wordDeletionCost, exceeded)));
         }
       }
-      s1.add(i, word);
+      int rowsMin = exceeded;
+      for (int i = 0; i <= n; i++) {
+        noneKept[i] = add(noneKept[i], wordDeletionCost, exceeded);
+        rowsMin = Math.min(rowsMin, Math.min(noneKept[i], next[i]));
+      }
+      if (rowsMin == exceeded) {
+        return exceeded;
+      }
+      someKept = next;
     }
-    return minDistance;
+    return someKept[n];
   }
 
   /**
-   * Returns the Levenshtein distance between the two strings ignoring case.
+   * Extends a row of the Levenshtein matrix of {@code left} with the characters of {@code word},
+   * optionally preceded by a space. Given the distances between the prefixes of {@code left} and a
+   * string t, the returned row contains the distances between the prefixes of {@code left} and t
+   * followed by the new characters.
    *
-   * @param s0 the first string to use in calculating distance
-   * @param s1 the second string to use in calculating distance
-   * @return the Levenshtein distance between the two strings
+   * @param row the distances between the prefixes of {@code left} and some string t
+   * @param left the string the distances are computed from
+   * @param word the word appended to t
+   * @param leadingSpaces 1 if a space has to be appended before {@code word}, 0 otherwise
+   * @param exceeded the value distances are saturated to when they exceed the bound
+   * @return a new row with the distances between the prefixes of {@code left} and the extended t
    */
-  private static int levenshteinDistance(String s0, String s1) {
-    return levenshteinDistance(s0, s1, false);
+  private static int[] extend(
+      int[] row, String left, String word, int leadingSpaces, int exceeded) {
+    final int n = left.length();
+    int[] p = row.clone();
+    int[] d = new int[n + 1];
+    final int length = word.length() + leadingSpaces;
+    for (int j = 0; j < length; j++) {
+      final char rightJ = j < leadingSpaces ? ' ' : word.charAt(j - leadingSpaces);
+      d[0] = Math.min(p[0] + 1, exceeded);
+      int rowMin = d[0];
+      for (int i = 1; i <= n; i++) {
+        final int cost = left.charAt(i - 1) == rightJ ? 0 : 1;
+        // minimum of cell to the left+1, to the top+1, diagonally left and up +cost
+        d[i] = Math.min(Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost), exceeded);
+        rowMin = Math.min(rowMin, d[i]);
+      }
+      if (rowMin == exceeded) {
+        // Further characters cannot bring any distance back within the bound.
+        return d;
+      }
+      final int[] tempD = p;
+      p = d;
+      d = tempD;
+    }
+    return p;
   }
 
   /**
-   * Returns the Levenshtein distance between the two strings.
+   * Returns the sum of the given non-negative values, saturated to {@code exceeded}.
    *
-   * @param s0 the first string to use in calculating distance
-   * @param s1 the second string to use in calculating distance
-   * @param caseSensitive true to consider case in calculating distance
-   * @return the Levenshtein distance between the two strings
+   * @param a the first value
+   * @param b the second value
+   * @param exceeded the value the sum is saturated to
+   * @return {@code min(a + b, exceeded)}, computed without overflow
    */
-  private static int levenshteinDistance(String s0, String s1, boolean caseSensitive) {
-    if (!caseSensitive) {
-      s0 = s0.toLowerCase();
-      s1 = s1.toLowerCase();
-    }
-    return unlimitedCompare(s0, s1);
+  private static int add(int a, int b, int exceeded) {
+    return b >= exceeded - a ? exceeded : a + b;
   }
 
   /**
-   * This implementation comes from Apache Commons Text: <a href=
-   * "https://github.com/apache/commons-text/blob/master/src/main/java/org/apache/commons/text/similarity/LevenshteinDistance.java"
-   * >link</a>
-   *
-   * <p>
-   *
-   * <p>Find the Levenshtein distance between two Strings.
-   *
-   * <p>A higher score indicates a greater distance.
+   * Saturates every value of the given row to {@code exceeded}.
    *
-   * <p>The previous implementation of the Levenshtein distance algorithm was from <a
-   * href="http://www.merriampark.com/ld.htm">http://www.merriampark.com/ld.htm</a>
-   *
-   * <p>Chas Emerick has written an implementation in Java, which avoids an OutOfMemoryError which
-   * can occur when my Java implementation is used with very large strings.<br>
-   * This implementation of the Levenshtein distance algorithm is from <a
-   * href="http://www.merriampark.com/ldjava.htm">http://www.merriampark.com/ldjava.htm</a>
-   *
-   * <pre>
-   * unlimitedCompare(null, *)             = IllegalArgumentException
-   * unlimitedCompare(*, null)             = IllegalArgumentException
-   * unlimitedCompare("","")               = 0
-   * unlimitedCompare("","a")              = 1
-   * unlimitedCompare("aaapppp", "")       = 7
-   * unlimitedCompare("frog", "fog")       = 1
-   * unlimitedCompare("fly", "ant")        = 3
-   * unlimitedCompare("elephant", "hippo") = 7
-   * unlimitedCompare("hippo", "elephant") = 7
-   * unlimitedCompare("hippo", "zzzzzzzz") = 8
-   * unlimitedCompare("hello", "hallo")    = 1
-   * </pre>
-   *
-   * @param left the first String, must not be null
-   * @param right the second String, must not be null
-   * @return result distance, or -1
-   * @throws IllegalArgumentException if either String input {@code null}
+   * @param row the row to saturate
+   * @param exceeded the value elements greater than it are replaced with
    */
-  private static int unlimitedCompare(CharSequence left, CharSequence right) {
-    if (left == null || right == null) {
-      throw new IllegalArgumentException("Strings must not be null");
+  private static void saturate(int[] row, int exceeded) {
+    for (int i = 0; i < row.length; i++) {
+      row[i] = Math.min(row[i], exceeded);
     }
-
-    /*
-      The difference between this impl. and the previous is that, rather
-      than creating and retaining a matrix of size s.length() + 1 by t.length() + 1,
-      we maintain two single-dimensional arrays of length s.length() + 1.  The first, d,
-      is the 'current working' distance array that maintains the newest distance cost
-      counts as we iterate through the characters of String s.  Each time we increment
-      the index of String t we are comparing, d is copied to p, the second int[].  Doing so
-      allows us to retain the previous cost counts as required by the algorithm (taking
-      the minimum of the cost count to the left, up one, and diagonally up and to the left
-      of the current cost count being calculated).  (Note that the arrays aren't really
-      copied anymore, just switched...this is clearly much better than cloning an array
-      or doing a System.arraycopy() each time  through the outer loop.)
-
-      Effectively, the difference between the two implementations is this one does not
-      cause an out of memory condition when calculating the LD over two very large strings.
-    */
-
-    int n = left.length(); // length of left
-    int m = right.length(); // length of right
-
-    if (n == 0) {
-      return m;
-    } else if (m == 0) {
-      return n;
-    }
-
-    if (n > m) {
-      // swap the input strings to consume less memory
-      final CharSequence tmp = left;
-      left = right;
-      right = tmp;
-      n = m;
-      m = right.length();
-    }
-
-    int[] p = new int[n + 1]; // 'previous' cost array, horizontally
-    int[] d = new int[n + 1]; // cost array, horizontally
-    int[] tempD; // placeholder to assist in swapping p and d
-
-    // indexes into strings left and right
-    int i; // iterates through left
-    int j; // iterates through right
-
-    char rightJ; // jth character of right
-
-    int cost; // cost
-
-    for (i = 0; i <= n; i++) {
-      p[i] = i;
-    }
-
-    for (j = 1; j <= m; j++) {
-      rightJ = right.charAt(j - 1);
-      d[0] = j;
-
-      for (i = 1; i <= n; i++) {
-        cost = left.charAt(i - 1) == rightJ ? 0 : 1;
-        // minimum of cell to the left+1, to the top+1, diagonally left and up +cost
-        d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost);
-      }
-
-      // copy current distance counts to 'previous row' distance counts
-      tempD = p;
-      p = d;
-      d = tempD;
-    }
-
-    // our last action in the above loop was to switch d and p, so p now
-    // actually has the most recent cost counts
-    return p[n];
   }
 }
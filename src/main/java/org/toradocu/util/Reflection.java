@@ -3,9 +3,11 @@ package org.toradocu.util;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
@@ -31,34 +33,130 @@ public class Reflection {
     return map;
   }
 
+  /** The class loader (and the classes it resolved) for the current class directories. */
+  private static volatile ClassLoading classLoading;
+
   /** Makes constructor private to prevent the instantiation of this class objects. */
   private Reflection() {}
 
   /**
-   * Returns the {@code Class} object for the class with the given name or null if the class could
-   * not be retrieved.
+   * Returns the {@code Class} object for the class with the given name, loaded from the class
+   * directories of the global {@code Configuration}.
    *
    * @param className the fully qualified name of a class
    * @return the {@code Class} object for the given class
    * @throws ClassNotFoundException if class {@code className} cannot be loaded
+   * @see #getClass(String, List)
    */
   public static Class<?> getClass(String className) throws ClassNotFoundException {
+    return getClass(className, Configuration.INSTANCE.classDirs);
+  }
+
+  /**
+   * Returns the {@code Class} object for the class with the given name, loaded from the given class
+   * directories. Classes are loaded by a class loader shared by all the invocations of this method
+   * with the same class directories, so that the same name always resolves to the same {@code
+   * Class} object. Both found and missing classes are cached until the class directories change or
+   * their {@code CompilerPool} finds that their content changed (see {@link
+   * CompilerPool#refresh()}).
+   *
+   * @param className the fully qualified name of a class
+   * @param classDirs the class directories classes are loaded from
+   * @return the {@code Class} object for the given class
+   * @throws ClassNotFoundException if class {@code className} cannot be loaded
+   */
+  public static Class<?> getClass(String className, List<URL> classDirs)
+      throws ClassNotFoundException {
     if (primitiveClasses.containsKey(className)) {
       return primitiveClasses.get(className);
     }
 
-    // The order here is important. We have to first look in the paths specified by the user and
-    // then in the default class path. The default classpath contains the dependencies of Toradocu
-    // that could clash with the system under analysis.
-    final List<URL> urls = Configuration.INSTANCE.classDirs;
-    final URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
-    try {
-      return loader.loadClass(className);
-    } catch (ClassNotFoundException e) {
-      return Class.forName(className);
+    final ClassLoading loading = classLoading(classDirs);
+    final Class<?> type = loading.classes.computeIfAbsent(className, loading::loadClass);
+    if (type == ClassNotFound.class) {
+      throw new ClassNotFoundException(className);
+    }
+    return type;
+  }
+
+  /**
+   * Returns the class loading state for the given class directories, creating it if the class
+   * directories, or their content, changed since the last invocation.
+   *
+   * @param classDirs the class directories classes are loaded from
+   * @return the class loading state for {@code classDirs}
+   */
+  private static ClassLoading classLoading(List<URL> classDirs) {
+    final List<URL> urls = classDirs == null ? new ArrayList<>() : new ArrayList<>(classDirs);
+    ClassLoading current = classLoading;
+    if (current == null || !current.isFor(urls)) {
+      synchronized (Reflection.class) {
+        current = classLoading;
+        if (current == null || !current.isFor(urls)) {
+          current = new ClassLoading(urls);
+          classLoading = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /** A class loader over some class directories, with the classes it has resolved. */
+  private static class ClassLoading {
+    /** The class directories the classes are loaded from. */
+    final List<URL> urls;
+    /** The class loader of the classes in {@code urls}. */
+    final URLClassLoader loader;
+    /** The compiler service of {@code urls}, which tracks the changes of their content. */
+    final CompilerPool pool;
+    /** The version of the content of {@code urls} the classes are loaded from. */
+    final int version;
+    /** The resolved classes, {@code ClassNotFound.class} for the classes that cannot be loaded. */
+    final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+
+    ClassLoading(List<URL> urls) {
+      this.urls = urls;
+      this.pool = CompilerPool.of(urls);
+      this.version = pool.getVersion();
+      this.loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+    }
+
+    /**
+     * Checks whether this class loading state is current for the given class directories.
+     *
+     * @param classDirs the class directories classes are loaded from
+     * @return {@code true} if {@code classDirs} are the class directories of this state and their
+     *     content did not change since this state was created
+     */
+    boolean isFor(List<URL> classDirs) {
+      return urls.equals(classDirs) && pool.getVersion() == version;
+    }
+
+    /**
+     * Loads the class with the given name.
+     *
+     * @param className the fully qualified name of a class
+     * @return the loaded class, or {@code ClassNotFound.class} if the class cannot be loaded
+     */
+    Class<?> loadClass(String className) {
+      // The order here is important. We have to first look in the paths specified by the user and
+      // then in the default class path. The default classpath contains the dependencies of
+      // Toradocu that could clash with the system under analysis.
+      try {
+        return loader.loadClass(className);
+      } catch (ClassNotFoundException e) {
+        try {
+          return Class.forName(className);
+        } catch (ClassNotFoundException e1) {
+          return ClassNotFound.class;
+        }
+      }
     }
   }
 
+  /** Marker of the classes that cannot be loaded in {@code ClassLoading.classes}. */
+  private static final class ClassNotFound {}
+
   /**
    * Checks if the given {@code type} is a primitive type.
    *
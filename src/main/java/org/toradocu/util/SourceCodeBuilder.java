@@ -42,6 +42,16 @@ public class SourceCodeBuilder {
    * @return the source code to be compiled
    */
   public String buildSource() {
+    return buildHeader() + buildMethod("foo") + " }";
+  }
+
+  /**
+   * Composes the beginning of the source code: the package declaration, the imports, and the
+   * opening of the class declaration. Builders with the same header can share a compilation unit.
+   *
+   * @return the beginning of the source code, up to the opening brace of the class
+   */
+  public String buildHeader() {
     StringBuilder fakeSource = new StringBuilder();
 
     if (!packageDeclaration.isEmpty()) {
@@ -63,6 +73,17 @@ public class SourceCodeBuilder {
     }
     fakeSource.append("{");
     fakeSource.append("\n");
+    return fakeSource.toString();
+  }
+
+  /**
+   * Composes the method exercising the boolean conditions.
+   *
+   * @param name the name of the method
+   * @return the declaration of the method exercising the boolean conditions
+   */
+  public String buildMethod(String name) {
+    StringBuilder fakeSource = new StringBuilder();
     fakeSource.append("public ");
     if (!methodTypeParameters.isEmpty()) {
       fakeSource.append("<");
@@ -71,7 +92,9 @@ public class SourceCodeBuilder {
     }
 
     fakeSource.append("void");
-    fakeSource.append(" foo (");
+    fakeSource.append(" ");
+    fakeSource.append(name);
+    fakeSource.append(" (");
     fakeSource.append(String.join(",", arguments));
     if (!arguments.isEmpty() && !varArgArguments.isEmpty()) {
       fakeSource.append(",");
@@ -85,10 +108,28 @@ public class SourceCodeBuilder {
       fakeSource.append(")");
       fakeSource.append("\n");
     }
-    fakeSource.append("return;} }");
+    fakeSource.append("return;}");
     return fakeSource.toString();
   }
 
+  /**
+   * Returns a copy of this builder without the boolean conditions. The source code of the copy
+   * compiles if and only if the declarations used by the conditions (package, imports, type
+   * parameters, and arguments) do.
+   *
+   * @return a copy of this builder without the boolean conditions
+   */
+  public SourceCodeBuilder withoutConditions() {
+    SourceCodeBuilder copy = new SourceCodeBuilder();
+    copy.arguments.addAll(arguments);
+    copy.varArgArguments.addAll(varArgArguments);
+    copy.imports.addAll(imports);
+    copy.methodTypeParameters.addAll(methodTypeParameters);
+    copy.classTypeParameters.addAll(classTypeParameters);
+    copy.packageDeclaration = packageDeclaration;
+    return copy;
+  }
+
   /**
    * Stores a new argument of the {@code foo} method. Such method will exercise all the boolean
    * condition that you wish to compile, so be sure to include every code element is needed.
@@ -75,4 +75,16 @@ public class CommentTest {
     Comment mixedHTMLComment = new Comment(mixedHTMLTags);
     assertThat(mixedHTMLComment.getText(), is("This comment contains bold text and a break"));
   }
+
+  @Test
+  public void testWithText() {
+    Comment comment = new Comment("{@code x} must not be {@code null}");
+    String[] texts = {
+      "  x is not null ", "{@code y}  is less than x", "x is <b>non-null</b> &amp; positive"
+    };
+    for (String text : texts) {
+      assertThat(comment.withText(text), is(new Comment(text, comment.getWordsMarkedAsCode())));
+    }
+    assertThat(comment.withText("  x is not null ").getText(), is("x is not null"));
+  }
 }
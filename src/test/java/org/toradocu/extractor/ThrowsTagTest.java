@@ -43,6 +43,15 @@ public class ThrowsTagTest {
     assertThat(tag1.equals(tag4), is(false));
   }
 
+  @Test
+  public void testWithComment() {
+    ThrowsTag tag = new ThrowsTag(NPE, new Comment("if x is null"));
+    ThrowsTag changedTag = tag.withComment(new Comment("x is null."));
+    assertThat(changedTag.getComment().getText(), is("x is null."));
+    assertThat(changedTag.getException(), is(NPE));
+    assertThat(tag.getComment().getText(), is("if x is null"));
+  }
+
   private Class<?> loadException(String exception) throws ClassNotFoundException {
     return Class.forName(exception);
   }
@@ -0,0 +1,74 @@
+package org.toradocu.testlib;
+
+import static java.util.stream.Collectors.toList;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+
+/**
+ * ExampleClasses compiles the example classes of the test resources (the package {@code example})
+ * and extracts their documented executable members, for the tests of the components of the
+ * condition translator.
+ */
+public final class ExampleClasses {
+
+  /** Directory containing the sources and the binaries of the example classes. */
+  public static final String EXAMPLE_SRC = "src/test/resources";
+
+  private ExampleClasses() {}
+
+  /**
+   * Compiles all the example classes, makes their directory the class directory of the global
+   * {@code Configuration}, and returns the documented executable members of the given classes.
+   *
+   * @param classNames the fully qualified names of the example classes whose members are returned
+   * @return the documented executable members of the given classes, in the order of {@code
+   *     classNames}
+   * @throws Exception if the example classes cannot be compiled or their members extracted
+   */
+  public static List<DocumentedExecutable> members(String... classNames) throws Exception {
+    final List<String> sourceFiles;
+    try (Stream<Path> files = Files.walk(Paths.get(EXAMPLE_SRC, "example"))) {
+      sourceFiles =
+          files
+              .filter(p -> p.getFileName().toString().endsWith(".java"))
+              .map(Path::toString)
+              .collect(toList());
+    }
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      throw new AssertionError("Error(s) during compilation of test source files.");
+    }
+    Configuration.INSTANCE.classDirs =
+        Collections.singletonList(Paths.get(EXAMPLE_SRC).toUri().toURL());
+    final JavadocExtractor extractor = new JavadocExtractor();
+    final List<DocumentedExecutable> members = new ArrayList<>();
+    for (String className : classNames) {
+      members.addAll(extractor.extract(className, EXAMPLE_SRC).getDocumentedExecutables());
+    }
+    return members;
+  }
+
+  /**
+   * Returns the first of the given members with the given name.
+   *
+   * @param members the documented executable members to look into
+   * @param methodName the name of the member
+   * @return the first member of {@code members} named {@code methodName}
+   * @throws AssertionError if no member is named {@code methodName}
+   */
+  public static DocumentedExecutable member(List<DocumentedExecutable> members, String methodName) {
+    return members
+        .stream()
+        .filter(m -> m.getExecutable().getName().equals(methodName))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No method " + methodName));
+  }
+}
@@ -80,6 +80,13 @@ class PrecisionRecallTest {
       argsList.add("results_semantics_.csv");
     }
 
+    final String parser = System.getProperty("org.toradocu.parser");
+    // The PCFG parser is used unless the specific system property is set.
+    if (parser != null) {
+      argsList.add("--parser");
+      argsList.add(parser);
+    }
+
     Toradocu.main(argsList.toArray(new String[0]));
     return compare(targetClass, actualOutputFile, goalOutputFile, message);
   }
@@ -0,0 +1,107 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ParamTag;
+import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.testlib.ExampleClasses;
+
+/**
+ * Tests {@code CommentTemplates} on tags of the methods of the example classes example.AClass and
+ * example.Counter.
+ */
+public class CommentTemplatesTest {
+
+  private static List<DocumentedExecutable> members;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    members = ExampleClasses.members("example.AClass", "example.Counter");
+  }
+
+  @Test
+  public void templates() {
+    assertThat(translate("paramLTLetters", 0, "first is null"), is("args[0]==null"));
+    assertThat(translate("paramLTLetters", 1, "the second is null."), is("args[1]==null"));
+    assertThat(translate("paramLTLetters", 0, "first is not null"), is("(args[0]==null) == false"));
+    assertThat(
+        translate("paramLTLetters", 0, "first must not be null"), is("(args[0]==null) == false"));
+    assertThat(translate("paramLTLetters", 0, "first is negative"), is("args[0]<0"));
+    assertThat(translate("paramLTLetters", 0, "first is positive"), is("args[0]>0"));
+    assertThat(translate("paramLTLetters", 0, "first must be negative"), is("args[0]<0"));
+    assertThat(translate("paramLTLetters", 0, "first must be positive"), is("args[0]>0"));
+    assertThat(translate("paramLTLetters", 0, "first is not positive"), is("(args[0]>0) == false"));
+    assertThat(translate("paramLTLetters", 0, "first < 10"), is("args[0]<10"));
+    assertThat(translate("paramLTLetters", 0, "first>=0"), is("args[0]>=0"));
+    assertThat(
+        translateThrows("throwsLTLetters", "first or second is null"),
+        is("args[0]==null || args[1]==null"));
+  }
+
+  @Test
+  public void commentsNotMatchingATemplate() {
+    assertThat(translate("paramLTLetters", 0, "first is zero"), is(nullValue()));
+    assertThat(translate("paramLTLetters", 0, "first is null or empty"), is(nullValue()));
+    assertThat(translate("paramLTLetters", 0, "third is null"), is(nullValue()));
+    assertThat(translate("paramLTLetters", 0, "first or first is null"), is(nullValue()));
+  }
+
+  @Test
+  public void subjectsBoundToAPublicFieldAreRejected() {
+    assertThat(translate("reset", 0, "count is negative"), is(nullValue()));
+    assertThat(translate("reset", 1, "step is negative"), is("args[1]<0"));
+  }
+
+  @Test
+  public void subjectsNamedByTheCommentOfAnotherParameterAreRejected() {
+    final DocumentedExecutable member = member("paramLTLetters");
+    final ParamTag tag = paramTag(member, 0, "first is null");
+    final ParamTag otherTag = paramTag(member, 1, "must be smaller than first");
+    final DocumentedExecutable withTags =
+        member.withTags(Arrays.asList(tag, otherTag), null, Collections.emptyList());
+    assertThat(CommentTemplates.translate(tag, withTags), is(nullValue()));
+  }
+
+  @Test
+  public void precedingSentencesMustBeProse() {
+    assertThat(translate("paramLTLetters", 0, "the number. first is null"), is("args[0]==null"));
+    assertThat(translate("paramLTLetters", 0, "at most 10 items. first is null"), is(nullValue()));
+    assertThat(translate("paramLTLetters", 0, "the maxSize. first is null"), is(nullValue()));
+    assertThat(
+        translate("paramLTLetters", 0, "a copy of {@code value}. first is null"), is(nullValue()));
+    assertThat(
+        translateThrows("throwsLTLetters", "never empty. first or second is null"),
+        is(nullValue()));
+  }
+
+  private static String translate(String methodName, int index, String comment) {
+    final DocumentedExecutable member = member(methodName);
+    final ParamTag tag = paramTag(member, index, comment);
+    return CommentTemplates.translate(
+        tag, member.withTags(Collections.singletonList(tag), null, Collections.emptyList()));
+  }
+
+  private static String translateThrows(String methodName, String comment) {
+    final DocumentedExecutable member = member(methodName);
+    final ThrowsTag tag = member.throwsTags().get(0).withComment(new Comment(comment));
+    return CommentTemplates.translate(
+        tag, member.withTags(Collections.emptyList(), null, Collections.singletonList(tag)));
+  }
+
+  private static ParamTag paramTag(DocumentedExecutable member, int index, String comment) {
+    return new ParamTag(member.getParameters().get(index), new Comment(comment));
+  }
+
+  private static DocumentedExecutable member(String methodName) {
+    return ExampleClasses.member(members, methodName);
+  }
+}
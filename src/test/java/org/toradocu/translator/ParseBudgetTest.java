@@ -0,0 +1,143 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.fail;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.util.RuntimeInterruptedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.Test;
+
+/** Tests {@code ParseBudget} with fake parsers, which either complete at once or block. */
+public class ParseBudgetTest {
+
+  /** A parser completing at once. */
+  private static final Function<List<TaggedWord>, SemanticGraph> FAST_PARSER =
+      words -> new SemanticGraph();
+
+  /** A parser blocking until it is interrupted, as the PCFG parser does on long sentences. */
+  private static final Function<List<TaggedWord>, SemanticGraph> BLOCKING_PARSER =
+      words -> ParseBudget.interruptible(ParseBudgetTest::block);
+
+  @Test
+  public void sentencesLongerThanTheLimitOnTokensAreNotParsed() {
+    final ParseBudget budget = new ParseBudget(3, 0, 0);
+    final AtomicInteger parses = new AtomicInteger();
+    final Function<List<TaggedWord>, SemanticGraph> parser =
+        words -> {
+          parses.incrementAndGet();
+          return new SemanticGraph();
+        };
+
+    assertThat(parse(budget, "short", words(3), parser), is(notNullValue()));
+    assertThat(exceededLimit(budget, "long", words(4), parser), is(ParseBudget.Limit.TOKENS));
+    assertThat(exceededLimit(budget, "long", words(4), parser), is(ParseBudget.Limit.TOKENS));
+    assertThat(parses.get(), is(1));
+  }
+
+  @Test
+  public void parsesRunningOutOfTimeAreInterrupted() {
+    final ParseBudget budget = new ParseBudget(0, 50, 0);
+    assertThat(
+        exceededLimit(budget, "slow", words(3), BLOCKING_PARSER),
+        is(ParseBudget.Limit.SENTENCE_TIME));
+    assertThat(Thread.currentThread().isInterrupted(), is(false));
+  }
+
+  @Test
+  public void parsesRunningOutOfTimeAreNotRemembered() {
+    final ParseBudget budget = new ParseBudget(0, 50, 0);
+    final AtomicInteger parses = new AtomicInteger();
+    final Function<List<TaggedWord>, SemanticGraph> slowOnce =
+        words ->
+            parses.incrementAndGet() == 1 ? BLOCKING_PARSER.apply(words) : FAST_PARSER.apply(words);
+
+    assertThat(
+        exceededLimit(budget, "sentence", words(3), slowOnce), is(ParseBudget.Limit.SENTENCE_TIME));
+    assertThat(parse(budget, "sentence", words(3), slowOnce), is(notNullValue()));
+    assertThat(parses.get(), is(2));
+  }
+
+  @Test
+  public void nestedTagsInheritTheEarlierDeadline() {
+    final ParseBudget outer = new ParseBudget(0, 0, 50);
+    final ParseBudget inner = new ParseBudget(0, 0, 60_000);
+    final long start = System.nanoTime();
+    final ParseBudget.Limit limit =
+        outer.withinTagDeadline(() -> exceededLimit(inner, "slow", words(3), BLOCKING_PARSER));
+    assertThat(limit, is(ParseBudget.Limit.TAG_TIME));
+    assertThat(System.nanoTime() - start < 30_000_000_000L, is(true));
+    assertThat(Thread.currentThread().isInterrupted(), is(false));
+  }
+
+  @Test
+  public void noSentenceIsParsedAfterTheDeadlineOfTheTag() {
+    final ParseBudget budget = new ParseBudget(0, 0, 50);
+    final AtomicInteger parses = new AtomicInteger();
+    final ParseBudget.Limit limit =
+        budget.withinTagDeadline(
+            () -> {
+              sleep(100);
+              return exceededLimit(
+                  budget,
+                  "late",
+                  words(3),
+                  words -> {
+                    parses.incrementAndGet();
+                    return new SemanticGraph();
+                  });
+            });
+    assertThat(limit, is(ParseBudget.Limit.TAG_TIME));
+    assertThat(parses.get(), is(0));
+  }
+
+  private static SemanticGraph parse(
+      ParseBudget budget,
+      String sentence,
+      List<TaggedWord> words,
+      Function<List<TaggedWord>, SemanticGraph> parser) {
+    return budget.withinTagDeadline(() -> ParseBudget.parse(sentence, words, parser));
+  }
+
+  private static ParseBudget.Limit exceededLimit(
+      ParseBudget budget,
+      String sentence,
+      List<TaggedWord> words,
+      Function<List<TaggedWord>, SemanticGraph> parser) {
+    try {
+      parse(budget, sentence, words, parser);
+    } catch (ParseBudgetExceededException e) {
+      return e.getLimit();
+    }
+    fail("The parse of \"" + sentence + "\" did not exceed the budget");
+    return null;
+  }
+
+  private static List<TaggedWord> words(int count) {
+    final List<TaggedWord> words = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      words.add(new TaggedWord("word" + i, null));
+    }
+    return words;
+  }
+
+  private static SemanticGraph block() {
+    sleep(60_000);
+    fail("The parse has not been interrupted");
+    return null;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new RuntimeInterruptedException(e);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.toradocu.extractor.Comment;
+
+public class PlaceholderRewriterTest {
+
+  @Test
+  public void writtenOutComparisons() {
+    List<String> inequalities = new ArrayList<>();
+    Comment comment =
+        PlaceholderRewriter.addPlaceholders(
+            new Comment("x is greater than or equal to 0 and y is less than size"), inequalities);
+    assertThat(comment.getText(), is("x is INEQUALITY_0 and y is INEQUALITY_1"));
+    assertThat(inequalities, is(Arrays.asList(" >= 0", " < size")));
+  }
+
+  @Test
+  public void placeholdersAreNumberedByKind() {
+    List<String> inequalities = new ArrayList<>();
+    Comment comment =
+        PlaceholderRewriter.addPlaceholders(new Comment("x is < size or == null"), inequalities);
+    assertThat(comment.getText(), is("x is INEQUALITY_1 or is INEQUALITY_0"));
+    assertThat(inequalities, is(Arrays.asList("== null", " < size")));
+  }
+
+  @Test
+  public void instanceOf() {
+    List<String> inequalities = new ArrayList<>();
+    Comment comment =
+        PlaceholderRewriter.addPlaceholders(
+            new Comment("original is not an instance of BinaryChromosome."), inequalities);
+    assertThat(comment.getText(), is("original is not INEQUALITY_0."));
+    assertThat(inequalities, is(Collections.singletonList(" instanceof BinaryChromosome")));
+  }
+
+  @Test
+  public void rangesAreLeftInTheText() {
+    List<String> inequalities = new ArrayList<>();
+    Comment comment =
+        PlaceholderRewriter.addPlaceholders(
+            new Comment("false positive rate (must be 0 < p < 1)"), inequalities);
+    assertThat(comment.getText(), is("false positive rate (must be 0 < p < 1)"));
+    assertThat(inequalities.isEmpty(), is(true));
+  }
+}
@@ -0,0 +1,113 @@
+package org.toradocu.translator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.ParamTag;
+import org.toradocu.extractor.ReturnTag;
+import org.toradocu.testlib.ExampleClasses;
+
+/** Tests {@code TagClassifier} on tags of the methods of the example class example.AClass. */
+public class TagClassifierTest {
+
+  private static List<DocumentedExecutable> members;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    members = ExampleClasses.members("example.AClass");
+  }
+
+  @Test
+  public void proseOnlyCommentsAreUntranslatable() {
+    assertThat(isUntranslatable("paramLTLetters", "the number to compare"), is(true));
+    assertThat(isUntranslatable("paramLTLetters", "Some text. Some more text."), is(true));
+  }
+
+  @Test
+  public void keywordsAreConditionWords() {
+    assertThat(isUntranslatable("paramLTLetters", "must not be null"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "a Negative number"), is(false));
+  }
+
+  @Test
+  public void parameterNamesAreConditionWords() {
+    assertThat(isUntranslatable("paramLTLetters", "the number to compare with second"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "the number to compare with third"), is(true));
+  }
+
+  @Test
+  public void codeLikeWordsAreConditionWords() {
+    assertThat(isUntranslatable("paramLTLetters", "a copy of maxValue"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "a copy of MAX"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "a copy of the_value"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "a copy of {@code value}"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "a copy of A value"), is(true));
+  }
+
+  @Test
+  public void symbolsAndNumbersAreConditionWords() {
+    assertThat(isUntranslatable("paramLTLetters", "at most 10 items"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "the count, > the other"), is(false));
+    assertThat(isUntranslatable("paramLTLetters", "one of the values != the other"), is(false));
+  }
+
+  @Test
+  public void equalTagsOfDifferentMembersAreClassifiedIndependently() {
+    // Return tags with the same comment are equal, but only "first" is a parameter of the first.
+    final Comment comment = new Comment("the outcome of the comparison with first");
+    final DocumentedExecutable withFirst = withReturnTag(member("returnEqOnlyLetters"), comment);
+    final DocumentedExecutable withoutFirst =
+        withReturnTag(member("returnEqLettersNumbers"), comment);
+    assertThat(withFirst.returnTag().equals(withoutFirst.returnTag()), is(true));
+
+    final Set<BlockTag> untranslatable =
+        TagClassifier.untranslatableTags(Arrays.asList(withFirst, withoutFirst));
+    assertThat(untranslatable.size(), is(1));
+    assertThat(untranslatable.contains(withFirst.returnTag()), is(false));
+    assertThat(untranslatable.contains(withoutFirst.returnTag()), is(true));
+  }
+
+  @Test
+  public void untranslatableTagsOfAMember() {
+    final DocumentedExecutable member = member("paramLTLetters");
+    final ParamTag prose = paramTag(member, 0, "the number to compare");
+    final ParamTag condition = paramTag(member, 1, "must be smaller than first");
+    final Set<BlockTag> untranslatable =
+        TagClassifier.untranslatableTags(
+            Collections.singletonList(
+                member.withTags(Arrays.asList(prose, condition), null, Collections.emptyList())));
+    assertThat(untranslatable, is(new HashSet<>(Collections.singletonList(prose))));
+  }
+
+  private static boolean isUntranslatable(String methodName, String comment) {
+    final DocumentedExecutable member = member(methodName);
+    final ParamTag tag = paramTag(member, 0, comment);
+    return TagClassifier.untranslatableTags(
+            Collections.singletonList(
+                member.withTags(Collections.singletonList(tag), null, Collections.emptyList())))
+        .contains(tag);
+  }
+
+  private static ParamTag paramTag(DocumentedExecutable member, int index, String comment) {
+    return new ParamTag(member.getParameters().get(index), new Comment(comment));
+  }
+
+  private static DocumentedExecutable withReturnTag(DocumentedExecutable member, Comment comment) {
+    final ReturnTag returnTag = member.returnTag().withComment(comment);
+    return member.withTags(Collections.emptyList(), returnTag, Collections.emptyList());
+  }
+
+  private static DocumentedExecutable member(String methodName) {
+    return ExampleClasses.member(members, methodName);
+  }
+}
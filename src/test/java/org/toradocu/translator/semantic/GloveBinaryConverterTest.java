@@ -0,0 +1,63 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GloveBinaryConverterTest {
+
+  private Path directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("glove");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    for (Path file : Files.newDirectoryStream(directory)) {
+      Files.delete(file);
+    }
+    Files.delete(directory);
+  }
+
+  @Test
+  public void vectorsAreReadBackFromTheStore() throws IOException {
+    List<String> lines = new ArrayList<>();
+    lines.add("3 2"); // A header line, ignored.
+    lines.add("null 0.5 -1.25");
+    lines.add("négatif 2.0 3.0");
+    for (int i = 0; i < 20; i++) { // Enough words to grow the hash table.
+      lines.add("word" + i + " " + i + " " + -i);
+    }
+    lines.add("null 9.0 9.0"); // A repeated word, ignored.
+    Path text = directory.resolve("glove.txt");
+    Files.write(text, lines, StandardCharsets.UTF_8);
+    Path store = directory.resolve("glove.bin");
+
+    GloveBinaryConverter.convert(text, store);
+    MappedGloveVectors vectors = MappedGloveVectors.open(store);
+
+    assertThat(vectors.size(), is(22));
+    assertThat(vectors.getDimension(), is(2));
+    assertThat(vectors.hasWord("null"), is(true));
+    assertThat(vectors.getVector("null"), is(new float[] {0.5f, -1.25f}));
+    assertThat(vectors.getVector("négatif"), is(new float[] {2.0f, 3.0f}));
+    for (int i = 0; i < 20; i++) {
+      assertThat(vectors.getVector("word" + i), is(new float[] {i, -i}));
+    }
+    assertThat(vectors.hasWord("3"), is(false));
+    assertThat(vectors.hasWord("word20"), is(false));
+    assertThat(vectors.getVector("word20"), is(nullValue()));
+  }
+}
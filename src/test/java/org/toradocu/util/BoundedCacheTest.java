@@ -0,0 +1,50 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+  @Test
+  public void leastRecentlyUsedEntriesAreEvicted() {
+    BoundedCache<String, String> cache = new BoundedCache<>("Test cache", 4, String::length);
+    cache.put("a", "aa");
+    cache.put("b", "b");
+    assertThat(cache.get("a"), is("aa"));
+    cache.put("c", "cc");
+    assertThat(cache.get("b"), is(nullValue()));
+    assertThat(cache.get("a"), is("aa"));
+    assertThat(cache.get("c"), is("cc"));
+    assertThat(
+        cache.getStatistics(),
+        is(
+            "Test cache: 3 hits out of 4 lookups (75.0%), 1 evictions, 2 entries cached"
+                + " (weight 4 of 4)"));
+  }
+
+  @Test
+  public void valuesHeavierThanTheMaximumAreNotStored() {
+    BoundedCache<String, String> cache = new BoundedCache<>("Test cache", 2, String::length);
+    cache.put("a", "a");
+    cache.put("b", "bbb");
+    assertThat(cache.get("a"), is("a"));
+    assertThat(cache.get("b"), is(nullValue()));
+  }
+
+  @Test
+  public void shrinkingTheMaximumEvictsTheLeastRecentlyUsedEntries() {
+    BoundedCache<String, String> cache = new BoundedCache<>("Test cache", 4, String::length);
+    cache.put("a", "aa");
+    cache.put("b", "bb");
+    cache.setMaxWeight(2);
+    assertThat(cache.contains("a"), is(false));
+    assertThat(cache.get("b"), is("bb"));
+    cache.setMaxWeight(0);
+    assertThat(cache.contains("b"), is(false));
+    cache.put("c", "c");
+    assertThat(cache.contains("c"), is(false));
+  }
+}
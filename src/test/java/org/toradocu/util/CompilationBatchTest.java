@@ -0,0 +1,121 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.testlib.ExampleClasses;
+import org.toradocu.translator.TranslationContext;
+import randoop.condition.specification.Guard;
+
+/**
+ * Tests {@code CompilationBatch} on preconditions of the method fromArrayToCollection of the
+ * example class example.AClass, whose conditions are left to the compiler by the {@code
+ * ConditionTypeChecker}.
+ */
+public class CompilationBatchTest {
+
+  /** Compilable conditions, with a non-compilable one in the middle. */
+  private static final List<String> CONDITIONS =
+      Arrays.asList(
+          "args[1].isEmpty()",
+          "args[1].contains(args[0])",
+          "args[1].size() == \"one\"",
+          "args[1].size() > args[0].length",
+          "args[1].stream().count() > 0");
+  /** Index in {@code CONDITIONS} of the non-compilable condition. */
+  private static final int BROKEN = 2;
+
+  private static DocumentedExecutable member;
+  /** The directories of the compilation caches used by the tests. */
+  private static final List<Path> cacheDirs = new ArrayList<>();
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    member =
+        ExampleClasses.member(ExampleClasses.members("example.AClass"), "fromArrayToCollection");
+  }
+
+  @AfterClass
+  public static void tearDown() throws IOException {
+    for (Path cacheDir : cacheDirs) {
+      Files.deleteIfExists(cacheDir.resolve("compile-verdicts.txt"));
+      Files.delete(cacheDir);
+    }
+  }
+
+  @Test
+  public void onlyTheNonCompilableConditionIsRejected() throws Exception {
+    final CompilationBatch batch = new CompilationBatch(context(newCacheDir()));
+    final List<Integer> candidates = addAll(batch);
+    batch.compile();
+    for (int i = 0; i < candidates.size(); i++) {
+      assertThat(CONDITIONS.get(i), batch.isCompilable(candidates.get(i)), is(i != BROKEN));
+    }
+  }
+
+  @Test
+  public void verdictsAreCached() throws Exception {
+    final Path cacheDir = newCacheDir();
+    final TranslationContext context = context(cacheDir);
+    final CompilationCache cache = CompilationCache.of(cacheDir);
+
+    final CompilationBatch batch = new CompilationBatch(context);
+    addAll(batch);
+    batch.compile();
+    assertThat(cache.getHits(), is(0L));
+    final long misses = cache.getMisses();
+
+    // The verdicts of the candidates of a new batch are known before compiling it.
+    final CompilationBatch cachedBatch = new CompilationBatch(context);
+    final List<Integer> candidates = addAll(cachedBatch);
+    for (int i = 0; i < candidates.size(); i++) {
+      assertThat(CONDITIONS.get(i), cachedBatch.isCompilable(candidates.get(i)), is(i != BROKEN));
+    }
+    assertThat(cache.getHits(), is((long) CONDITIONS.size()));
+    assertThat(cache.getMisses(), is(misses));
+  }
+
+  private static List<Integer> addAll(CompilationBatch batch) {
+    final List<Integer> candidates = new ArrayList<>();
+    for (String condition : CONDITIONS) {
+      candidates.add(batch.addSpecification(member, new Guard(condition, condition)));
+    }
+    return candidates;
+  }
+
+  private static Path newCacheDir() throws IOException {
+    final Path cacheDir = Files.createTempDirectory("cache");
+    cacheDirs.add(cacheDir);
+    return cacheDir;
+  }
+
+  private static TranslationContext context(Path compileCacheDir) {
+    return new TranslationContext(
+        0,
+        0,
+        false,
+        Configuration.INSTANCE.classDirs,
+        Paths.get(ExampleClasses.EXAMPLE_SRC),
+        1,
+        null,
+        compileCacheDir,
+        false,
+        false,
+        0,
+        0,
+        0,
+        0);
+  }
+}
@@ -0,0 +1,50 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class CompilationCacheTest {
+
+  @Test
+  public void keysDependOnTheClassPathAndOnTheSource() {
+    final String key = CompilationCache.key("classpath", "class A {}");
+    assertThat(CompilationCache.key("classpath", "class A {}"), is(key));
+    assertThat(CompilationCache.key("other classpath", "class A {}"), is(not(key)));
+    assertThat(CompilationCache.key("classpath", "class B {}"), is(not(key)));
+  }
+
+  @Test
+  public void verdictsArePersisted() throws IOException {
+    Path cacheDir = Files.createTempDirectory("cache");
+    Path verdictsFile = cacheDir.resolve("compile-verdicts.txt");
+    try {
+      CompilationCache cache = CompilationCache.of(cacheDir);
+      final String compilable = CompilationCache.key("classpath", "class A {}");
+      final String notCompilable = CompilationCache.key("classpath", "class A {");
+
+      assertThat(cache.get(compilable), is(nullValue()));
+      cache.put(compilable, true);
+      cache.put(notCompilable, false);
+      cache.put(notCompilable, false);
+      assertThat(cache.get(compilable), is(true));
+      assertThat(cache.get(notCompilable), is(false));
+      assertThat(cache.getHits(), is(2L));
+      assertThat(cache.getMisses(), is(1L));
+      assertThat(
+          Files.readAllLines(verdictsFile, StandardCharsets.UTF_8),
+          is(Arrays.asList(compilable + " 1", notCompilable + " 0")));
+    } finally {
+      Files.deleteIfExists(verdictsFile);
+      Files.delete(cacheDir);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.Test;
+
+public class CompilerPoolTest {
+
+  @Test
+  public void fingerprintChangesWhenTheClassPathIsRefreshedAfterAChange() throws IOException {
+    Path classDir = Files.createTempDirectory("classes");
+    Path classFile = classDir.resolve("A.class");
+    try {
+      Files.write(classFile, new byte[] {1});
+      CompilerPool pool = CompilerPool.of(Collections.singletonList(classDir.toUri().toURL()));
+      final String fingerprint = pool.getFingerprint();
+
+      pool.refresh();
+      assertThat(pool.getFingerprint(), is(fingerprint));
+
+      Files.write(classFile, new byte[] {1, 2});
+      assertThat(pool.getFingerprint(), is(fingerprint));
+      pool.refresh();
+      assertThat(pool.getFingerprint(), is(not(fingerprint)));
+      assertThat(pool.compile("B", "public class B {}").isEmpty(), is(true));
+    } finally {
+      Files.deleteIfExists(classFile);
+      Files.delete(classDir);
+    }
+  }
+}
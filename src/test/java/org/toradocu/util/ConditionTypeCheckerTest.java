@@ -0,0 +1,63 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.testlib.ExampleClasses;
+import org.toradocu.util.ConditionTypeChecker.Verdict;
+
+/** Tests {@code ConditionTypeChecker} on the example class example.AClass. */
+public class ConditionTypeCheckerTest {
+
+  private static List<DocumentedExecutable> members;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    members = ExampleClasses.members("example.AClass");
+  }
+
+  @Test
+  public void validConditions() {
+    assertThat(precondition("paramIsEqual", "args[0]==null || args[1]==null"), is(Verdict.VALID));
+    assertThat(precondition("paramIsEqual", "args[0] < args[1]"), is(Verdict.VALID));
+    assertThat(precondition("checkArrayLength", "args[0].length==0"), is(Verdict.VALID));
+    assertThat(
+        postcondition("checkArithmeticOp", "true", "methodResultID==args[0]+args[1]"),
+        is(Verdict.VALID));
+  }
+
+  @Test
+  public void invalidConditions() {
+    assertThat(precondition("paramIsEqual", "args[0].isNegative()"), is(Verdict.INVALID));
+    assertThat(precondition("paramIsEqual", "args[0].compareTo(args[1], 0)"), is(Verdict.INVALID));
+    assertThat(precondition("checkArrayLength", "args[0] < 1"), is(Verdict.INVALID));
+    assertThat(precondition("checkNumberInLetter", "args[0]==null"), is(Verdict.INVALID));
+    assertThat(precondition("checkArithmeticOp", "args[0]"), is(Verdict.INVALID));
+    assertThat(precondition("checkArithmeticOp", "methodResultID==0"), is(Verdict.INVALID));
+  }
+
+  @Test
+  public void conditionsLeftToTheCompiler() {
+    assertThat(precondition("fromArrayToCollection", "args[1]==null"), is(Verdict.WELL_TYPED));
+    assertThat(precondition("fromArrayToCollection", "args[1].isEmpty()"), is(Verdict.UNKNOWN));
+    assertThat(
+        precondition("foo", "java.util.Arrays.stream(args[0]).anyMatch(e -> e==null)"),
+        is(Verdict.UNKNOWN));
+  }
+
+  private static Verdict precondition(String methodName, String condition) {
+    return new ConditionTypeChecker(member(methodName), false).check(condition);
+  }
+
+  private static Verdict postcondition(String methodName, String guard, String property) {
+    return new ConditionTypeChecker(member(methodName), true).check(guard, property);
+  }
+
+  private static DocumentedExecutable member(String methodName) {
+    return ExampleClasses.member(members, methodName);
+  }
+}
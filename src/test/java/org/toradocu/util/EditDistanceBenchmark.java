@@ -0,0 +1,65 @@
+package org.toradocu.util;
+
+/**
+ * Microbenchmark comparing {@code Distance.editDistance} with the exhaustive search over word
+ * deletions it replaced. Run it with {@code main}; it is not part of the test suite. The exhaustive
+ * search is skipped for subjects longer than eight words.
+ */
+public class EditDistanceBenchmark {
+
+  private static final String[] IDENTIFIERS = {
+    "x", "values", "getDimension", "maxIterations", "relativeAccuracy", "isEmpty", "target"
+  };
+
+  private static final String[] SUBJECTS = {
+    "the specified value",
+    "the number of points",
+    "the maximal number of iterations allowed",
+    "the relative accuracy of the underlying solver used to compute the values",
+    "the absolute value of the difference between the current and the previous estimate"
+  };
+
+  public static void main(String[] args) {
+    final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+    for (String subject : SUBJECTS) {
+      final int words = subject.split(" ").length;
+      final boolean runExhaustive = words <= 8;
+      // Warm up both implementations.
+      run(subject, 10, false);
+      if (runExhaustive) {
+        run(subject, 10, true);
+      }
+      final long dp = run(subject, iterations, false);
+      String report =
+          String.format(
+              "%2d words: dynamic programming %8.3f us/call",
+              words, dp / 1000.0 / iterations / IDENTIFIERS.length);
+      if (runExhaustive) {
+        final long exhaustive = run(subject, iterations, true);
+        report +=
+            String.format(
+                ", exhaustive %10.3f us/call",
+                exhaustive / 1000.0 / iterations / IDENTIFIERS.length);
+      }
+      System.out.println(report);
+    }
+  }
+
+  private static long run(String subject, int iterations, boolean exhaustive) {
+    int sink = 0;
+    final long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (String identifier : IDENTIFIERS) {
+        sink +=
+            exhaustive
+                ? EditDistanceTest.exhaustiveEditDistance(identifier, subject, 1)
+                : Distance.editDistance(identifier, subject, 1);
+      }
+    }
+    final long elapsed = System.nanoTime() - start;
+    if (sink == Integer.MIN_VALUE) {
+      System.out.println(sink); // Prevents dead-code elimination.
+    }
+    return elapsed;
+  }
+}
@@ -3,6 +3,11 @@ package org.toradocu.util;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class EditDistanceTest {
@@ -78,4 +83,89 @@ public class EditDistanceTest {
     distance = Distance.editDistance("map", "the specified myMap", WORD_DELETION_COST);
     assertThat(distance, is(6));
   }
+
+  @Test
+  public void equivalenceWithExhaustiveSearchTest() throws Exception {
+    final String alphabet = "aAbxy  ";
+    final Random random = new Random(42);
+    for (int run = 0; run < 5000; run++) {
+      final String s0 = randomString(random, alphabet, 6);
+      final String s1 = randomString(random, alphabet, 12);
+      final int wordDeletionCost = random.nextInt(4);
+      assertThat(
+          "Distance between \"" + s0 + "\" and \"" + s1 + "\" with cost " + wordDeletionCost,
+          Distance.editDistance(s0, s1, wordDeletionCost),
+          is(exhaustiveEditDistance(s0, s1, wordDeletionCost)));
+    }
+  }
+
+  @Test
+  public void boundedDistanceTest() throws Exception {
+    final String alphabet = "aAbxy  ";
+    final Random random = new Random(7);
+    for (int run = 0; run < 5000; run++) {
+      final String s0 = randomString(random, alphabet, 6);
+      final String s1 = randomString(random, alphabet, 12);
+      final int wordDeletionCost = random.nextInt(4);
+      final int bound = random.nextInt(6);
+      final int distance = Distance.editDistance(s0, s1, wordDeletionCost);
+      assertThat(
+          "Bounded distance between \"" + s0 + "\" and \"" + s1 + "\" with bound " + bound,
+          Distance.editDistance(s0, s1, wordDeletionCost, bound),
+          is(distance <= bound ? distance : bound + 1));
+    }
+  }
+
+  private static String randomString(Random random, String alphabet, int maxLength) {
+    final StringBuilder string = new StringBuilder();
+    final int length = random.nextInt(maxLength + 1);
+    for (int i = 0; i < length; i++) {
+      string.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return string.toString();
+  }
+
+  /**
+   * Reference implementation of the edit distance: tries every subset of word deletions and
+   * computes the Levenshtein distance for each one.
+   */
+  static int exhaustiveEditDistance(String s0, String s1, int wordDeletionCost) {
+    return exhaustiveEditDistance(
+        wordDeletionCost, s0, new LinkedList<>(Arrays.asList(s1.split(" "))));
+  }
+
+  private static int exhaustiveEditDistance(int wordDeletionCost, String s0, List<String> s1) {
+    int minDistance = levenshteinDistance(s0.toLowerCase(), String.join(" ", s1).toLowerCase());
+    for (int i = 0; i < s1.size(); i++) {
+      String word = s1.remove(i);
+      if (!s1.isEmpty()) {
+        int distance = wordDeletionCost + exhaustiveEditDistance(wordDeletionCost, s0, s1);
+        if (distance < minDistance) {
+          minDistance = distance;
+        }
+      }
+      s1.add(i, word);
+    }
+    return minDistance;
+  }
+
+  private static int levenshteinDistance(String left, String right) {
+    List<int[]> rows = new ArrayList<>();
+    for (int j = 0; j <= right.length(); j++) {
+      int[] row = new int[left.length() + 1];
+      for (int i = 0; i <= left.length(); i++) {
+        if (j == 0) {
+          row[i] = i;
+        } else if (i == 0) {
+          row[i] = j;
+        } else {
+          final int[] previous = rows.get(j - 1);
+          final int cost = left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1;
+          row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+        }
+      }
+      rows.add(row);
+    }
+    return rows.get(right.length())[left.length()];
+  }
 }
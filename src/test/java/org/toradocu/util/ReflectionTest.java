@@ -0,0 +1,56 @@
+package org.toradocu.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.ToolProvider;
+import org.junit.Test;
+
+public class ReflectionTest {
+
+  @Test
+  public void missingClassesAreLoadedOnceTheClassPathIsRefreshed() throws Exception {
+    Path classDir = Files.createTempDirectory("classes");
+    Path sourceFile = classDir.resolve("Late.java");
+    try {
+      List<URL> classDirs = Collections.singletonList(classDir.toUri().toURL());
+      CompilerPool pool = CompilerPool.of(classDirs);
+      pool.refresh();
+      assertThat(isLoadable("Late", classDirs), is(false));
+
+      Files.write(sourceFile, "public class Late {}".getBytes());
+      ToolProvider.getSystemJavaCompiler()
+          .run(null, null, null, "-d", classDir.toString(), sourceFile.toString());
+      assertThat(isLoadable("Late", classDirs), is(false));
+      pool.refresh();
+      assertThat(isLoadable("Late", classDirs), is(true));
+    } finally {
+      deleteRecursively(classDir);
+    }
+  }
+
+  private static boolean isLoadable(String className, List<URL> classDirs) {
+    try {
+      Reflection.getClass(className, classDirs);
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : files.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package example;
+
+public class Counter {
+
+  public int count;
+
+  /**
+   * @param count the new count
+   * @param step the step of the counter
+   */
+  public void reset(int count, int step) {
+    this.count = count;
+  }
+}
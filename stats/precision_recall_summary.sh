@@ -2,6 +2,7 @@
 # It must be invoked with a parameter with value "current" or "tcomment".
 # "current": statistics about the current Toradocu version.
 # "tcomment": statistics using @tComment as translation engine.
+# Set PARSER=nndep to collect the statistics with the neural dependency parser.
 
 ERROR_MESSAGE='Script must be invoked with one parameter: either "toradocu" or "toradocu_semantics" or "tcomment"'
 
@@ -52,6 +53,9 @@ CORRECT RETURN CONDITIONS,WRONG RETURN CONDITIONS,UNEXPECTED RETURN CONDITIONS,M
 fi
 
 # Run Toradocu and collect statistics
+if [ -n "$PARSER" ]; then
+  COMMAND="$COMMAND -Dorg.toradocu.parser=$PARSER"
+fi
 $COMMAND
 
 echo "TOTAL,,,\